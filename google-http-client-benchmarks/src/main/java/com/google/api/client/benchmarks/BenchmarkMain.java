@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected on the command line with the GC profiler ({@code -prof gc}) unless
+ * other profilers are given, so that every suite reports its allocation rate next to its throughput.
+ *
+ * <p>Accepts the same arguments as {@code org.openjdk.jmh.Main}, for example:
+ *
+ * <pre>
+ * java -jar google-http-client-benchmarks/target/benchmarks.jar HttpRequestBenchmark -p transport=net
+ * </pre>
+ */
+public final class BenchmarkMain {
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+    if (commandLineOptions.shouldHelp()
+        || commandLineOptions.shouldList()
+        || commandLineOptions.shouldListProfilers()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    OptionsBuilder options = new OptionsBuilder();
+    options.parent(commandLineOptions);
+    if (commandLineOptions.getProfilers().isEmpty()) {
+      options.addProfiler(GCProfiler.class);
+    }
+    new Runner(options.build()).run();
+  }
+
+  private BenchmarkMain() {}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.benchmarks;
+
+import com.google.api.client.http.GenericUrl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP server on the loopback interface that drains the request content and answers every request
+ * with the same headers and JSON content.
+ */
+public final class LoopbackServer implements Closeable {
+
+  /** Response content. */
+  public static final byte[] RESPONSE_CONTENT =
+      ("{\"kind\":\"benchmark#item\",\"id\":\"0123456789\",\"etag\":\"\\\"abc\\\"\","
+              + "\"name\":\"loopback\",\"size\":1024,\"tags\":[\"a\",\"b\",\"c\"]}")
+          .getBytes(StandardCharsets.UTF_8);
+
+  /** Response content type. */
+  public static final String RESPONSE_CONTENT_TYPE = "application/json; charset=UTF-8";
+
+  /** Names and values of common response headers. */
+  private static final String[][] COMMON_HEADERS = {
+    {"Cache-Control", "private, max-age=0, must-revalidate, no-transform"},
+    {"Etag", "\"0123456789abcdef\""},
+    {"Date", "Mon, 01 Jan 2024 00:00:00 GMT"},
+    {"Vary", "Origin"},
+    {"Server", "loopback"},
+    {"X-content-type-options", "nosniff"},
+    {"X-frame-options", "SAMEORIGIN"},
+    {"X-xss-protection", "0"},
+  };
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final List<String> headerNames;
+  private final List<String> headerValues;
+
+  /**
+   * @param responseHeaderCount number of response headers besides {@code Content-Type} and {@code
+   *     Content-Length}
+   */
+  public LoopbackServer(int responseHeaderCount) throws IOException {
+    headerNames = headerNames(responseHeaderCount);
+    headerValues = headerValues(responseHeaderCount);
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    executor =
+        Executors.newCachedThreadPool(
+            runnable -> {
+              Thread thread = new Thread(runnable, "loopback-server");
+              thread.setDaemon(true);
+              return thread;
+            });
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  /** Returns the URL of the server. */
+  public GenericUrl getUrl() {
+    return new GenericUrl("http://localhost:" + server.getAddress().getPort() + "/benchmark");
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    byte[] buffer = new byte[8192];
+    try (InputStream in = exchange.getRequestBody()) {
+      while (in.read(buffer) != -1) {
+        // drain the request content
+      }
+    }
+    exchange.getResponseHeaders().set("Content-Type", RESPONSE_CONTENT_TYPE);
+    for (int i = 0; i < headerNames.size(); i++) {
+      exchange.getResponseHeaders().add(headerNames.get(i), headerValues.get(i));
+    }
+    exchange.sendResponseHeaders(200, RESPONSE_CONTENT.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(RESPONSE_CONTENT);
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Returns the names of the given number of response headers, starting with common ones and
+   * followed by custom ones.
+   */
+  public static List<String> headerNames(int count) {
+    List<String> names = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      names.add(i < COMMON_HEADERS.length ? COMMON_HEADERS[i][0] : "X-benchmark-" + i);
+    }
+    return Collections.unmodifiableList(names);
+  }
+
+  /** Returns the values of the headers named by {@link #headerNames(int)}. */
+  public static List<String> headerValues(int count) {
+    List<String> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      values.add(i < COMMON_HEADERS.length ? COMMON_HEADERS[i][1] : "value-" + i);
+    }
+    return Collections.unmodifiableList(values);
+  }
+}
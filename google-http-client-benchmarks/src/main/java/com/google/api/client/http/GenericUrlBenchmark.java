@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks parsing and building of {@link GenericUrl}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenericUrlBenchmark {
+
+  private static final String URL =
+      "https://storage.googleapis.com/storage/v1/b/my-bucket/o/path%2Fto%2Fobject.txt"
+          + "?alt=json&fields=items(name,size),nextPageToken&maxResults=100"
+          + "&pageToken=CiAKGjBpNDd2Nmp2Zml2cXRwYjBpOXA&prettyPrint=false";
+
+  private final GenericUrl url = new GenericUrl(URL);
+
+  @Benchmark
+  public GenericUrl parse() {
+    return new GenericUrl(URL);
+  }
+
+  @Benchmark
+  public String build() {
+    return url.build();
+  }
+
+  @Benchmark
+  public String parseAndBuild() {
+    return new GenericUrl(URL).build();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http;
+
+import com.google.api.client.util.Key;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link UriTemplate#expand} as done for every request of a generated API client, and
+ * the expansion of the same templates compiled by {@link UriTemplate#compile(String, String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UriTemplateBenchmark {
+
+  private static final String BASE_URL = "https://storage.googleapis.com/storage/v1/";
+
+  private static final String URI_TEMPLATE = "b/{bucket}/o/{object}";
+
+  private static final String COMPOSITE_URI_TEMPLATE = "b/{bucket}/o{/path*}{?fields,maxResults}";
+
+  private static final UriTemplate.Compiled COMPILED_URI_TEMPLATE =
+      UriTemplate.compile(BASE_URL, URI_TEMPLATE);
+
+  private static final UriTemplate.Compiled COMPILED_COMPOSITE_URI_TEMPLATE =
+      UriTemplate.compile(BASE_URL, COMPOSITE_URI_TEMPLATE);
+
+  private final Parameters parameters = new Parameters();
+
+  @Benchmark
+  public String expand() {
+    return UriTemplate.expand(BASE_URL, URI_TEMPLATE, parameters, true);
+  }
+
+  @Benchmark
+  public String expandComposite() {
+    return UriTemplate.expand(BASE_URL, COMPOSITE_URI_TEMPLATE, parameters, false);
+  }
+
+  @Benchmark
+  public String expandCompiled() {
+    return COMPILED_URI_TEMPLATE.expand(parameters, true);
+  }
+
+  @Benchmark
+  public String expandCompositeCompiled() {
+    return COMPILED_COMPOSITE_URI_TEMPLATE.expand(parameters, false);
+  }
+
+  /** Parameters of a typical request. */
+  public static class Parameters {
+
+    @Key public String bucket = "my-bucket";
+
+    @Key public String object = "path/to/object.txt";
+
+    @Key public List<String> path = Arrays.asList("path", "to", "object.txt");
+
+    @Key public String fields = "items(name,size),nextPageToken";
+
+    @Key public Long maxResults = 100L;
+
+    @Key public Boolean prettyPrint = false;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.json;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.util.Key;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks {@link JsonParser#parse} of a typical list response with each {@link JsonFactory}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonParserBenchmark {
+
+  /** JSON factory under test. */
+  @Param({"gson", "jackson2"})
+  public String factory;
+
+  /** Number of items in the parsed list. */
+  @Param({"1", "100"})
+  public int itemCount;
+
+  private JsonFactory jsonFactory;
+  private byte[] content;
+
+  @Setup
+  @SuppressWarnings("deprecation")
+  public void setUp() {
+    jsonFactory =
+        "gson".equals(factory) ? GsonFactory.getDefaultInstance() : JacksonFactory.getDefaultInstance();
+    content = newContent(itemCount).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Parses into classes with {@link Key} fields. */
+  @Benchmark
+  public ItemList parseTyped() throws IOException {
+    return newParser().parse(ItemList.class);
+  }
+
+  /** Parses into {@link GenericJson} maps. */
+  @Benchmark
+  public GenericJson parseGeneric() throws IOException {
+    return newParser().parse(GenericJson.class);
+  }
+
+  /** Returns a parser of the content as it is read from an HTTP response. */
+  private JsonParser newParser() throws IOException {
+    return jsonFactory.createJsonParser(new ByteArrayInputStream(content), StandardCharsets.UTF_8);
+  }
+
+  private static String newContent(int itemCount) {
+    StringBuilder json = new StringBuilder("{\"kind\":\"benchmark#itemList\",\"nextPageToken\":");
+    json.append("\"CiAKGjBpNDd2Nmp2Zml2cXRwYjBpOXA\",\"items\":[");
+    for (int i = 0; i < itemCount; i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append("{\"kind\":\"benchmark#item\",\"id\":\"item-")
+          .append(i)
+          .append("\",\"etag\":\"\\\"")
+          .append(Integer.toHexString(i * 31))
+          .append("\\\"\",\"name\":\"Item \\u00e9 ")
+          .append(i)
+          .append("\",\"size\":\"")
+          .append(1024L * i)
+          .append("\",\"ratio\":")
+          .append(i / 8.0)
+          .append(",\"enabled\":")
+          .append(i % 2 == 0)
+          .append(",\"tags\":[\"a\",\"b\",\"c\"],\"scores\":[1,2,3,4,5,6,7,8]")
+          .append(",\"owner\":{\"displayName\":\"Owner ")
+          .append(i)
+          .append("\",\"emailAddress\":\"owner")
+          .append(i)
+          .append("@example.com\"}}");
+    }
+    return json.append("]}").toString();
+  }
+
+  /** List response. */
+  public static class ItemList extends GenericJson {
+
+    @Key public String kind;
+
+    @Key public String nextPageToken;
+
+    @Key public List<Item> items;
+  }
+
+  /** Item of a list response. */
+  public static class Item extends GenericJson {
+
+    @Key public String kind;
+
+    @Key public String id;
+
+    @Key public String etag;
+
+    @Key public String name;
+
+    @Key
+    @JsonString
+    public Long size;
+
+    @Key public double ratio;
+
+    @Key public boolean enabled;
+
+    @Key public List<String> tags;
+
+    @Key public int[] scores;
+
+    @Key public Owner owner;
+  }
+
+  /** Owner of an item. */
+  public static class Owner extends GenericJson {
+
+    @Key public String displayName;
+
+    @Key public String emailAddress;
+  }
+}
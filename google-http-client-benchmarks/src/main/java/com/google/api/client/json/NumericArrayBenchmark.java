@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.json;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.util.Key;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link JsonParser#parse} of large JSON arrays of numbers into primitive arrays and
+ * lists of boxed numbers. Compare {@code gc.alloc.rate.norm} of the primitive array benchmarks with
+ * the list benchmarks to see the allocation of boxing each element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumericArrayBenchmark {
+
+  /** JSON factory under test. */
+  @Param({"gson", "jackson2"})
+  public String factory;
+
+  /** Number of elements of each parsed array. */
+  @Param({"1000", "100000"})
+  public int length;
+
+  private JsonFactory jsonFactory;
+  private byte[] longContent;
+  private byte[] doubleContent;
+
+  @Setup
+  @SuppressWarnings("deprecation")
+  public void setUp() {
+    jsonFactory =
+        "gson".equals(factory) ? GsonFactory.getDefaultInstance() : JacksonFactory.getDefaultInstance();
+    StringBuilder longs = new StringBuilder("{\"values\":[");
+    StringBuilder doubles = new StringBuilder("{\"values\":[");
+    for (int i = 0; i < length; i++) {
+      if (i > 0) {
+        longs.append(',');
+        doubles.append(',');
+      }
+      // timestamps and embedding-like values, mostly outside of the boxing caches
+      longs.append(1700000000000L + i * 1000L);
+      doubles.append(Math.sin(i) / 3);
+    }
+    longContent = longs.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    doubleContent = doubles.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Parses into a {@code long[]} field. */
+  @Benchmark
+  public LongArray parseLongArray() throws IOException {
+    return newParser(longContent).parse(LongArray.class);
+  }
+
+  /** Parses into a {@code List<Long>} field. */
+  @Benchmark
+  public LongList parseLongList() throws IOException {
+    return newParser(longContent).parse(LongList.class);
+  }
+
+  /** Parses into a {@code double[]} field. */
+  @Benchmark
+  public DoubleArray parseDoubleArray() throws IOException {
+    return newParser(doubleContent).parse(DoubleArray.class);
+  }
+
+  /** Parses into a {@code List<Double>} field. */
+  @Benchmark
+  public DoubleList parseDoubleList() throws IOException {
+    return newParser(doubleContent).parse(DoubleList.class);
+  }
+
+  private JsonParser newParser(byte[] content) throws IOException {
+    return jsonFactory.createJsonParser(new ByteArrayInputStream(content), StandardCharsets.UTF_8);
+  }
+
+  /** Array of {@code long} values. */
+  public static class LongArray {
+
+    @Key public long[] values;
+  }
+
+  /** List of {@link Long} values. */
+  public static class LongList {
+
+    @Key public List<Long> values;
+  }
+
+  /** Array of {@code double} values. */
+  public static class DoubleArray {
+
+    @Key public double[] values;
+  }
+
+  /** List of {@link Double} values. */
+  public static class DoubleList {
+
+    @Key public List<Double> values;
+  }
+}
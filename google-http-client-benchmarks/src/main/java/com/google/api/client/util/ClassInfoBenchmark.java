@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.util;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.json.JsonParserBenchmark;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link ClassInfo#getFieldInfo(String)} with names read from JSON content and headers,
+ * against the interning lookup it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassInfoBenchmark {
+
+  private static final String[] JSON_KEYS = {
+    "kind", "id", "etag", "name", "size", "ratio", "enabled", "tags", "scores", "owner", "unknown"
+  };
+
+  private static final String[] HEADER_NAMES = {
+    "Content-Type", "Content-Length", "Cache-Control", "ETag", "Date", "Vary", "X-Unknown"
+  };
+
+  private ClassInfo jsonClassInfo;
+  private ClassInfo headersClassInfo;
+  private Map<String, FieldInfo> internedJsonFieldInfos;
+  private Map<String, FieldInfo> internedHeadersFieldInfos;
+
+  /** Keys as a parser creates them, which are not interned. */
+  private String[] jsonKeys;
+
+  private String[] headerNames;
+
+  @Setup
+  public void setUp() {
+    jsonClassInfo = ClassInfo.of(JsonParserBenchmark.Item.class);
+    headersClassInfo = ClassInfo.of(HttpHeaders.class, true);
+    internedJsonFieldInfos = internedFieldInfos(jsonClassInfo);
+    internedHeadersFieldInfos = internedFieldInfos(headersClassInfo);
+    jsonKeys = copies(JSON_KEYS);
+    headerNames = copies(HEADER_NAMES);
+  }
+
+  /** Lookup of every key of a JSON object. */
+  @Benchmark
+  @OperationsPerInvocation(11)
+  public void getFieldInfo_json(Blackhole blackhole) {
+    for (String key : jsonKeys) {
+      blackhole.consume(jsonClassInfo.getFieldInfo(key));
+    }
+  }
+
+  /** Interning lookup of every key of a JSON object. */
+  @Benchmark
+  @OperationsPerInvocation(11)
+  public void intern_json(Blackhole blackhole) {
+    for (String key : jsonKeys) {
+      blackhole.consume(internedJsonFieldInfos.get(key.intern()));
+    }
+  }
+
+  /** Case-insensitive lookup of every response header name. */
+  @Benchmark
+  @OperationsPerInvocation(7)
+  public void getFieldInfo_headers(Blackhole blackhole) {
+    for (String name : headerNames) {
+      blackhole.consume(headersClassInfo.getFieldInfo(name));
+    }
+  }
+
+  /** Case-insensitive interning lookup of every response header name. */
+  @Benchmark
+  @OperationsPerInvocation(7)
+  public void intern_headers(Blackhole blackhole) {
+    for (String name : headerNames) {
+      blackhole.consume(internedHeadersFieldInfos.get(name.toLowerCase(Locale.US).intern()));
+    }
+  }
+
+  private static Map<String, FieldInfo> internedFieldInfos(ClassInfo classInfo) {
+    Map<String, FieldInfo> fieldInfos = new IdentityHashMap<String, FieldInfo>();
+    for (String name : classInfo.names) {
+      fieldInfos.put(name == null ? null : name.intern(), classInfo.getFieldInfo(name));
+    }
+    return fieldInfos;
+  }
+
+  private static String[] copies(String[] strings) {
+    String[] copies = new String[strings.length];
+    for (int i = 0; i < strings.length; i++) {
+      copies[i] = new String(strings[i].toCharArray());
+    }
+    return copies;
+  }
+}
@@ -17,13 +17,19 @@ package com.google.api.client.http.java11.httpclient;
 import com.google.api.client.http.LowLevelHttpRequest;
 import com.google.api.client.http.LowLevelHttpResponse;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Yaniv Inbar
@@ -34,19 +40,33 @@ final class Java11HttpClientHttpRequest extends LowLevelHttpRequest {
     private HttpRequest.Builder requestBuilder;
     private final String method;
 
-    //  private RequestConfig.Builder requestConfig;
+    /** Size in bytes of each request content chunk. */
+    private final int contentChunkSize;
 
-    Java11HttpClientHttpRequest(HttpClient httpClient, HttpRequest.Builder requestBuilder,String method) {
+    /** Publisher of the request content or {@code null} for none. */
+    private StreamingContentBodyPublisher contentPublisher;
+
+    /** Read timeout in milliseconds or {@code 0} for an infinite timeout. */
+    private int readTimeoutInMs;
+
+    Java11HttpClientHttpRequest(
+        HttpClient httpClient, HttpRequest.Builder requestBuilder, String method) {
+        this(
+            httpClient,
+            requestBuilder,
+            method,
+            Java11HttpClientHttpTransport.DEFAULT_CONTENT_CHUNK_SIZE);
+    }
+
+    Java11HttpClientHttpRequest(
+        HttpClient httpClient,
+        HttpRequest.Builder requestBuilder,
+        String method,
+        int contentChunkSize) {
         this.httpClient = httpClient;
         this.requestBuilder = requestBuilder;
         this.method = method;
-        // disable redirects as google-http-client handles redirects
-        //    this.requestConfig =
-        //        RequestConfig.custom()
-        //            .setRedirectsEnabled(false)
-        //            .setNormalizeUri(false)
-        //            // TODO(chingor): configure in HttpClientBuilder when available
-        //            .setStaleConnectionCheckEnabled(false);
+        this.contentChunkSize = contentChunkSize;
     }
 
     @Override
@@ -54,41 +74,158 @@ final class Java11HttpClientHttpRequest extends LowLevelHttpRequest {
         requestBuilder=   requestBuilder.header(name, value);
     }
 
-    //  @Override
-    //  public void setTimeout(int connectTimeoutInMs, int readTimeoutInMs) throws IOException {
-    //    requestBuilder.timeout(Duration.ofMillis(connectTimeoutInMs));
-    //  }
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The Java 11 HTTP client only supports a single timeout per request, which covers the time
+     * until the response headers have been received, including the time to send the content. It is
+     * therefore only set to the read timeout for requests without content. For requests with
+     * content, the read timeout starts once the content has been written, so that slow uploads are
+     * not limited by it. A read timeout of zero is infinite. The connect timeout can only be
+     * configured on the HTTP client, see {@link
+     * Java11HttpClientHttpTransport#newDefaultHttpClientBuilder()}.
+     */
+    @Override
+    public void setTimeout(int connectTimeoutInMs, int readTimeoutInMs) throws IOException {
+        this.readTimeoutInMs = readTimeoutInMs;
+    }
 
     @Override
     public LowLevelHttpResponse execute() throws IOException {
-        if (getStreamingContent() != null) {
+        HttpRequest request = prepareRequest();
+        return new Java11HttpClientHttpResponse(request, getResponse(send(request)));
+    }
 
-            var byteArrayOutputStream=  new ByteArrayOutputStream();
-            getStreamingContent().writeTo(byteArrayOutputStream);
+    /**
+     * Sends the request without waiting for the response.
+     *
+     * <p>The request content, if any, is written on the calling thread before returning.
+     */
+    @Override
+    public CompletionStage<LowLevelHttpResponse> executeAsync() {
+        try {
+            HttpRequest request = prepareRequest();
+            return send(request)
+                .thenApply(response -> new Java11HttpClientHttpResponse(request, response));
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-            requestBuilder=requestBuilder.method(method, HttpRequest.BodyPublishers.ofByteArray(byteArrayOutputStream.toByteArray()));
+    /** Sets the method and content of the request and builds it. */
+    private HttpRequest prepareRequest() {
+        if (getStreamingContent() != null) {
+            if (getContentType() != null) {
+                requestBuilder.header("Content-Type", getContentType());
+            }
+            if (getContentEncoding() != null) {
+                requestBuilder.header("Content-Encoding", getContentEncoding());
+            }
+            if (getContentLength() == 0) {
+                requestBuilder.method(method, HttpRequest.BodyPublishers.noBody());
+            } else {
+                // a known length is sent as Content-Length, otherwise the content is chunked
+                contentPublisher =
+                    new StreamingContentBodyPublisher(
+                        getStreamingContent(), getContentLength(), contentChunkSize);
+                requestBuilder.method(method, contentPublisher);
+            }
+        } else {
+            requestBuilder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        if (contentPublisher == null && readTimeoutInMs > 0) {
+            requestBuilder.timeout(Duration.ofMillis(readTimeoutInMs));
+        }
+        return requestBuilder.build();
+    }
 
-//                  ContentEntity entity = new ContentEntity(getContentLength(), getStreamingContent());
-//                  entity.setContentEncoding(getContentEncoding());
-//                  entity.setContentType(getContentType());
-//                  if (getContentLength() == -1) {
-//                    entity.setChunked(true);
-//                  }
-//                  ((HttpEntityEnclosingRequest) request).setEntity(entity);
-        }else {
-            requestBuilder=requestBuilder.method(method, HttpRequest.BodyPublishers.noBody());
+    /** Sends the request and writes its content, if any, on the calling thread. */
+    private CompletableFuture<HttpResponse<InputStream>> send(HttpRequest request)
+        throws IOException {
+        CompletableFuture<HttpResponse<InputStream>> responseFuture =
+            httpClient.sendAsync(request, BodyHandlers.ofInputStream());
+        if (contentPublisher != null) {
+            // stop writing as soon as the exchange fails or the server responds early
+            final StreamingContentBodyPublisher publisher = contentPublisher;
+            responseFuture.whenComplete((response, error) -> publisher.cancel());
+            try {
+                publisher.writeContent();
+            } catch (IOException | RuntimeException e) {
+                responseFuture.cancel(true);
+                throw e;
+            }
+            if (readTimeoutInMs > 0) {
+                return withReadTimeout(responseFuture);
+            }
         }
-        //    request.setConfig(requestConfig.build());
-        var request = requestBuilder.build();
+        return responseFuture;
+    }
+
+    /**
+     * Returns a future of the response that fails with an {@link HttpTimeoutException} if the
+     * response headers are not received within the read timeout, like the request timeout of the
+     * HTTP client does.
+     */
+    private CompletableFuture<HttpResponse<InputStream>> withReadTimeout(
+        CompletableFuture<HttpResponse<InputStream>> responseFuture) {
+        CompletableFuture<HttpResponse<InputStream>> result = new CompletableFuture<>();
+        responseFuture.whenComplete(
+            (response, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else if (!result.complete(response)) {
+                    // a response that arrived too late is discarded
+                    closeQuietly(response.body());
+                }
+            });
+        result.whenComplete(
+            (response, error) -> {
+                if (result.isCancelled()) {
+                    responseFuture.cancel(true);
+                }
+            });
+        CompletableFuture.delayedExecutor(readTimeoutInMs, TimeUnit.MILLISECONDS)
+            .execute(
+                () -> {
+                    if (result.completeExceptionally(
+                        new HttpTimeoutException("request timed out"))) {
+                        responseFuture.cancel(true);
+                    }
+                });
+        return result;
+    }
+
+    private static void closeQuietly(InputStream content) {
         try {
-            var response = httpClient.sendAsync(request, BodyHandlers.ofInputStream()).get();
-            return new Java11HttpClientHttpResponse(request, response);
-        }
-        catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            content.close();
+        } catch (IOException e) {
+            // nothing left to release
         }
-        catch (ExecutionException e) {
-            throw new RuntimeException(e);
+    }
+
+    /**
+     * Waits for the response, unwrapping failures into {@link IOException}s so that they can be
+     * handled by the retry logic of {@link com.google.api.client.http.HttpRequest}.
+     *
+     * <p>The in-flight exchange is cancelled if the calling thread is interrupted.
+     */
+    private static HttpResponse<InputStream> getResponse(
+        CompletableFuture<HttpResponse<InputStream>> responseFuture) throws IOException {
+        try {
+            return responseFuture.get();
+        } catch (InterruptedException e) {
+            responseFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
         }
     }
 }
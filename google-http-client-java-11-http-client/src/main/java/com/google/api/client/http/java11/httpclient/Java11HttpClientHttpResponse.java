@@ -60,7 +60,7 @@ final class Java11HttpClientHttpResponse extends LowLevelHttpResponse {
     if (response == null) {
       return null;
     }
-    return headers.get("Content-Encoding").get(0);
+    return response.headers().firstValue("Content-Encoding").orElse(null);
 
 //HttpEntity entity = response.getEntity();
 //    if (entity != null) {
@@ -14,33 +14,21 @@
 
 package com.google.api.client.http.java11.httpclient;
 
-import com.google.api.client.http.HttpMethods;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.util.Beta;
+import com.google.api.client.util.Preconditions;
 import java.io.IOException;
-import java.net.ProxySelector;
+import java.io.InterruptedIOException;
 import java.net.URI;
-import java.net.http.HttpClient.Builder;
+import java.net.http.HttpClient;
 import java.net.http.HttpClient.Redirect;
 import java.net.http.HttpClient.Version;
 import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.net.http.HttpClient;
-import org.apache.http.client.methods.HttpDelete;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpHead;
-import org.apache.http.client.methods.HttpOptions;
-import org.apache.http.client.methods.HttpPatch;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpPut;
-import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.client.methods.HttpTrace;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
-import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
 
 /**
  * Thread-safe HTTP transport based on the Apache HTTP Client library.
@@ -61,22 +49,37 @@ import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
 @Beta
 public final class Java11HttpClientHttpTransport extends HttpTransport {
 
+  /** Default size in bytes of each request content chunk. */
+  static final int DEFAULT_CONTENT_CHUNK_SIZE = 8 * 1024;
+
+  /** Connect timeout in milliseconds of the default HTTP client. */
+  private static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 20_000;
+
+  /** Maximum time in milliseconds {@link #shutdown()} waits for executing tasks to complete. */
+  private static final long SHUTDOWN_TIMEOUT_MILLIS = 30_000;
+
   /** Apache HTTP client. */
   private final HttpClient httpClient;
 
   /** If the HTTP client uses mTLS channel. */
   private final boolean isMtls;
 
+  /** Size in bytes of each request content chunk. */
+  private final int contentChunkSize;
+
+  /** Executor created by this transport and shut down with it, or {@code null} for none. */
+  private final ExecutorService ownedExecutor;
+
+  /** Whether the HTTP client was created by this transport and is closed with it. */
+  private final boolean ownsHttpClient;
+
   /**
    * Constructor that uses {@link #newDefaultHttpClient()} for the Apache HTTP client.
    *
    * @since 1.30
    */
   public Java11HttpClientHttpTransport() {
-    this(newDefaultHttpClient(), false);
-  }
-  public Java11HttpClientHttpTransport() {
-    this(newDefaultHttpClient(), false);
+    this(newDefaultHttpClient(), false, DEFAULT_CONTENT_CHUNK_SIZE, null, true);
   }
 
   /**
@@ -91,14 +94,18 @@ public final class Java11HttpClientHttpTransport extends HttpTransport {
    *   <li>HTTP version is set to 1.1.
    *   <li>Redirects are disabled (google-http-client handles redirects).
    *   <li>Retries are disabled (google-http-client handles retries).
+   *   <li>No authenticator is set (google-http-client handles authentication).
    * </ul>
    *
+   * <p>Request content is written once per request, so requests with content fail if the HTTP
+   * client resends them on its own, for example to follow a 307 or 308 redirect or to answer an
+   * authentication challenge.
+   *
    * @param httpClient Apache HTTP client to use
    * @since 1.30
    */
   public Java11HttpClientHttpTransport(HttpClient httpClient) {
-    this.httpClient = httpClient;
-    this.isMtls = false;
+    this(httpClient, false);
   }
 
   /**
@@ -114,34 +121,48 @@ public final class Java11HttpClientHttpTransport extends HttpTransport {
    *   <li>HTTP version is set to 1.1.
    *   <li>Redirects are disabled (google-http-client handles redirects).
    *   <li>Retries are disabled (google-http-client handles retries).
+   *   <li>No authenticator is set (google-http-client handles authentication).
    * </ul>
    *
+   * <p>Request content is written once per request, so requests with content fail if the HTTP
+   * client resends them on its own, for example to follow a 307 or 308 redirect or to answer an
+   * authentication challenge.
+   *
    * @param httpClient Apache HTTP client to use
    * @param isMtls If the HTTP client is mutual TLS
    * @since 1.38
    */
   public Java11HttpClientHttpTransport(HttpClient httpClient, boolean isMtls) {
+    this(httpClient, isMtls, DEFAULT_CONTENT_CHUNK_SIZE, null, false);
+  }
+
+  /**
+   * @param httpClient Java 11 HTTP client to use
+   * @param isMtls If the HTTP client is mutual TLS
+   * @param contentChunkSize size in bytes of each request content chunk
+   * @param ownedExecutor executor to shut down with this transport or {@code null} for none
+   * @param ownsHttpClient whether to close the HTTP client with this transport
+   */
+  Java11HttpClientHttpTransport(
+      HttpClient httpClient,
+      boolean isMtls,
+      int contentChunkSize,
+      ExecutorService ownedExecutor,
+      boolean ownsHttpClient) {
     this.httpClient = httpClient;
     this.isMtls = isMtls;
+    this.contentChunkSize = contentChunkSize;
+    this.ownedExecutor = ownedExecutor;
+    this.ownsHttpClient = ownsHttpClient;
   }
 
   /**
-   * Creates a new instance of the Apache HTTP client that is used by the {@link
+   * Creates a new instance of the Java 11 HTTP client that is used by the {@link
    * #Java11HttpClientHttpTransport()} constructor.
    *
-   * <p>Settings:
-   *
-   * <ul>
-   *   <li>The client connection manager is set to {@link PoolingHttpClientConnectionManager}.
-   *   <li><The retry mechanism is turned off using {@link
-   *       HttpClientBuilder#disableRedirectHandling}.
-   *   <li>The route planner uses {@link SystemDefaultRoutePlanner} with {@link
-   *       ProxySelector#getDefault()}, which uses the proxy settings from <a
-   *       href="https://docs.oracle.com/javase/7/docs/api/java/net/doc-files/net-properties.html">system
-   *       properties</a>.
-   * </ul>
+   * <p>See {@link #newDefaultHttpClientBuilder()} for the settings.
    *
-   * @return new instance of the Apache HTTP client
+   * @return new instance of the Java 11 HTTP client
    * @since 1.30
    */
   public static HttpClient newDefaultHttpClient() {
@@ -149,28 +170,29 @@ public final class Java11HttpClientHttpTransport extends HttpTransport {
   }
 
   /**
-   * Creates a new Apache HTTP client builder that is used by the {@link #Java11HttpClientHttpTransport()}
-   * constructor.
+   * Creates a new Java 11 HTTP client builder that is used by the {@link
+   * #Java11HttpClientHttpTransport()} constructor.
    *
    * <p>Settings:
    *
    * <ul>
-   *   <li>The client connection manager is set to {@link PoolingHttpClientConnectionManager}.
-   *   <li><The retry mechanism is turned off using {@link
-   *       HttpClientBuilder#disableRedirectHandling}.
-   *   <li>The route planner uses {@link SystemDefaultRoutePlanner} with {@link
-   *       ProxySelector#getDefault()}, which uses the proxy settings from <a
-   *       href="http://docs.oracle.com/javase/7/docs/api/java/net/doc-files/net-properties.html">system
-   *       properties</a>.
+   *   <li>HTTP/2 is preferred, falling back to HTTP/1.1 when the server does not support it.
+   *   <li>Redirects are disabled (google-http-client handles redirects).
+   *   <li>The connect timeout is 20 seconds, the default of {@link
+   *       com.google.api.client.http.HttpRequest#getConnectTimeout()}. Per-request connect timeouts
+   *       are not supported by the Java 11 HTTP client.
+   *   <li>No executor is set, so the HTTP client uses its own default executor. Use {@link
+   *       Builder#setExecutor} or {@link Builder#useVirtualThreads} to change it.
    * </ul>
    *
-   * @return new instance of the Apache HTTP client
+   * @return new instance of the Java 11 HTTP client builder
    * @since 1.31
    */
-  public static Builder newDefaultHttpClientBuilder() {
-    System.out.println("Java11HttpClientHttpTransport.newDefaultHttpClientBuilder");
-    var h= Executors.newFixedThreadPool(2);
-    return HttpClient.newBuilder().executor(h);
+  public static HttpClient.Builder newDefaultHttpClientBuilder() {
+    return HttpClient.newBuilder()
+        .version(Version.HTTP_2)
+        .followRedirects(Redirect.NEVER)
+        .connectTimeout(Duration.ofMillis(DEFAULT_CONNECT_TIMEOUT_MILLIS));
   }
 
   @Override
@@ -183,7 +205,8 @@ public final class Java11HttpClientHttpTransport extends HttpTransport {
     try {
       HttpRequest.Builder requestBuilder= HttpRequest.newBuilder()
                                                      .uri(new URI(url));
-      return new Java11HttpClientHttpRequest(httpClient, requestBuilder,method);
+      return new Java11HttpClientHttpRequest(
+          httpClient, requestBuilder, method, contentChunkSize);
 
     }
     catch (java.net.URISyntaxException e) {
@@ -192,14 +215,36 @@ public final class Java11HttpClientHttpTransport extends HttpTransport {
   }
 
   /**
-   * Shuts down the connection manager and releases allocated resources. This closes all
-   * connections, whether they are currently used or not.
+   * Shuts down the resources created by this transport.
+   *
+   * <p>An executor created by {@link Builder#useVirtualThreads} stops accepting new tasks and is
+   * given up to 30 seconds for running tasks to complete before they are interrupted. On Java 21
+   * and later, an HTTP client created by this transport is closed as well, which closes its
+   * connections. An HTTP client or executor supplied by the caller is left untouched.
    *
    * @since 1.30
    */
   @Override
   public void shutdown() throws IOException {
-
+    if (ownsHttpClient && httpClient instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) httpClient).close();
+      } catch (Exception e) {
+        throw new IOException(e);
+      }
+    }
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdown();
+      try {
+        if (!ownedExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+          ownedExecutor.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        ownedExecutor.shutdownNow();
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while shutting down the executor");
+      }
+    }
   }
 
   /**
@@ -216,4 +261,119 @@ public final class Java11HttpClientHttpTransport extends HttpTransport {
   public boolean isMtls() {
     return isMtls;
   }
+
+  /**
+   * Builder for {@link Java11HttpClientHttpTransport}.
+   *
+   * <p>Implementation is not thread-safe.
+   *
+   * @since 1.44
+   */
+  public static final class Builder {
+
+    /** Java 11 HTTP client or {@code null} to build one from the other options. */
+    private HttpClient httpClient;
+
+    /** Executor for the HTTP client or {@code null} for its default executor. */
+    private Executor executor;
+
+    /** Whether {@link #executor} was created by this builder and is owned by the transport. */
+    private boolean ownsExecutor;
+
+    /** Whether the transport is mTLS. Default value is {@code false}. */
+    private boolean isMtls;
+
+    /** Size in bytes of each request content chunk. */
+    private int contentChunkSize = DEFAULT_CONTENT_CHUNK_SIZE;
+
+    /**
+     * Sets the Java 11 HTTP client or {@code null} to build one based on {@link
+     * #newDefaultHttpClientBuilder()}. The {@link #setExecutor executor} option is ignored when an
+     * HTTP client is set.
+     *
+     * <p>Request content is written once per request, so the HTTP client must not follow redirects
+     * or use an authenticator: requests with content fail if the client resends them on its own,
+     * for example to follow a 307 or 308 redirect or to answer an authentication challenge.
+     */
+    public Builder setHttpClient(HttpClient httpClient) {
+      this.httpClient = httpClient;
+      return this;
+    }
+
+    /** Returns the executor for the HTTP client or {@code null} for its default executor. */
+    public Executor getExecutor() {
+      return executor;
+    }
+
+    /**
+     * Sets the executor used by the HTTP client for asynchronous tasks and dependent stages, or
+     * {@code null} for its default executor.
+     */
+    public Builder setExecutor(Executor executor) {
+      this.executor = executor;
+      this.ownsExecutor = false;
+      return this;
+    }
+
+    /**
+     * Sets the executor to one that starts a new virtual thread for each task. The executor is shut
+     * down by {@link Java11HttpClientHttpTransport#shutdown()}.
+     *
+     * @throws UnsupportedOperationException if the Java runtime does not support virtual threads
+     */
+    public Builder useVirtualThreads() {
+      setExecutor(newVirtualThreadPerTaskExecutor());
+      ownsExecutor = true;
+      return this;
+    }
+
+    /** Sets whether the HTTP client is mutual TLS. Default value is {@code false}. */
+    public Builder setMtls(boolean isMtls) {
+      this.isMtls = isMtls;
+      return this;
+    }
+
+    /** Returns the size in bytes of each request content chunk. */
+    public int getContentChunkSize() {
+      return contentChunkSize;
+    }
+
+    /**
+     * Sets the size in bytes of each buffer that request content is written into. Default value is
+     * 8 KiB.
+     */
+    public Builder setContentChunkSize(int contentChunkSize) {
+      Preconditions.checkArgument(contentChunkSize > 0);
+      this.contentChunkSize = contentChunkSize;
+      return this;
+    }
+
+    /** Returns a new instance of {@link Java11HttpClientHttpTransport} based on the options. */
+    public Java11HttpClientHttpTransport build() {
+      if (httpClient != null) {
+        return new Java11HttpClientHttpTransport(
+            httpClient, isMtls, contentChunkSize, null, false);
+      }
+      HttpClient.Builder clientBuilder = newDefaultHttpClientBuilder();
+      if (executor != null) {
+        clientBuilder.executor(executor);
+      }
+      return new Java11HttpClientHttpTransport(
+          clientBuilder.build(),
+          isMtls,
+          contentChunkSize,
+          ownsExecutor ? (ExecutorService) executor : null,
+          true);
+    }
+
+    /** Returns {@code Executors.newVirtualThreadPerTaskExecutor()}, available since Java 21. */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+      try {
+        return (ExecutorService)
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException e) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or later", e);
+      }
+    }
+  }
 }
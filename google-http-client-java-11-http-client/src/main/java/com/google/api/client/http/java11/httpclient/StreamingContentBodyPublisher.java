@@ -0,0 +1,269 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http.java11.httpclient;
+
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.StreamingContent;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link BodyPublisher} that pulls {@link StreamingContent} in bounded chunks.
+ *
+ * <p>The content is written on the thread calling {@link #writeContent()}, directly into the
+ * buffers handed to the HTTP client, and that thread blocks whenever the client has not requested
+ * more chunks. Only the chunks requested by the client are held in memory, regardless of the
+ * content length.
+ *
+ * <p>The publisher supports a single subscription: {@link #writeContent()} must be called once,
+ * after the request was sent. The HTTP client subscribes again when it resends the request on its
+ * own, for example to follow a redirect or to answer an authentication challenge, and such a
+ * subscription fails since no thread would write the content again.
+ */
+final class StreamingContentBodyPublisher implements BodyPublisher {
+
+  /** Streaming content. */
+  private final StreamingContent streamingContent;
+
+  /** Content length or less than zero if not known. */
+  private final long contentLength;
+
+  /** Size in bytes of each chunk. */
+  private final int chunkSize;
+
+  /** Whether the publisher has been subscribed to. */
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  /** Permits for chunks requested by the client but not yet emitted. */
+  private final Semaphore demand = new Semaphore(0);
+
+  /** Released once the client subscribed or the publisher was cancelled. */
+  private final CountDownLatch bound = new CountDownLatch(1);
+
+  /** Subscriber or {@code null} before the client subscribed. */
+  private volatile Flow.Subscriber<? super ByteBuffer> subscriber;
+
+  /** Whether the client cancelled the subscription or the exchange completed. */
+  private volatile boolean cancelled;
+
+  /** Failure that was signalled to the subscriber or {@code null} for none. */
+  private Throwable failure;
+
+  /**
+   * @param streamingContent streaming content
+   * @param contentLength content length or less than zero if not known
+   * @param chunkSize size in bytes of each chunk
+   */
+  StreamingContentBodyPublisher(
+      StreamingContent streamingContent, long contentLength, int chunkSize) {
+    Preconditions.checkArgument(chunkSize > 0);
+    this.streamingContent = Preconditions.checkNotNull(streamingContent);
+    this.contentLength = contentLength < 0 ? -1 : contentLength;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public long contentLength() {
+    return contentLength;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+    if (!subscribed.compareAndSet(false, true)) {
+      // the content is only written once, so the HTTP client cannot resend the request itself
+      subscriber.onSubscribe(new NoopSubscription());
+      subscriber.onError(
+          new IllegalStateException(
+              "Request content is not repeatable: the HTTP client must not follow redirects or"
+                  + " use an authenticator"));
+      return;
+    }
+    Flow.Subscription subscription =
+        new Flow.Subscription() {
+          @Override
+          public void request(long n) {
+            if (n <= 0) {
+              fail(new IllegalArgumentException("non-positive request: " + n));
+              StreamingContentBodyPublisher.this.cancel();
+              return;
+            }
+            // request calls are serial, so the cap cannot be exceeded concurrently
+            long permits = Math.min(n, Integer.MAX_VALUE / 2 - demand.availablePermits());
+            if (permits > 0) {
+              demand.release((int) permits);
+            }
+          }
+
+          @Override
+          public void cancel() {
+            StreamingContentBodyPublisher.this.cancel();
+          }
+        };
+    synchronized (this) {
+      this.subscriber = subscriber;
+      subscriber.onSubscribe(subscription);
+      if (failure != null) {
+        subscriber.onError(failure);
+      }
+    }
+    bound.countDown();
+  }
+
+  /**
+   * Writes the content to the subscriber, blocking while the client has not requested more chunks.
+   *
+   * <p>Returns without error if the subscription was cancelled, in which case the outcome of the
+   * exchange reports the failure.
+   *
+   * @throws IOException if the content failed to write
+   */
+  void writeContent() throws IOException {
+    ChunkOutputStream out = new ChunkOutputStream();
+    try {
+      streamingContent.writeTo(out);
+      out.emitChunk();
+      await();
+      if (!cancelled) {
+        subscriber.onComplete();
+      }
+    } catch (CancelledException e) {
+      // the outcome of the exchange reports why the client stopped reading
+    } catch (IOException | RuntimeException e) {
+      fail(e);
+      throw e;
+    }
+  }
+
+  /** Signals the failure to the subscriber, now or once it subscribes, unless cancelled. */
+  private synchronized void fail(Throwable e) {
+    if (cancelled) {
+      return;
+    }
+    failure = e;
+    cancelled = true;
+    if (subscriber != null) {
+      subscriber.onError(e);
+    }
+  }
+
+  /** Stops writing and wakes up the writing thread. */
+  void cancel() {
+    cancelled = true;
+    // only the writing thread ever waits for demand
+    demand.release();
+    bound.countDown();
+  }
+
+  /** Waits for the client to subscribe. */
+  private void await() throws IOException {
+    try {
+      bound.await();
+    } catch (InterruptedException e) {
+      throw interrupted();
+    }
+  }
+
+  /** Waits for the client to request one more chunk. */
+  private void awaitDemand() throws IOException {
+    try {
+      demand.acquire();
+    } catch (InterruptedException e) {
+      throw interrupted();
+    }
+    if (cancelled) {
+      throw new CancelledException();
+    }
+  }
+
+  private InterruptedIOException interrupted() {
+    Thread.currentThread().interrupt();
+    return new InterruptedIOException("Interrupted while writing request content");
+  }
+
+  /** Output stream that accumulates bytes into chunks and emits them on demand. */
+  private final class ChunkOutputStream extends OutputStream {
+
+    /** Chunk being filled or {@code null} for none. */
+    private ByteBuffer chunk;
+
+    @Override
+    public void write(int b) throws IOException {
+      ensureChunk();
+      chunk.put((byte) b);
+      if (!chunk.hasRemaining()) {
+        emitChunk();
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+        ensureChunk();
+        int count = Math.min(len, chunk.remaining());
+        chunk.put(b, off, count);
+        off += count;
+        len -= count;
+        if (!chunk.hasRemaining()) {
+          emitChunk();
+        }
+      }
+    }
+
+    private void ensureChunk() throws IOException {
+      if (cancelled) {
+        throw new CancelledException();
+      }
+      if (chunk == null) {
+        chunk = ByteBuffer.allocate(chunkSize);
+      }
+    }
+
+    /** Emits the current chunk, if any, once the client requested it. */
+    void emitChunk() throws IOException {
+      if (chunk == null || chunk.position() == 0) {
+        return;
+      }
+      // demand is only signalled once the subscriber is bound
+      awaitDemand();
+      ByteBuffer emitted = chunk;
+      chunk = null;
+      emitted.flip();
+      subscriber.onNext(emitted);
+    }
+  }
+
+  /** Subscription handed to rejected subscribers. */
+  private static final class NoopSubscription implements Flow.Subscription {
+
+    @Override
+    public void request(long n) {}
+
+    @Override
+    public void cancel() {}
+  }
+
+  /** Signals that the client no longer accepts content. */
+  private static final class CancelledException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+  }
+}
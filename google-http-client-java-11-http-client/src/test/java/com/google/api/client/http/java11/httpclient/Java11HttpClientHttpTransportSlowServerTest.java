@@ -0,0 +1,327 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http.java11.httpclient;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.api.client.http.ByteArrayContent;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.InputStreamContent;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+/** Tests timeouts, interruption and shutdown of {@link Java11HttpClientHttpTransport}. */
+public class Java11HttpClientHttpTransportSlowServerTest {
+
+  private static final HttpHandler SLOW_HANDLER =
+      httpExchange -> {
+        try {
+          Thread.sleep(5_000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        writeResponse(httpExchange, "slow");
+      };
+
+  private static final HttpHandler FAST_HANDLER = httpExchange -> writeResponse(httpExchange, "ok");
+
+  /** Responds with the number of bytes of the request content. */
+  private static final HttpHandler COUNTING_HANDLER =
+      httpExchange -> {
+        long count = 0;
+        try (InputStream in = httpExchange.getRequestBody()) {
+          byte[] buffer = new byte[8192];
+          for (int read; (read = in.read(buffer)) != -1; ) {
+            count += read;
+          }
+        }
+        writeResponse(httpExchange, Long.toString(count));
+      };
+
+  private static void writeResponse(com.sun.net.httpserver.HttpExchange httpExchange, String body)
+      throws IOException {
+    byte[] response = body.getBytes(StandardCharsets.UTF_8);
+    httpExchange.sendResponseHeaders(200, response.length);
+    try (OutputStream out = httpExchange.getResponseBody()) {
+      out.write(response);
+    }
+  }
+
+  /** Input stream of zero bytes that pauses before each block. */
+  private static class SlowInputStream extends InputStream {
+    private final int blockSize;
+    private final long pauseMillis;
+    private int blocksLeft;
+    private int remainingInBlock;
+
+    SlowInputStream(int blockCount, int blockSize, long pauseMillis) {
+      this.blocksLeft = blockCount;
+      this.blockSize = blockSize;
+      this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0];
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (remainingInBlock == 0) {
+        if (blocksLeft == 0) {
+          return -1;
+        }
+        blocksLeft--;
+        remainingInBlock = blockSize;
+        try {
+          Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException();
+        }
+      }
+      int count = Math.min(len, remainingInBlock);
+      remainingInBlock -= count;
+      return count;
+    }
+  }
+
+  private static class FakeServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executorService;
+
+    FakeServer(HttpHandler httpHandler) throws IOException {
+      server = HttpServer.create(new InetSocketAddress(0), 0);
+      executorService = Executors.newFixedThreadPool(2);
+      server.setExecutor(executorService);
+      server.createContext("/", httpHandler);
+      server.start();
+    }
+
+    GenericUrl getUrl() {
+      return new GenericUrl("http://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    @Override
+    public void close() {
+      server.stop(0);
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test(timeout = 10_000L)
+  public void testReadTimeout() throws IOException {
+    try (FakeServer server = new FakeServer(SLOW_HANDLER)) {
+      HttpTransport transport = new Java11HttpClientHttpTransport();
+      HttpRequest request =
+          transport.createRequestFactory().buildGetRequest(server.getUrl()).setReadTimeout(200);
+      long start = System.nanoTime();
+      try {
+        request.execute();
+        fail("expected " + HttpTimeoutException.class);
+      } catch (HttpTimeoutException expected) {
+        // expected
+      }
+      assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+    }
+  }
+
+  @Test(timeout = 10_000L)
+  public void testReadTimeout_slowUpload() throws IOException {
+    try (FakeServer server = new FakeServer(COUNTING_HANDLER)) {
+      HttpTransport transport = new Java11HttpClientHttpTransport();
+      // the upload takes about 1 second, much longer than the read timeout
+      InputStreamContent content = new InputStreamContent(null, new SlowInputStream(5, 65536, 200));
+      HttpRequest request =
+          transport
+              .createRequestFactory()
+              .buildPostRequest(server.getUrl(), content)
+              .setReadTimeout(300);
+      assertEquals(Integer.toString(5 * 65536), request.execute().parseAsString());
+    }
+  }
+
+  @Test(timeout = 10_000L)
+  public void testReadTimeout_afterUpload() throws IOException {
+    try (FakeServer server = new FakeServer(SLOW_HANDLER)) {
+      HttpTransport transport = new Java11HttpClientHttpTransport();
+      InputStreamContent content = new InputStreamContent(null, new SlowInputStream(1, 1024, 0));
+      HttpRequest request =
+          transport
+              .createRequestFactory()
+              .buildPostRequest(server.getUrl(), content)
+              .setReadTimeout(200);
+      long start = System.nanoTime();
+      try {
+        request.execute();
+        fail("expected " + HttpTimeoutException.class);
+      } catch (HttpTimeoutException expected) {
+        // expected
+      }
+      assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+    }
+  }
+
+  @Test(timeout = 10_000L)
+  public void testContent_redirectedByHttpClient() throws IOException {
+    HttpHandler redirectingHandler =
+        httpExchange -> {
+          if (httpExchange.getRequestURI().getPath().equals("/moved")) {
+            COUNTING_HANDLER.handle(httpExchange);
+            return;
+          }
+          httpExchange.getRequestBody().readAllBytes();
+          httpExchange.getResponseHeaders().add("Location", "/moved");
+          httpExchange.sendResponseHeaders(307, -1);
+          httpExchange.close();
+        };
+    try (FakeServer server = new FakeServer(redirectingHandler)) {
+      HttpClient httpClient = HttpClient.newBuilder().followRedirects(Redirect.ALWAYS).build();
+      HttpTransport transport =
+          new Java11HttpClientHttpTransport.Builder().setHttpClient(httpClient).build();
+      HttpRequest request =
+          transport
+              .createRequestFactory()
+              .buildPostRequest(server.getUrl(), new ByteArrayContent(null, new byte[] {1, 2, 3}));
+      // fails instead of hanging, since the content is only written once
+      try {
+        request.execute();
+        fail("expected " + IllegalStateException.class);
+      } catch (IllegalStateException expected) {
+        assertTrue(expected.getMessage().contains("not repeatable"));
+      }
+    }
+  }
+
+  @Test(timeout = 10_000L)
+  public void testInfiniteReadTimeout() throws IOException {
+    try (FakeServer server = new FakeServer(FAST_HANDLER)) {
+      HttpTransport transport = new Java11HttpClientHttpTransport();
+      HttpRequest request =
+          transport.createRequestFactory().buildGetRequest(server.getUrl()).setReadTimeout(0);
+      assertEquals("ok", request.execute().parseAsString());
+    }
+  }
+
+  @Test(timeout = 10_000L)
+  public void testInterrupt() throws Exception {
+    try (FakeServer server = new FakeServer(SLOW_HANDLER)) {
+      final HttpTransport transport = new Java11HttpClientHttpTransport();
+      final GenericUrl url = server.getUrl();
+      final AtomicReference<Throwable> thrown = new AtomicReference<>();
+      final AtomicReference<Boolean> interrupted = new AtomicReference<>();
+      Thread caller =
+          new Thread(
+              () -> {
+                try {
+                  transport.createRequestFactory().buildGetRequest(url).execute();
+                } catch (Throwable t) {
+                  thrown.set(t);
+                }
+                interrupted.set(Thread.currentThread().isInterrupted());
+              });
+      caller.start();
+      Thread.sleep(300);
+      caller.interrupt();
+      caller.join(4_000);
+
+      assertFalse("request should stop when interrupted", caller.isAlive());
+      assertTrue(thrown.get() instanceof InterruptedIOException);
+      assertTrue(interrupted.get());
+    }
+  }
+
+  @Test(timeout = 10_000L)
+  public void testExecuteAsync() throws Exception {
+    final CountDownLatch respond = new CountDownLatch(1);
+    HttpHandler handler =
+        httpExchange -> {
+          try {
+            respond.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          writeResponse(httpExchange, "ok");
+        };
+    try (FakeServer server = new FakeServer(handler)) {
+      Java11HttpClientHttpTransport transport = new Java11HttpClientHttpTransport();
+      LowLevelHttpRequest request = transport.buildRequest("GET", server.getUrl().build());
+      CompletableFuture<LowLevelHttpResponse> response =
+          request.executeAsync().toCompletableFuture();
+
+      Thread.sleep(100);
+      assertFalse(response.isDone());
+      respond.countDown();
+      assertEquals(200, response.get().getStatusCode());
+    }
+  }
+
+  @Test(timeout = 40_000L)
+  public void testShutdown_ownedExecutor() throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    HttpClient httpClient =
+        Java11HttpClientHttpTransport.newDefaultHttpClientBuilder().executor(executor).build();
+    Java11HttpClientHttpTransport transport =
+        new Java11HttpClientHttpTransport(
+            httpClient,
+            false,
+            Java11HttpClientHttpTransport.DEFAULT_CONTENT_CHUNK_SIZE,
+            executor,
+            true);
+    try (FakeServer server = new FakeServer(FAST_HANDLER)) {
+      HttpRequest request = transport.createRequestFactory().buildGetRequest(server.getUrl());
+      assertEquals("ok", request.execute().parseAsString());
+    }
+    transport.shutdown();
+    assertTrue(executor.isTerminated());
+  }
+
+  @Test
+  public void testShutdown_suppliedExecutor() throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(1);
+    try {
+      Java11HttpClientHttpTransport transport =
+          new Java11HttpClientHttpTransport.Builder().setExecutor(executor).build();
+      transport.shutdown();
+      assertFalse(executor.isShutdown());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http.java11.httpclient;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.client.util.ByteArrayStreamingContent;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/** Tests {@link StreamingContentBodyPublisher}. */
+public class StreamingContentBodyPublisherTest {
+
+  private static byte[] newContent(int length) {
+    byte[] content = new byte[length];
+    for (int i = 0; i < length; i++) {
+      content[i] = (byte) i;
+    }
+    return content;
+  }
+
+  @Test
+  public void testContentLength() {
+    ByteArrayStreamingContent content = new ByteArrayStreamingContent(new byte[3]);
+    assertEquals(3, new StreamingContentBodyPublisher(content, 3, 16).contentLength());
+    assertEquals(-1, new StreamingContentBodyPublisher(content, -1, 16).contentLength());
+  }
+
+  @Test
+  public void testWriteContent_chunks() throws Exception {
+    byte[] content = newContent(10_000);
+    StreamingContentBodyPublisher publisher =
+        new StreamingContentBodyPublisher(new ByteArrayStreamingContent(content), -1, 4096);
+    CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(subscriber);
+    publisher.writeContent();
+
+    assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+    assertEquals(3, subscriber.chunkSizes.size());
+    assertEquals(4096, (int) subscriber.chunkSizes.get(0));
+    assertEquals(4096, (int) subscriber.chunkSizes.get(1));
+    assertEquals(1808, (int) subscriber.chunkSizes.get(2));
+    assertArrayEquals(content, subscriber.bytes.toByteArray());
+  }
+
+  @Test
+  public void testWriteContent_waitsForDemand() throws Exception {
+    byte[] content = newContent(64);
+    final StreamingContentBodyPublisher publisher =
+        new StreamingContentBodyPublisher(new ByteArrayStreamingContent(content), 64, 16);
+    CollectingSubscriber subscriber = new CollectingSubscriber(1);
+    publisher.subscribe(subscriber);
+    final CountDownLatch written = new CountDownLatch(1);
+    Thread writer =
+        new Thread(
+            () -> {
+              try {
+                publisher.writeContent();
+                written.countDown();
+              } catch (Exception e) {
+                throw new RuntimeException(e);
+              }
+            });
+    writer.start();
+
+    assertFalse(written.await(200, TimeUnit.MILLISECONDS));
+    assertEquals(1, subscriber.chunkSizes.size());
+    subscriber.subscription.request(3);
+    assertTrue(written.await(5, TimeUnit.SECONDS));
+    assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+    assertArrayEquals(content, subscriber.bytes.toByteArray());
+  }
+
+  @Test
+  public void testWriteContent_cancelled() throws Exception {
+    StreamingContentBodyPublisher publisher =
+        new StreamingContentBodyPublisher(new ByteArrayStreamingContent(newContent(64)), 64, 16);
+    CollectingSubscriber subscriber = new CollectingSubscriber(1);
+    publisher.subscribe(subscriber);
+    subscriber.subscription.cancel();
+    // returns instead of blocking for demand that never comes
+    publisher.writeContent();
+    assertTrue(subscriber.chunkSizes.isEmpty());
+    assertEquals(1, subscriber.completed.getCount());
+  }
+
+  @Test
+  public void testSubscribe_notRepeatable() throws Exception {
+    StreamingContentBodyPublisher publisher =
+        new StreamingContentBodyPublisher(new ByteArrayStreamingContent(newContent(4)), 4, 16);
+    publisher.subscribe(new CollectingSubscriber(1));
+    CollectingSubscriber second = new CollectingSubscriber(1);
+    publisher.subscribe(second);
+    assertTrue(second.error instanceof IllegalStateException);
+  }
+
+  private static final class CollectingSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+    private final long initialRequest;
+    final List<Integer> chunkSizes = new ArrayList<>();
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final CountDownLatch completed = new CountDownLatch(1);
+    Flow.Subscription subscription;
+    Throwable error;
+
+    CollectingSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(initialRequest);
+    }
+
+    @Override
+    public synchronized void onNext(ByteBuffer chunk) {
+      chunkSizes.add(chunk.remaining());
+      byte[] data = new byte[chunk.remaining()];
+      chunk.get(data);
+      bytes.write(data, 0, data.length);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed.countDown();
+    }
+  }
+}
@@ -0,0 +1,562 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.json.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor that generates a {@code com.google.api.client.json.GeneratedJsonCodec} for
+ * each class that declares fields with the {@code com.google.api.client.util.Key} annotation.
+ *
+ * <p>The codec of a class {@code Outer.Inner} is generated in the same package as {@code
+ * Outer_Inner_JsonCodec}, with each {@code '_'} of the simple names doubled so that a class {@code
+ * Outer_Inner} has the distinct codec {@code Outer__Inner_JsonCodec}. It parses the fields of type
+ * {@code String}, {@code boolean} and the primitive numeric types, or their wrappers, and
+ * serializes all the fields if they are all accessible from the package. Other fields are left to
+ * the reflective implementation at runtime, as are classes that are private or not member classes.
+ *
+ * <p>Enable it by adding the {@code google-http-client-json-processor} artifact to the annotation
+ * processor path of the compiler. Data classes compiled without it keep using reflection.
+ *
+ * @since 1.44
+ */
+@SupportedAnnotationTypes(JsonCodecProcessor.KEY)
+public final class JsonCodecProcessor extends AbstractProcessor {
+
+  static final String KEY = "com.google.api.client.util.Key";
+
+  private static final String JSON_STRING = "com.google.api.client.json.JsonString";
+
+  private static final String GENERIC_DATA = "com.google.api.client.util.GenericData";
+
+  private static final String CODEC_SUFFIX = "_JsonCodec";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeElement keyType = processingEnv.getElementUtils().getTypeElement(KEY);
+    if (keyType == null) {
+      return false;
+    }
+    Set<TypeElement> dataClasses = new LinkedHashSet<TypeElement>();
+    for (Element element : roundEnv.getElementsAnnotatedWith(keyType)) {
+      if (element.getKind() == ElementKind.FIELD
+          && !element.getModifiers().contains(Modifier.STATIC)) {
+        dataClasses.add((TypeElement) element.getEnclosingElement());
+      }
+    }
+    for (TypeElement dataClass : dataClasses) {
+      if (!isSupported(dataClass)) {
+        continue;
+      }
+      try {
+        writeCodec(dataClass);
+      } catch (IOException e) {
+        processingEnv
+            .getMessager()
+            .printMessage(
+                Diagnostic.Kind.ERROR, "cannot write JSON codec: " + e.getMessage(), dataClass);
+      }
+    }
+    // other processors may also handle @Key
+    return false;
+  }
+
+  /** Returns whether a codec can be generated for the class. */
+  private boolean isSupported(TypeElement dataClass) {
+    if (dataClass.getKind() != ElementKind.CLASS) {
+      return false;
+    }
+    for (Element element = dataClass;
+        element.getKind().isClass() || element.getKind().isInterface();
+        element = element.getEnclosingElement()) {
+      TypeElement type = (TypeElement) element;
+      if (type.getModifiers().contains(Modifier.PRIVATE)
+          || type.getNestingKind() != NestingKind.TOP_LEVEL
+              && type.getNestingKind() != NestingKind.MEMBER) {
+        return false;
+      }
+    }
+    // maps that are not generic data are parsed and serialized as maps
+    return !isSubtype(dataClass, Map.class.getName()) || isSubtype(dataClass, GENERIC_DATA);
+  }
+
+  /** Returns whether the erasure of the class is a subtype of the named class. */
+  private boolean isSubtype(TypeElement type, String className) {
+    TypeElement other = processingEnv.getElementUtils().getTypeElement(className);
+    return other != null
+        && processingEnv
+            .getTypeUtils()
+            .isSubtype(
+                processingEnv.getTypeUtils().erasure(type.asType()),
+                processingEnv.getTypeUtils().erasure(other.asType()));
+  }
+
+  /** Generates the codec source file of the data class. */
+  private void writeCodec(TypeElement dataClass) throws IOException {
+    String packageName = packageOf(dataClass).getQualifiedName().toString();
+    // for example Outer_Inner_JsonCodec for Outer$Inner and Outer__Inner_JsonCodec for Outer_Inner
+    String codecName = escapeName(dataClass) + CODEC_SUFFIX;
+    for (Element element = dataClass.getEnclosingElement();
+        element.getKind() != ElementKind.PACKAGE;
+        element = element.getEnclosingElement()) {
+      codecName = escapeName(element) + "_" + codecName;
+    }
+    Map<String, KeyField> fields = keyFields(dataClass, packageName);
+    boolean serializesFields = true;
+    for (KeyField field : fields.values()) {
+      serializesFields &= field.accessible;
+    }
+    String dataClassName = rawName(dataClass);
+
+    StringBuilder source = new StringBuilder();
+    source.append("// Generated by ").append(JsonCodecProcessor.class.getName());
+    source.append(". Do not edit.\n");
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n");
+    }
+    source.append('\n');
+    source.append("/** JSON codec of {@link ").append(dataClassName).append("}. */\n");
+    source.append("@SuppressWarnings(\"rawtypes\")\n");
+    source.append("public final class ").append(codecName);
+    source.append(" extends com.google.api.client.json.GeneratedJsonCodec {\n");
+    source.append("\n  @Override\n");
+    source.append("  protected java.lang.Class<?> getDataClass() {\n");
+    source.append("    return ").append(dataClassName).append(".class;\n");
+    source.append("  }\n");
+    writeParseField(source, dataClassName, fields);
+    writeSerializeFields(source, dataClassName, fields, serializesFields);
+    source.append("}\n");
+
+    String qualifiedName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, dataClass);
+    try (Writer writer = file.openWriter()) {
+      writer.write(source.toString());
+    }
+  }
+
+  private static void writeParseField(
+      StringBuilder source, String dataClassName, Map<String, KeyField> fields) {
+    source.append("\n  @Override\n");
+    source.append("  protected boolean parseField(\n");
+    source.append("      com.google.api.client.json.JsonParser parser,\n");
+    source.append("      java.lang.Object destination,\n");
+    source.append("      java.lang.String key)\n");
+    source.append("      throws java.io.IOException {\n");
+    boolean any = false;
+    for (KeyField field : fields.values()) {
+      any |= field.parsedType != null;
+    }
+    if (!any) {
+      source.append("    return false;\n");
+      source.append("  }\n");
+      return;
+    }
+    source.append("    ").append(dataClassName).append(" object = (").append(dataClassName);
+    source.append(") destination;\n");
+    source.append("    com.google.api.client.json.JsonToken token = parser.getCurrentToken();\n");
+    source.append("    switch (key) {\n");
+    for (KeyField field : fields.values()) {
+      ParsedType type = field.parsedType;
+      if (type == null) {
+        continue;
+      }
+      String target = field.reference("object");
+      source.append("      case ").append(literal(field.name)).append(":\n");
+      switch (type.kind) {
+        case STRING:
+          appendIf(source, "VALUE_STRING", null, target, "parser.getText()");
+          break;
+        case BOOLEAN:
+          appendIf(
+              source,
+              "VALUE_TRUE",
+              "VALUE_FALSE",
+              target,
+              "token == com.google.api.client.json.JsonToken.VALUE_TRUE");
+          break;
+        case NUMBER:
+          appendIf(
+              source,
+              "VALUE_NUMBER_INT",
+              "VALUE_NUMBER_FLOAT",
+              target,
+              "parser." + type.parserMethod + "()");
+          break;
+      }
+      if (type.nullable) {
+        appendIf(
+            source,
+            "VALUE_NULL",
+            null,
+            target,
+            "com.google.api.client.util.Data.nullOf(" + type.className + ".class)");
+      }
+      source.append("        return false;\n");
+    }
+    source.append("      default:\n");
+    source.append("        return false;\n");
+    source.append("    }\n");
+    source.append("  }\n");
+  }
+
+  private static void appendIf(
+      StringBuilder source, String token, String otherToken, String target, String value) {
+    source.append("        if (token == com.google.api.client.json.JsonToken.").append(token);
+    if (otherToken != null) {
+      source.append("\n            || token == com.google.api.client.json.JsonToken.");
+      source.append(otherToken);
+    }
+    source.append(") {\n");
+    source.append("          ").append(target).append(" = ").append(value).append(";\n");
+    source.append("          return true;\n");
+    source.append("        }\n");
+  }
+
+  private static void writeSerializeFields(
+      StringBuilder source,
+      String dataClassName,
+      Map<String, KeyField> fields,
+      boolean serializesFields) {
+    source.append("\n  @Override\n");
+    source.append("  protected void serializeFields(\n");
+    source.append("      com.google.api.client.json.JsonGenerator generator, java.lang.Object value)\n");
+    source.append("      throws java.io.IOException {\n");
+    if (!serializesFields) {
+      // fields that are not accessible from this package are only written by reflection
+      source.append("    serializeFieldsReflectively(generator, value);\n");
+      source.append("  }\n");
+      return;
+    }
+    if (!fields.isEmpty()) {
+      source.append("    ").append(dataClassName).append(" object = (").append(dataClassName);
+      source.append(") value;\n");
+    }
+    int index = 0;
+    for (KeyField field : fields.values()) {
+      String name = literal(field.name);
+      String reference = field.reference("object");
+      TypeKind kind = field.element.asType().getKind();
+      if (kind.isPrimitive()) {
+        // primitive fields are never null
+        source.append("    generator.writeFieldName(").append(name).append(");\n");
+        if (kind == TypeKind.BOOLEAN) {
+          source.append("    generator.writeBoolean(").append(reference).append(");\n");
+        } else if (!field.jsonString
+            && (kind == TypeKind.INT
+                || kind == TypeKind.LONG
+                || kind == TypeKind.SHORT
+                || kind == TypeKind.BYTE)) {
+          source.append("    generator.writeNumber(").append(reference).append(");\n");
+        } else {
+          source.append("    serializeValue(generator, ").append(reference).append(", ");
+          source.append(field.jsonString).append(");\n");
+        }
+        continue;
+      }
+      String local = "field" + index++;
+      boolean isString = field.parsedType != null && field.parsedType.kind == Kind.STRING;
+      source.append("    ").append(isString ? "java.lang.String " : "java.lang.Object ").append(local);
+      source.append(" = ").append(reference).append(";\n");
+      source.append("    if (").append(local).append(" != null) {\n");
+      source.append("      generator.writeFieldName(").append(name).append(");\n");
+      if (isString) {
+        source.append("      if (com.google.api.client.util.Data.isNull(").append(local);
+        source.append(")) {\n");
+        source.append("        generator.writeNull();\n");
+        source.append("      } else {\n");
+        source.append("        generator.writeString(").append(local).append(");\n");
+        source.append("      }\n");
+      } else {
+        source.append("      serializeValue(generator, ").append(local).append(", ");
+        source.append(field.jsonString).append(");\n");
+      }
+      source.append("    }\n");
+    }
+    source.append("  }\n");
+  }
+
+  /**
+   * Returns the fields with the {@code Key} annotation of the class and its super classes, sorted
+   * by JSON key, with the fields of subclasses hiding the fields of super classes with the same
+   * key.
+   */
+  private Map<String, KeyField> keyFields(TypeElement dataClass, String packageName) {
+    Map<String, KeyField> fields = new TreeMap<String, KeyField>();
+    for (TypeElement type = dataClass; type != null; type = superclassOf(type)) {
+      List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+      boolean typeAccessible =
+          type.getModifiers().contains(Modifier.PUBLIC)
+              || !type.getModifiers().contains(Modifier.PRIVATE)
+                  && packageOf(type).getQualifiedName().contentEquals(packageName);
+      for (VariableElement element : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+        if (element.getModifiers().contains(Modifier.STATIC)) {
+          continue;
+        }
+        AnnotationMirror key = annotation(element, KEY);
+        if (key == null) {
+          continue;
+        }
+        String name = element.getSimpleName().toString();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+            key.getElementValues().entrySet()) {
+          if (entry.getKey().getSimpleName().contentEquals("value")) {
+            String value = (String) entry.getValue().getValue();
+            if (!"##default".equals(value)) {
+              name = value;
+            }
+          }
+        }
+        if (fields.containsKey(name)) {
+          continue;
+        }
+        Set<Modifier> modifiers = element.getModifiers();
+        boolean accessible =
+            typeAccessible
+                && !modifiers.contains(Modifier.PRIVATE)
+                && (modifiers.contains(Modifier.PUBLIC)
+                    || packageOf(type).getQualifiedName().contentEquals(packageName));
+        boolean jsonString = annotation(element, JSON_STRING) != null;
+        ParsedType parsedType = null;
+        // final fields, setters and @JsonString are handled by reflection
+        if (accessible
+            && !modifiers.contains(Modifier.FINAL)
+            && !jsonString
+            && !hasSetter(methods, element)) {
+          parsedType = ParsedType.of(element.asType());
+        }
+        String owner = type == dataClass ? null : rawName(type);
+        fields.put(name, new KeyField(name, element, owner, accessible, jsonString, parsedType));
+      }
+    }
+    return fields;
+  }
+
+  /** Returns whether the class declares a setter that the reflective implementation may call. */
+  private static boolean hasSetter(List<ExecutableElement> methods, VariableElement field) {
+    String setterName = "set" + field.getSimpleName();
+    for (ExecutableElement method : methods) {
+      if (method.getParameters().size() == 1
+          && method
+              .getSimpleName()
+              .toString()
+              .toLowerCase(Locale.US)
+              .equals(setterName.toLowerCase(Locale.US))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private TypeElement superclassOf(TypeElement type) {
+    TypeMirror superclass = type.getSuperclass();
+    if (superclass.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+    return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+  }
+
+  /** Returns the simple name of the element with each {@code '_'} doubled. */
+  private static String escapeName(Element element) {
+    return element.getSimpleName().toString().replace("_", "__");
+  }
+
+  private String rawName(TypeElement type) {
+    return processingEnv.getTypeUtils().erasure(type.asType()).toString();
+  }
+
+  private PackageElement packageOf(Element element) {
+    return processingEnv.getElementUtils().getPackageOf(element);
+  }
+
+  private static AnnotationMirror annotation(Element element, String annotationName) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+      if (type.getQualifiedName().contentEquals(annotationName)) {
+        return mirror;
+      }
+    }
+    return null;
+  }
+
+  /** Returns the Java string literal of the given string. */
+  static String literal(String value) {
+    StringBuilder result = new StringBuilder("\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        result.append('\\').append(c);
+      } else if (c < 0x20 || c >= 0x7f) {
+        result.append(String.format("\\u%04x", (int) c));
+      } else {
+        result.append(c);
+      }
+    }
+    return result.append('"').toString();
+  }
+
+  /** Field with the {@code Key} annotation. */
+  private static final class KeyField {
+
+    /** JSON key. */
+    final String name;
+
+    final VariableElement element;
+
+    /** Raw name of the declaring super class or {@code null} for the data class itself. */
+    final String owner;
+
+    /** Whether the field is accessible from the package of the codec. */
+    final boolean accessible;
+
+    /** Whether the field has the {@code JsonString} annotation. */
+    final boolean jsonString;
+
+    /** Type parsed by the codec or {@code null} if the field is parsed by reflection. */
+    final ParsedType parsedType;
+
+    KeyField(
+        String name,
+        VariableElement element,
+        String owner,
+        boolean accessible,
+        boolean jsonString,
+        ParsedType parsedType) {
+      this.name = name;
+      this.element = element;
+      this.owner = owner;
+      this.accessible = accessible;
+      this.jsonString = jsonString;
+      this.parsedType = parsedType;
+    }
+
+    /** Returns the expression of the field of the given object of the data class. */
+    String reference(String object) {
+      // casts to the super class in case a subclass field hides it
+      String target = owner == null ? object : "((" + owner + ") " + object + ")";
+      return target + "." + element.getSimpleName();
+    }
+  }
+
+  private enum Kind {
+    STRING,
+    BOOLEAN,
+    NUMBER
+  }
+
+  /** Field type parsed by the codec. */
+  private static final class ParsedType {
+
+    final Kind kind;
+
+    /** Name of the class or wrapper class. */
+    final String className;
+
+    /** Name of the {@code JsonParser} method that returns a number or {@code null}. */
+    final String parserMethod;
+
+    /** Whether the type may hold a JSON null. */
+    final boolean nullable;
+
+    private ParsedType(Kind kind, String className, String parserMethod, boolean nullable) {
+      this.kind = kind;
+      this.className = className;
+      this.parserMethod = parserMethod;
+      this.nullable = nullable;
+    }
+
+    /** Returns the parsed type of the given field type or {@code null} if not supported. */
+    static ParsedType of(TypeMirror type) {
+      switch (type.getKind()) {
+        case BOOLEAN:
+          return new ParsedType(Kind.BOOLEAN, "java.lang.Boolean", null, false);
+        case BYTE:
+          return number("Byte", false);
+        case SHORT:
+          return number("Short", false);
+        case INT:
+          return number("Integer", false);
+        case LONG:
+          return number("Long", false);
+        case FLOAT:
+          return number("Float", false);
+        case DOUBLE:
+          return number("Double", false);
+        case DECLARED:
+          break;
+        default:
+          return null;
+      }
+      String name = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+      switch (name) {
+        case "java.lang.String":
+          return new ParsedType(Kind.STRING, "java.lang.String", null, true);
+        case "java.lang.Boolean":
+          return new ParsedType(Kind.BOOLEAN, "java.lang.Boolean", null, true);
+        case "java.lang.Byte":
+          return number("Byte", true);
+        case "java.lang.Short":
+          return number("Short", true);
+        case "java.lang.Integer":
+          return number("Integer", true);
+        case "java.lang.Long":
+          return number("Long", true);
+        case "java.lang.Float":
+          return number("Float", true);
+        case "java.lang.Double":
+          return number("Double", true);
+        default:
+          return null;
+      }
+    }
+
+    private static ParsedType number(String className, boolean nullable) {
+      String method = className.equals("Integer") ? "getIntValue" : "get" + className + "Value";
+      return new ParsedType(Kind.NUMBER, "java.lang." + className, method, nullable);
+    }
+  }
+}
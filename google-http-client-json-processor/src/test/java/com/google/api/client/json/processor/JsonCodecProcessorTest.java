@@ -0,0 +1,271 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.json.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.api.client.json.GeneratedJsonCodec;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.JsonString;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.Data;
+import com.google.api.client.util.Key;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests {@link JsonCodecProcessor}, which generates the codecs of the data classes of this test
+ * when the test sources are compiled.
+ */
+public class JsonCodecProcessorTest {
+
+  private static final JsonFactory FACTORY = GsonFactory.getDefaultInstance();
+
+  public static class Owner {
+    @Key public String login;
+    @Key public int id;
+  }
+
+  public static class Item {
+    @Key public String name;
+    @Key public int count;
+    @Key public long size;
+    @Key public Long version;
+    @Key public boolean active;
+    @Key public Double score;
+
+    @Key("big_id")
+    @JsonString
+    public long bigId;
+
+    @Key public List<String> tags;
+    @Key public Owner owner;
+  }
+
+  public static class Resource extends GenericJson {
+    @Key public String kind;
+    @Key public Integer count;
+  }
+
+  public static class WithSetter {
+    @Key String value;
+
+    public void setValue(String value) {
+      this.value = "set:" + value;
+    }
+  }
+
+  public static class Base {
+    @Key public String id;
+    @Key public String name;
+  }
+
+  public static class Derived extends Base {
+    @Key("name")
+    public String displayName;
+
+    @Key public int rank;
+  }
+
+  public static class WithPrivateField {
+    @Key public String visible;
+    @Key private String hidden;
+
+    String getHidden() {
+      return hidden;
+    }
+  }
+
+  public static class Foo {
+    public static class Bar {
+      @Key public String bar;
+    }
+  }
+
+  public static class Foo_Bar {
+    @Key public int fooBar;
+  }
+
+  private static class PrivateClass {
+    @Key public String value;
+  }
+
+  private static Class<?> codecClassOf(Class<?> dataClass) throws ClassNotFoundException {
+    String name = dataClass.getName();
+    int lastDot = name.lastIndexOf('.');
+    return Class.forName(
+        name.substring(0, lastDot + 1)
+            + name.substring(lastDot + 1).replace("_", "__").replace('$', '_')
+            + "_JsonCodec");
+  }
+
+  @Test
+  public void testCodecGenerated() throws Exception {
+    assertTrue(GeneratedJsonCodec.class.isAssignableFrom(codecClassOf(Item.class)));
+    assertTrue(GeneratedJsonCodec.class.isAssignableFrom(codecClassOf(Resource.class)));
+    assertTrue(GeneratedJsonCodec.class.isAssignableFrom(codecClassOf(Derived.class)));
+  }
+
+  @Test
+  public void testCodecGenerated_distinctNames() throws Exception {
+    Class<?> nestedCodec = codecClassOf(Foo.Bar.class);
+    Class<?> underscoreCodec = codecClassOf(Foo_Bar.class);
+    assertEquals("JsonCodecProcessorTest_Foo_Bar_JsonCodec", nestedCodec.getSimpleName());
+    assertEquals("JsonCodecProcessorTest_Foo__Bar_JsonCodec", underscoreCodec.getSimpleName());
+    assertTrue(GeneratedJsonCodec.class.isAssignableFrom(nestedCodec));
+    assertTrue(GeneratedJsonCodec.class.isAssignableFrom(underscoreCodec));
+
+    Foo.Bar bar = FACTORY.fromString("{\"bar\":\"b\"}", Foo.Bar.class);
+    assertEquals("b", bar.bar);
+    assertEquals("{\"bar\":\"b\"}", FACTORY.toString(bar));
+    Foo_Bar fooBar = FACTORY.fromString("{\"fooBar\":2}", Foo_Bar.class);
+    assertEquals(2, fooBar.fooBar);
+    assertEquals("{\"fooBar\":2}", FACTORY.toString(fooBar));
+  }
+
+  @Test
+  public void testCodecNotGenerated_privateClass() {
+    try {
+      codecClassOf(PrivateClass.class);
+      fail("expected " + ClassNotFoundException.class);
+    } catch (ClassNotFoundException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testParse() throws Exception {
+    Item item =
+        FACTORY.fromString(
+            "{\"name\":\"n\",\"count\":3,\"size\":4000000000,\"version\":7,\"active\":true,"
+                + "\"score\":1.5,\"big_id\":\"12345678901\",\"tags\":[\"a\",\"b\"],"
+                + "\"owner\":{\"login\":\"o\",\"id\":9},\"unknown\":{\"x\":[1]}}",
+            Item.class);
+    assertEquals("n", item.name);
+    assertEquals(3, item.count);
+    assertEquals(4000000000L, item.size);
+    assertEquals(Long.valueOf(7), item.version);
+    assertTrue(item.active);
+    assertEquals(Double.valueOf(1.5), item.score);
+    assertEquals(12345678901L, item.bigId);
+    assertEquals(Arrays.asList("a", "b"), item.tags);
+    assertEquals("o", item.owner.login);
+    assertEquals(9, item.owner.id);
+  }
+
+  @Test
+  public void testParse_nulls() throws Exception {
+    Item item = FACTORY.fromString("{\"name\":null,\"version\":null}", Item.class);
+    assertTrue(Data.isNull(item.name));
+    assertTrue(Data.isNull(item.version));
+  }
+
+  @Test
+  public void testParse_unexpectedToken() throws Exception {
+    try {
+      FACTORY.fromString("{\"version\":\"3\"}", Item.class);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException expected) {
+      // reported by the reflective implementation
+    }
+  }
+
+  @Test
+  public void testParse_genericJson() throws Exception {
+    Resource resource =
+        FACTORY.fromString("{\"kind\":\"k\",\"count\":2,\"extra\":\"e\"}", Resource.class);
+    assertEquals("k", resource.kind);
+    assertEquals(Integer.valueOf(2), resource.count);
+    assertEquals("e", resource.get("extra"));
+    assertEquals(FACTORY, resource.getFactory());
+  }
+
+  @Test
+  public void testParse_setter() throws Exception {
+    WithSetter value = FACTORY.fromString("{\"value\":\"v\"}", WithSetter.class);
+    assertEquals("set:v", value.value);
+  }
+
+  @Test
+  public void testParse_inherited() throws Exception {
+    Derived derived =
+        FACTORY.fromString("{\"id\":\"i\",\"name\":\"n\",\"rank\":2}", Derived.class);
+    assertEquals("i", derived.id);
+    assertEquals("n", derived.displayName);
+    assertNull(((Base) derived).name);
+    assertEquals(2, derived.rank);
+  }
+
+  @Test
+  public void testParse_privateField() throws Exception {
+    WithPrivateField value =
+        FACTORY.fromString("{\"visible\":\"v\",\"hidden\":\"h\"}", WithPrivateField.class);
+    assertEquals("v", value.visible);
+    assertEquals("h", value.getHidden());
+  }
+
+  @Test
+  public void testSerialize() throws Exception {
+    Item item = new Item();
+    item.name = "n";
+    item.count = 3;
+    item.version = Data.nullOf(Long.class);
+    item.bigId = 5;
+    item.tags = Arrays.asList("a");
+    item.owner = new Owner();
+    item.owner.login = "o";
+    assertEquals(
+        "{\"active\":false,\"big_id\":\"5\",\"count\":3,\"name\":\"n\","
+            + "\"owner\":{\"id\":0,\"login\":\"o\"},\"size\":0,\"tags\":[\"a\"],\"version\":null}",
+        FACTORY.toString(item));
+  }
+
+  @Test
+  public void testSerialize_genericJson() throws Exception {
+    Resource resource = new Resource();
+    resource.kind = "k";
+    resource.set("extra", "e");
+    assertEquals("{\"kind\":\"k\",\"extra\":\"e\"}", FACTORY.toString(resource));
+  }
+
+  @Test
+  public void testSerialize_inherited() throws Exception {
+    Derived derived = new Derived();
+    derived.id = "i";
+    derived.displayName = "n";
+    ((Base) derived).name = "hidden";
+    assertEquals("{\"id\":\"i\",\"name\":\"n\",\"rank\":0}", FACTORY.toString(derived));
+  }
+
+  @Test
+  public void testSerialize_privateField() throws Exception {
+    WithPrivateField value = new WithPrivateField();
+    value.visible = "v";
+    value.hidden = "h";
+    assertEquals("{\"hidden\":\"h\",\"visible\":\"v\"}", FACTORY.toString(value));
+  }
+
+  @Test
+  public void testLiteral() {
+    assertEquals("\"a\\\"b\\\\c\\u000a\\u00e9\"", JsonCodecProcessor.literal("a\"b\\c\né"));
+    assertFalse(JsonCodecProcessor.literal("x").contains("\\"));
+  }
+}
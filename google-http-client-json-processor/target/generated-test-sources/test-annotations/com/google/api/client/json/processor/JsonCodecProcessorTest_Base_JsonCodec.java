@@ -0,0 +1,71 @@
+// Generated by com.google.api.client.json.processor.JsonCodecProcessor. Do not edit.
+package com.google.api.client.json.processor;
+
+/** JSON codec of {@link com.google.api.client.json.processor.JsonCodecProcessorTest.Base}. */
+@SuppressWarnings("rawtypes")
+public final class JsonCodecProcessorTest_Base_JsonCodec extends com.google.api.client.json.GeneratedJsonCodec {
+
+  @Override
+  protected java.lang.Class<?> getDataClass() {
+    return com.google.api.client.json.processor.JsonCodecProcessorTest.Base.class;
+  }
+
+  @Override
+  protected boolean parseField(
+      com.google.api.client.json.JsonParser parser,
+      java.lang.Object destination,
+      java.lang.String key)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Base object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Base) destination;
+    com.google.api.client.json.JsonToken token = parser.getCurrentToken();
+    switch (key) {
+      case "id":
+        if (token == com.google.api.client.json.JsonToken.VALUE_STRING) {
+          object.id = parser.getText();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.id = com.google.api.client.util.Data.nullOf(java.lang.String.class);
+          return true;
+        }
+        return false;
+      case "name":
+        if (token == com.google.api.client.json.JsonToken.VALUE_STRING) {
+          object.name = parser.getText();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.name = com.google.api.client.util.Data.nullOf(java.lang.String.class);
+          return true;
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  protected void serializeFields(
+      com.google.api.client.json.JsonGenerator generator, java.lang.Object value)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Base object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Base) value;
+    java.lang.String field0 = object.id;
+    if (field0 != null) {
+      generator.writeFieldName("id");
+      if (com.google.api.client.util.Data.isNull(field0)) {
+        generator.writeNull();
+      } else {
+        generator.writeString(field0);
+      }
+    }
+    java.lang.String field1 = object.name;
+    if (field1 != null) {
+      generator.writeFieldName("name");
+      if (com.google.api.client.util.Data.isNull(field1)) {
+        generator.writeNull();
+      } else {
+        generator.writeString(field1);
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+// Generated by com.google.api.client.json.processor.JsonCodecProcessor. Do not edit.
+package com.google.api.client.json.processor;
+
+/** JSON codec of {@link com.google.api.client.json.processor.JsonCodecProcessorTest.Derived}. */
+@SuppressWarnings("rawtypes")
+public final class JsonCodecProcessorTest_Derived_JsonCodec extends com.google.api.client.json.GeneratedJsonCodec {
+
+  @Override
+  protected java.lang.Class<?> getDataClass() {
+    return com.google.api.client.json.processor.JsonCodecProcessorTest.Derived.class;
+  }
+
+  @Override
+  protected boolean parseField(
+      com.google.api.client.json.JsonParser parser,
+      java.lang.Object destination,
+      java.lang.String key)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Derived object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Derived) destination;
+    com.google.api.client.json.JsonToken token = parser.getCurrentToken();
+    switch (key) {
+      case "id":
+        if (token == com.google.api.client.json.JsonToken.VALUE_STRING) {
+          ((com.google.api.client.json.processor.JsonCodecProcessorTest.Base) object).id = parser.getText();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          ((com.google.api.client.json.processor.JsonCodecProcessorTest.Base) object).id = com.google.api.client.util.Data.nullOf(java.lang.String.class);
+          return true;
+        }
+        return false;
+      case "name":
+        if (token == com.google.api.client.json.JsonToken.VALUE_STRING) {
+          object.displayName = parser.getText();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.displayName = com.google.api.client.util.Data.nullOf(java.lang.String.class);
+          return true;
+        }
+        return false;
+      case "rank":
+        if (token == com.google.api.client.json.JsonToken.VALUE_NUMBER_INT
+            || token == com.google.api.client.json.JsonToken.VALUE_NUMBER_FLOAT) {
+          object.rank = parser.getIntValue();
+          return true;
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  protected void serializeFields(
+      com.google.api.client.json.JsonGenerator generator, java.lang.Object value)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Derived object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Derived) value;
+    java.lang.String field0 = ((com.google.api.client.json.processor.JsonCodecProcessorTest.Base) object).id;
+    if (field0 != null) {
+      generator.writeFieldName("id");
+      if (com.google.api.client.util.Data.isNull(field0)) {
+        generator.writeNull();
+      } else {
+        generator.writeString(field0);
+      }
+    }
+    java.lang.String field1 = object.displayName;
+    if (field1 != null) {
+      generator.writeFieldName("name");
+      if (com.google.api.client.util.Data.isNull(field1)) {
+        generator.writeNull();
+      } else {
+        generator.writeString(field1);
+      }
+    }
+    generator.writeFieldName("rank");
+    generator.writeNumber(object.rank);
+  }
+}
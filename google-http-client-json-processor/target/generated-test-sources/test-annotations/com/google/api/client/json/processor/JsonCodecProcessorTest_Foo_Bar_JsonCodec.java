@@ -0,0 +1,52 @@
+// Generated by com.google.api.client.json.processor.JsonCodecProcessor. Do not edit.
+package com.google.api.client.json.processor;
+
+/** JSON codec of {@link com.google.api.client.json.processor.JsonCodecProcessorTest.Foo.Bar}. */
+@SuppressWarnings("rawtypes")
+public final class JsonCodecProcessorTest_Foo_Bar_JsonCodec extends com.google.api.client.json.GeneratedJsonCodec {
+
+  @Override
+  protected java.lang.Class<?> getDataClass() {
+    return com.google.api.client.json.processor.JsonCodecProcessorTest.Foo.Bar.class;
+  }
+
+  @Override
+  protected boolean parseField(
+      com.google.api.client.json.JsonParser parser,
+      java.lang.Object destination,
+      java.lang.String key)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Foo.Bar object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Foo.Bar) destination;
+    com.google.api.client.json.JsonToken token = parser.getCurrentToken();
+    switch (key) {
+      case "bar":
+        if (token == com.google.api.client.json.JsonToken.VALUE_STRING) {
+          object.bar = parser.getText();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.bar = com.google.api.client.util.Data.nullOf(java.lang.String.class);
+          return true;
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  protected void serializeFields(
+      com.google.api.client.json.JsonGenerator generator, java.lang.Object value)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Foo.Bar object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Foo.Bar) value;
+    java.lang.String field0 = object.bar;
+    if (field0 != null) {
+      generator.writeFieldName("bar");
+      if (com.google.api.client.util.Data.isNull(field0)) {
+        generator.writeNull();
+      } else {
+        generator.writeString(field0);
+      }
+    }
+  }
+}
@@ -0,0 +1,42 @@
+// Generated by com.google.api.client.json.processor.JsonCodecProcessor. Do not edit.
+package com.google.api.client.json.processor;
+
+/** JSON codec of {@link com.google.api.client.json.processor.JsonCodecProcessorTest.Foo_Bar}. */
+@SuppressWarnings("rawtypes")
+public final class JsonCodecProcessorTest_Foo__Bar_JsonCodec extends com.google.api.client.json.GeneratedJsonCodec {
+
+  @Override
+  protected java.lang.Class<?> getDataClass() {
+    return com.google.api.client.json.processor.JsonCodecProcessorTest.Foo_Bar.class;
+  }
+
+  @Override
+  protected boolean parseField(
+      com.google.api.client.json.JsonParser parser,
+      java.lang.Object destination,
+      java.lang.String key)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Foo_Bar object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Foo_Bar) destination;
+    com.google.api.client.json.JsonToken token = parser.getCurrentToken();
+    switch (key) {
+      case "fooBar":
+        if (token == com.google.api.client.json.JsonToken.VALUE_NUMBER_INT
+            || token == com.google.api.client.json.JsonToken.VALUE_NUMBER_FLOAT) {
+          object.fooBar = parser.getIntValue();
+          return true;
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  protected void serializeFields(
+      com.google.api.client.json.JsonGenerator generator, java.lang.Object value)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Foo_Bar object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Foo_Bar) value;
+    generator.writeFieldName("fooBar");
+    generator.writeNumber(object.fooBar);
+  }
+}
@@ -0,0 +1,123 @@
+// Generated by com.google.api.client.json.processor.JsonCodecProcessor. Do not edit.
+package com.google.api.client.json.processor;
+
+/** JSON codec of {@link com.google.api.client.json.processor.JsonCodecProcessorTest.Item}. */
+@SuppressWarnings("rawtypes")
+public final class JsonCodecProcessorTest_Item_JsonCodec extends com.google.api.client.json.GeneratedJsonCodec {
+
+  @Override
+  protected java.lang.Class<?> getDataClass() {
+    return com.google.api.client.json.processor.JsonCodecProcessorTest.Item.class;
+  }
+
+  @Override
+  protected boolean parseField(
+      com.google.api.client.json.JsonParser parser,
+      java.lang.Object destination,
+      java.lang.String key)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Item object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Item) destination;
+    com.google.api.client.json.JsonToken token = parser.getCurrentToken();
+    switch (key) {
+      case "active":
+        if (token == com.google.api.client.json.JsonToken.VALUE_TRUE
+            || token == com.google.api.client.json.JsonToken.VALUE_FALSE) {
+          object.active = token == com.google.api.client.json.JsonToken.VALUE_TRUE;
+          return true;
+        }
+        return false;
+      case "count":
+        if (token == com.google.api.client.json.JsonToken.VALUE_NUMBER_INT
+            || token == com.google.api.client.json.JsonToken.VALUE_NUMBER_FLOAT) {
+          object.count = parser.getIntValue();
+          return true;
+        }
+        return false;
+      case "name":
+        if (token == com.google.api.client.json.JsonToken.VALUE_STRING) {
+          object.name = parser.getText();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.name = com.google.api.client.util.Data.nullOf(java.lang.String.class);
+          return true;
+        }
+        return false;
+      case "score":
+        if (token == com.google.api.client.json.JsonToken.VALUE_NUMBER_INT
+            || token == com.google.api.client.json.JsonToken.VALUE_NUMBER_FLOAT) {
+          object.score = parser.getDoubleValue();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.score = com.google.api.client.util.Data.nullOf(java.lang.Double.class);
+          return true;
+        }
+        return false;
+      case "size":
+        if (token == com.google.api.client.json.JsonToken.VALUE_NUMBER_INT
+            || token == com.google.api.client.json.JsonToken.VALUE_NUMBER_FLOAT) {
+          object.size = parser.getLongValue();
+          return true;
+        }
+        return false;
+      case "version":
+        if (token == com.google.api.client.json.JsonToken.VALUE_NUMBER_INT
+            || token == com.google.api.client.json.JsonToken.VALUE_NUMBER_FLOAT) {
+          object.version = parser.getLongValue();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.version = com.google.api.client.util.Data.nullOf(java.lang.Long.class);
+          return true;
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  protected void serializeFields(
+      com.google.api.client.json.JsonGenerator generator, java.lang.Object value)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Item object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Item) value;
+    generator.writeFieldName("active");
+    generator.writeBoolean(object.active);
+    generator.writeFieldName("big_id");
+    serializeValue(generator, object.bigId, true);
+    generator.writeFieldName("count");
+    generator.writeNumber(object.count);
+    java.lang.String field0 = object.name;
+    if (field0 != null) {
+      generator.writeFieldName("name");
+      if (com.google.api.client.util.Data.isNull(field0)) {
+        generator.writeNull();
+      } else {
+        generator.writeString(field0);
+      }
+    }
+    java.lang.Object field1 = object.owner;
+    if (field1 != null) {
+      generator.writeFieldName("owner");
+      serializeValue(generator, field1, false);
+    }
+    java.lang.Object field2 = object.score;
+    if (field2 != null) {
+      generator.writeFieldName("score");
+      serializeValue(generator, field2, false);
+    }
+    generator.writeFieldName("size");
+    generator.writeNumber(object.size);
+    java.lang.Object field3 = object.tags;
+    if (field3 != null) {
+      generator.writeFieldName("tags");
+      serializeValue(generator, field3, false);
+    }
+    java.lang.Object field4 = object.version;
+    if (field4 != null) {
+      generator.writeFieldName("version");
+      serializeValue(generator, field4, false);
+    }
+  }
+}
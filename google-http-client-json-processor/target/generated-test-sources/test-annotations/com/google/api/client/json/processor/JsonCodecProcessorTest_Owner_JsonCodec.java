@@ -0,0 +1,61 @@
+// Generated by com.google.api.client.json.processor.JsonCodecProcessor. Do not edit.
+package com.google.api.client.json.processor;
+
+/** JSON codec of {@link com.google.api.client.json.processor.JsonCodecProcessorTest.Owner}. */
+@SuppressWarnings("rawtypes")
+public final class JsonCodecProcessorTest_Owner_JsonCodec extends com.google.api.client.json.GeneratedJsonCodec {
+
+  @Override
+  protected java.lang.Class<?> getDataClass() {
+    return com.google.api.client.json.processor.JsonCodecProcessorTest.Owner.class;
+  }
+
+  @Override
+  protected boolean parseField(
+      com.google.api.client.json.JsonParser parser,
+      java.lang.Object destination,
+      java.lang.String key)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Owner object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Owner) destination;
+    com.google.api.client.json.JsonToken token = parser.getCurrentToken();
+    switch (key) {
+      case "id":
+        if (token == com.google.api.client.json.JsonToken.VALUE_NUMBER_INT
+            || token == com.google.api.client.json.JsonToken.VALUE_NUMBER_FLOAT) {
+          object.id = parser.getIntValue();
+          return true;
+        }
+        return false;
+      case "login":
+        if (token == com.google.api.client.json.JsonToken.VALUE_STRING) {
+          object.login = parser.getText();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.login = com.google.api.client.util.Data.nullOf(java.lang.String.class);
+          return true;
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  protected void serializeFields(
+      com.google.api.client.json.JsonGenerator generator, java.lang.Object value)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Owner object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Owner) value;
+    generator.writeFieldName("id");
+    generator.writeNumber(object.id);
+    java.lang.String field0 = object.login;
+    if (field0 != null) {
+      generator.writeFieldName("login");
+      if (com.google.api.client.util.Data.isNull(field0)) {
+        generator.writeNull();
+      } else {
+        generator.writeString(field0);
+      }
+    }
+  }
+}
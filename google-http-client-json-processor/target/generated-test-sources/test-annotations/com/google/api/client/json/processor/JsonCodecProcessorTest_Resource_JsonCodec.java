@@ -0,0 +1,68 @@
+// Generated by com.google.api.client.json.processor.JsonCodecProcessor. Do not edit.
+package com.google.api.client.json.processor;
+
+/** JSON codec of {@link com.google.api.client.json.processor.JsonCodecProcessorTest.Resource}. */
+@SuppressWarnings("rawtypes")
+public final class JsonCodecProcessorTest_Resource_JsonCodec extends com.google.api.client.json.GeneratedJsonCodec {
+
+  @Override
+  protected java.lang.Class<?> getDataClass() {
+    return com.google.api.client.json.processor.JsonCodecProcessorTest.Resource.class;
+  }
+
+  @Override
+  protected boolean parseField(
+      com.google.api.client.json.JsonParser parser,
+      java.lang.Object destination,
+      java.lang.String key)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Resource object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Resource) destination;
+    com.google.api.client.json.JsonToken token = parser.getCurrentToken();
+    switch (key) {
+      case "count":
+        if (token == com.google.api.client.json.JsonToken.VALUE_NUMBER_INT
+            || token == com.google.api.client.json.JsonToken.VALUE_NUMBER_FLOAT) {
+          object.count = parser.getIntValue();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.count = com.google.api.client.util.Data.nullOf(java.lang.Integer.class);
+          return true;
+        }
+        return false;
+      case "kind":
+        if (token == com.google.api.client.json.JsonToken.VALUE_STRING) {
+          object.kind = parser.getText();
+          return true;
+        }
+        if (token == com.google.api.client.json.JsonToken.VALUE_NULL) {
+          object.kind = com.google.api.client.util.Data.nullOf(java.lang.String.class);
+          return true;
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  protected void serializeFields(
+      com.google.api.client.json.JsonGenerator generator, java.lang.Object value)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.Resource object = (com.google.api.client.json.processor.JsonCodecProcessorTest.Resource) value;
+    java.lang.Object field0 = object.count;
+    if (field0 != null) {
+      generator.writeFieldName("count");
+      serializeValue(generator, field0, false);
+    }
+    java.lang.String field1 = object.kind;
+    if (field1 != null) {
+      generator.writeFieldName("kind");
+      if (com.google.api.client.util.Data.isNull(field1)) {
+        generator.writeNull();
+      } else {
+        generator.writeString(field1);
+      }
+    }
+  }
+}
@@ -0,0 +1,33 @@
+// Generated by com.google.api.client.json.processor.JsonCodecProcessor. Do not edit.
+package com.google.api.client.json.processor;
+
+/** JSON codec of {@link com.google.api.client.json.processor.JsonCodecProcessorTest.WithSetter}. */
+@SuppressWarnings("rawtypes")
+public final class JsonCodecProcessorTest_WithSetter_JsonCodec extends com.google.api.client.json.GeneratedJsonCodec {
+
+  @Override
+  protected java.lang.Class<?> getDataClass() {
+    return com.google.api.client.json.processor.JsonCodecProcessorTest.WithSetter.class;
+  }
+
+  @Override
+  protected boolean parseField(
+      com.google.api.client.json.JsonParser parser,
+      java.lang.Object destination,
+      java.lang.String key)
+      throws java.io.IOException {
+    return false;
+  }
+
+  @Override
+  protected void serializeFields(
+      com.google.api.client.json.JsonGenerator generator, java.lang.Object value)
+      throws java.io.IOException {
+    com.google.api.client.json.processor.JsonCodecProcessorTest.WithSetter object = (com.google.api.client.json.processor.JsonCodecProcessorTest.WithSetter) value;
+    java.lang.Object field0 = object.value;
+    if (field0 != null) {
+      generator.writeFieldName("value");
+      serializeValue(generator, field0, false);
+    }
+  }
+}
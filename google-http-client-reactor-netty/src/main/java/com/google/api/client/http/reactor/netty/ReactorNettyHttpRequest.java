@@ -16,22 +16,23 @@ package com.google.api.client.http.reactor.netty;
 
 import com.google.api.client.http.LowLevelHttpRequest;
 import com.google.api.client.http.LowLevelHttpResponse;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpMethod;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
-import reactor.netty.ByteBufFlux;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.client.HttpClient.RequestSender;
 import reactor.netty.http.client.HttpClient.ResponseReceiver;
 
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse.BodyHandlers;
-import java.util.concurrent.ExecutionException;
-
 /**
  * @author Yaniv Inbar
  */
@@ -42,20 +43,39 @@ final class ReactorNettyHttpRequest extends LowLevelHttpRequest {
     private final String method;
     private final String url;
 
-    //  private RequestConfig.Builder requestConfig;
+    /** Size in bytes of each request content chunk. */
+    private final int contentChunkSize;
+
+    /** Maximum number of request content bytes buffered at a time. */
+    private final int contentWindowSize;
+
+    /** Whether the response content is streamed instead of aggregated before returning. */
+    private final boolean streamingResponseContent;
 
     ReactorNettyHttpRequest(HttpClient httpClient, String method, String url) {
+        this(
+            httpClient,
+            method,
+            url,
+            ReactorNettyHttpTransport.DEFAULT_CONTENT_CHUNK_SIZE,
+            ReactorNettyHttpTransport.DEFAULT_CONTENT_WINDOW_SIZE,
+            false);
+    }
+
+    ReactorNettyHttpRequest(
+        HttpClient httpClient,
+        String method,
+        String url,
+        int contentChunkSize,
+        int contentWindowSize,
+        boolean streamingResponseContent) {
         this.httpClient = httpClient;
         this.method = method;
         this.url = url;
+        this.contentChunkSize = contentChunkSize;
+        this.contentWindowSize = contentWindowSize;
+        this.streamingResponseContent = streamingResponseContent;
         this.httpHeaders = new DefaultHttpHeaders();
-        // disable redirects as google-http-client handles redirects
-        //    this.requestConfig =
-        //        RequestConfig.custom()
-        //            .setRedirectsEnabled(false)
-        //            .setNormalizeUri(false)
-        //            // TODO(chingor): configure in HttpClientBuilder when available
-        //            .setStaleConnectionCheckEnabled(false);
     }
 
     @Override
@@ -63,51 +83,133 @@ final class ReactorNettyHttpRequest extends LowLevelHttpRequest {
         httpHeaders.add(name, value);
     }
 
-    //  @Override
-    //  public void setTimeout(int connectTimeoutInMs, int readTimeoutInMs) throws IOException {
-    //    requestBuilder.timeout(Duration.ofMillis(connectTimeoutInMs));
-    //  }
-
     @Override
     public LowLevelHttpResponse execute() throws IOException {
+        return getResponse(send());
+    }
 
-        HttpClient currentClient=httpClient.headers((h)->{
-    if (httpHeaders != null) {
-        h.setAll(httpHeaders);
+    /**
+     * Sends the request without waiting for the response.
+     *
+     * <p>The request content, if any, is written on the calling thread before returning.
+     */
+    @Override
+    public CompletionStage<LowLevelHttpResponse> executeAsync() {
+        try {
+            return send().thenApply(response -> response);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
-});
-        RequestSender jj= currentClient.request(HttpMethod.valueOf(method)).uri(url);
 
-        ResponseReceiver<?> responseeee;
+    /** Sends the request and writes its content, if any, on the calling thread. */
+    private CompletableFuture<ReactorNettyHttpResponse> send() throws IOException {
+        StreamingContentPublisher contentPublisher = null;
         if (getStreamingContent() != null) {
-
-            ByteArrayOutputStream byteArrayOutputStream=  new ByteArrayOutputStream();
-            getStreamingContent().writeTo(byteArrayOutputStream);
-//            byteArrayOutputStream.flush();
-
-            responseeee= jj.send(ByteBufFlux.fromInbound(Flux.just(byteArrayOutputStream.toByteArray())));
-
-
-
-//            requestBuilder=requestBuilder.method(method, HttpRequest.BodyPublishers.ofByteArray(byteArrayOutputStream.toByteArray()));
-
-//                  ContentEntity entity = new ContentEntity(getContentLength(), getStreamingContent());
-//                  entity.setContentEncoding(getContentEncoding());
-//                  entity.setContentType(getContentType());
-//                  if (getContentLength() == -1) {
-//                    entity.setChunked(true);
-//                  }
-//                  ((HttpEntityEnclosingRequest) request).setEntity(entity);
-        }else {
-            responseeee= jj;
+            if (getContentType() != null) {
+                httpHeaders.set(HttpHeaderNames.CONTENT_TYPE, getContentType());
+            }
+            if (getContentEncoding() != null) {
+                httpHeaders.set(HttpHeaderNames.CONTENT_ENCODING, getContentEncoding());
+            }
+            if (getContentLength() >= 0) {
+                httpHeaders.set(HttpHeaderNames.CONTENT_LENGTH, getContentLength());
+            } else {
+                httpHeaders.set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+            }
+            if (getContentLength() != 0) {
+                contentPublisher =
+                    new StreamingContentPublisher(
+                        getStreamingContent(),
+                        ByteBufAllocator.DEFAULT,
+                        contentChunkSize,
+                        contentWindowSize);
+            }
         }
 
-        return responseeee.responseSingle((res, byteBufMono) -> {
+        HttpClient currentClient = httpClient.headers(h -> h.setAll(httpHeaders));
+        RequestSender sender = currentClient.request(HttpMethod.valueOf(method)).uri(url);
+        ResponseReceiver<?> receiver =
+            contentPublisher == null ? sender : sender.send(contentPublisher.flux());
+
+        CompletableFuture<ReactorNettyHttpResponse> responseFuture =
+            streamingResponseContent ? streamResponse(receiver) : aggregateResponse(receiver);
+        if (contentPublisher != null) {
+            // stop writing as soon as the exchange fails or the server responds early
+            final StreamingContentPublisher publisher = contentPublisher;
+            responseFuture.whenComplete((response, error) -> publisher.cancel());
+            try {
+                publisher.writeContent();
+            } catch (IOException | RuntimeException e) {
+                responseFuture.cancel(true);
+                throw e;
+            }
+        }
+        return responseFuture;
+    }
 
-            return byteBufMono.asInputStream().map((inputStream) -> {
-                return new ReactorNettyHttpResponse( res,inputStream);
+    /** Returns the response once its content has been fully received. */
+    private static CompletableFuture<ReactorNettyHttpResponse> aggregateResponse(
+        ResponseReceiver<?> receiver) {
+        return receiver
+            .responseSingle(
+                (res, byteBufMono) ->
+                    byteBufMono
+                        .asInputStream()
+                        .map(inputStream -> new ReactorNettyHttpResponse(res, inputStream)))
+            .toFuture();
+    }
 
+    /**
+     * Returns the response as soon as its headers have been received, with content that is read
+     * from the connection as the caller consumes it.
+     *
+     * <p>The connection is held until the content has been fully read or closed.
+     */
+    private static CompletableFuture<ReactorNettyHttpResponse> streamResponse(
+        ResponseReceiver<?> receiver) {
+        CompletableFuture<ReactorNettyHttpResponse> responseFuture = new CompletableFuture<>();
+        Flux<ReactorNettyHttpResponse> exchange =
+            receiver.response(
+                (res, byteBufFlux) -> {
+                    ResponseContentInputStream content =
+                        new ResponseContentInputStream(
+                            ReactorNettyHttpTransport.RESPONSE_CONTENT_PREFETCH);
+                    byteBufFlux.retain().subscribe(content);
+                    // completing only once the content is done keeps the connection until then
+                    return Flux.concat(
+                        Mono.just(new ReactorNettyHttpResponse(res, content)),
+                        content.<ReactorNettyHttpResponse>whenTerminated());
+                });
+        Disposable subscription =
+            exchange.subscribe(responseFuture::complete, responseFuture::completeExceptionally);
+        responseFuture.whenComplete(
+            (response, error) -> {
+                if (responseFuture.isCancelled()) {
+                    subscription.dispose();
+                }
             });
-        }).block();
+        return responseFuture;
+    }
+
+    /** Waits for the response, unwrapping failures into {@link IOException}s. */
+    private static ReactorNettyHttpResponse getResponse(
+        CompletableFuture<ReactorNettyHttpResponse> responseFuture) throws IOException {
+        try {
+            return responseFuture.get();
+        } catch (InterruptedException e) {
+            responseFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
     }
 }
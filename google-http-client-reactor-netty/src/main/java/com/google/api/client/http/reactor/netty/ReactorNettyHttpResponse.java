@@ -15,11 +15,14 @@
 package com.google.api.client.http.reactor.netty;
 
 import com.google.api.client.http.LowLevelHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
 import reactor.netty.http.client.HttpClientResponse;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map.Entry;
 
 final class ReactorNettyHttpResponse extends LowLevelHttpResponse {
 
@@ -27,12 +30,30 @@ final class ReactorNettyHttpResponse extends LowLevelHttpResponse {
  @Nullable
  private final InputStream response;
 
-//      *   HttpResponse<InputStream> response = client
-  //     *     .send(request, BodyHandlers.ofInputStream());
+  /** Response header names, snapshotted on construction for indexed access. */
+  private final String[] headerNames;
+
+  /** Response header values, in the same order as {@link #headerNames}. */
+  private final String[] headerValues;
 
   ReactorNettyHttpResponse(HttpClientResponse httpClientResponse, InputStream response) {
     this.httpClientResponse = httpClientResponse;
     this.response = response;
+    if (response == null) {
+      headerNames = headerValues = new String[0];
+    } else {
+      // HttpHeaders#entries() copies all headers into a new list, so never use it per index
+      HttpHeaders headers = httpClientResponse.responseHeaders();
+      int size = headers.size();
+      headerNames = new String[size];
+      headerValues = new String[size];
+      Iterator<Entry<String, String>> iterator = headers.iteratorAsString();
+      for (int i = 0; i < size; i++) {
+        Entry<String, String> header = iterator.next();
+        headerNames[i] = header.getKey();
+        headerValues[i] = header.getValue();
+      }
+    }
   }
   @Override
   public int getStatusCode() {
@@ -69,7 +90,9 @@ final class ReactorNettyHttpResponse extends LowLevelHttpResponse {
     if (response == null) {
       return -1;
     }
-    return httpClientResponse.responseHeaders().getInt("Content-Length");
+    // absent for chunked responses, which are common when streaming
+    String contentLength = httpClientResponse.responseHeaders().get("Content-Length");
+    return contentLength == null ? -1 : Long.parseLong(contentLength);
 
 //    HttpEntity entity = response.getEntity();
 //    return entity == null ? -1 : entity.getContentLength();
@@ -125,38 +148,29 @@ final class ReactorNettyHttpResponse extends LowLevelHttpResponse {
 
   @Override
   public int getHeaderCount() {
-    if (response == null) {
-      return 0;
-    }
-    return httpClientResponse.responseHeaders().size();
+    return headerNames.length;
   }
 
   @Override
   public String getHeaderName(int index) {
-    if (response == null) {
-      return null;
-    }
-
-    return httpClientResponse.responseHeaders().entries().get(index).getKey();
+    return headerNames[index];
   }
 
   @Override
   public String getHeaderValue(int index) {
-    if (response == null) {
-      return null;
-    }
-
-      return httpClientResponse.responseHeaders().entries().get(index).getValue();
+    return headerValues[index];
   }
 
-//  /**
-//   * Aborts execution of the request.
-//   *
-//   * @since 1.30
-//   */
-//  @Override
-//  public void disconnect() {
-//    request.abort();
-//  }
+  /**
+   * Closes the response content, which releases the connection if the content is streamed.
+   *
+   * @since 1.44
+   */
+  @Override
+  public void disconnect() throws IOException {
+    if (response != null) {
+      response.close();
+    }
+  }
 
 }
@@ -16,6 +16,7 @@ package com.google.api.client.http.reactor.netty;
 
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.util.Beta;
+import com.google.api.client.util.Preconditions;
 import java.io.IOException;
 import java.net.ProxySelector;
 import java.net.URI;
@@ -48,6 +49,14 @@ import reactor.netty.http.client.HttpClient;
 @Beta
 public final class ReactorNettyHttpTransport extends HttpTransport {
 
+  /** Default size in bytes of each request content chunk. */
+  static final int DEFAULT_CONTENT_CHUNK_SIZE = 8 * 1024;
+
+  /** Default maximum number of request content bytes buffered at a time per request. */
+  static final int DEFAULT_CONTENT_WINDOW_SIZE = 256 * 1024;
+
+  /** Number of response content chunks requested ahead of the reader when streaming. */
+  static final int RESPONSE_CONTENT_PREFETCH = 16;
 
   /** Apache HTTP client. */
   private final HttpClient httpClient;
@@ -55,6 +64,15 @@ public final class ReactorNettyHttpTransport extends HttpTransport {
   /** If the HTTP client uses mTLS channel. */
   private final boolean isMtls;
 
+  /** Size in bytes of each request content chunk. */
+  private final int contentChunkSize;
+
+  /** Maximum number of request content bytes buffered at a time per request. */
+  private final int contentWindowSize;
+
+  /** Whether response content is streamed instead of aggregated before returning. */
+  private final boolean streamingResponseContent;
+
   /**
    * Constructor that uses {@link #newDefaultHttpClient()} for the Apache HTTP client.
    *
@@ -82,8 +100,7 @@ public final class ReactorNettyHttpTransport extends HttpTransport {
    * @since 1.30
    */
   public ReactorNettyHttpTransport(HttpClient httpClient) {
-    this.httpClient = httpClient;
-    this.isMtls = false;
+    this(httpClient, false);
   }
 
   /**
@@ -106,8 +123,20 @@ public final class ReactorNettyHttpTransport extends HttpTransport {
    * @since 1.38
    */
   public ReactorNettyHttpTransport(HttpClient httpClient, boolean isMtls) {
+    this(httpClient, isMtls, DEFAULT_CONTENT_CHUNK_SIZE, DEFAULT_CONTENT_WINDOW_SIZE, false);
+  }
+
+  private ReactorNettyHttpTransport(
+      HttpClient httpClient,
+      boolean isMtls,
+      int contentChunkSize,
+      int contentWindowSize,
+      boolean streamingResponseContent) {
     this.httpClient = httpClient;
     this.isMtls = isMtls;
+    this.contentChunkSize = contentChunkSize;
+    this.contentWindowSize = contentWindowSize;
+    this.streamingResponseContent = streamingResponseContent;
   }
 
   /**
@@ -153,7 +182,6 @@ public final class ReactorNettyHttpTransport extends HttpTransport {
    * @since 1.31
    */
   public static HttpClient newDefaultHttpClientBuilder() {
-    System.out.println("ReactorNettyHttpTransport.newDefaultHttpClientBuilder");
     return HttpClient.create();
   }
 
@@ -164,8 +192,8 @@ public final class ReactorNettyHttpTransport extends HttpTransport {
 
   @Override
   protected ReactorNettyHttpRequest buildRequest(String method, String url) {
-
-      return new ReactorNettyHttpRequest(httpClient,  method,  url);
+    return new ReactorNettyHttpRequest(
+        httpClient, method, url, contentChunkSize, contentWindowSize, streamingResponseContent);
   }
 
   /**
@@ -193,4 +221,109 @@ public final class ReactorNettyHttpTransport extends HttpTransport {
   public boolean isMtls() {
     return isMtls;
   }
+
+  /**
+   * Builder for {@link ReactorNettyHttpTransport}.
+   *
+   * <p>Implementation is not thread-safe.
+   *
+   * @since 1.44
+   */
+  public static final class Builder {
+
+    /** Reactor Netty HTTP client or {@code null} for {@link #newDefaultHttpClient()}. */
+    private HttpClient httpClient;
+
+    /** Whether the transport is mTLS. Default value is {@code false}. */
+    private boolean isMtls;
+
+    /** Size in bytes of each request content chunk. */
+    private int contentChunkSize = DEFAULT_CONTENT_CHUNK_SIZE;
+
+    /** Maximum number of request content bytes buffered at a time per request. */
+    private int contentWindowSize = DEFAULT_CONTENT_WINDOW_SIZE;
+
+    /** Whether response content is streamed instead of aggregated before returning. */
+    private boolean streamingResponseContent;
+
+    /** Returns the Reactor Netty HTTP client or {@code null} for the default. */
+    public HttpClient getHttpClient() {
+      return httpClient;
+    }
+
+    /** Sets the Reactor Netty HTTP client or {@code null} for the default. */
+    public Builder setHttpClient(HttpClient httpClient) {
+      this.httpClient = httpClient;
+      return this;
+    }
+
+    /** Sets whether the HTTP client is mutual TLS. Default value is {@code false}. */
+    public Builder setMtls(boolean isMtls) {
+      this.isMtls = isMtls;
+      return this;
+    }
+
+    /** Returns the size in bytes of each request content chunk. */
+    public int getContentChunkSize() {
+      return contentChunkSize;
+    }
+
+    /**
+     * Sets the size in bytes of each pooled buffer that request content is written into. Default
+     * value is 8 KiB.
+     */
+    public Builder setContentChunkSize(int contentChunkSize) {
+      Preconditions.checkArgument(contentChunkSize > 0);
+      this.contentChunkSize = contentChunkSize;
+      return this;
+    }
+
+    /** Returns the maximum number of request content bytes buffered at a time per request. */
+    public int getContentWindowSize() {
+      return contentWindowSize;
+    }
+
+    /**
+     * Sets the maximum number of request content bytes buffered at a time per request. Default
+     * value is 256 KiB.
+     *
+     * <p>Request content is streamed to the connection in chunks, and writing blocks once this
+     * many bytes are waiting to be sent, so uploads of any size use a bounded amount of memory.
+     */
+    public Builder setContentWindowSize(int contentWindowSize) {
+      Preconditions.checkArgument(contentWindowSize > 0);
+      this.contentWindowSize = contentWindowSize;
+      return this;
+    }
+
+    /** Returns whether response content is streamed instead of aggregated before returning. */
+    public boolean isStreamingResponseContent() {
+      return streamingResponseContent;
+    }
+
+    /**
+     * Sets whether response content is streamed instead of aggregated before returning. Default
+     * value is {@code false}.
+     *
+     * <p>When enabled, responses are returned as soon as their headers arrive and the content is
+     * read from the connection as the caller consumes it, so responses of any size use a bounded
+     * amount of memory. Callers must then read the content to the end or close it (for example
+     * using {@link com.google.api.client.http.HttpResponse#disconnect()}) to release the
+     * connection.
+     */
+    public Builder setStreamingResponseContent(boolean streamingResponseContent) {
+      this.streamingResponseContent = streamingResponseContent;
+      return this;
+    }
+
+    /** Returns a new instance of {@link ReactorNettyHttpTransport} based on the options. */
+    public ReactorNettyHttpTransport build() {
+      return new ReactorNettyHttpTransport(
+          httpClient == null ? newDefaultHttpClient() : httpClient,
+          isMtls,
+          contentChunkSize,
+          contentWindowSize,
+          streamingResponseContent);
+    }
+  }
 }
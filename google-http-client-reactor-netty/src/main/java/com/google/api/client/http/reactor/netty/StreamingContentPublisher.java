@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http.reactor.netty;
+
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.StreamingContent;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Bridges {@link StreamingContent#writeTo} into a back-pressured {@link Flux} of pooled {@link
+ * ByteBuf} chunks.
+ *
+ * <p>The content is written on the thread calling {@link #writeContent()}, which blocks whenever
+ * the transport has not requested more chunks. At most {@code windowSize / chunkSize} chunks are
+ * requested at a time, so the memory held per request is bounded by the window regardless of the
+ * content length.
+ *
+ * <p>Implementation is not thread-safe: {@link #writeContent()} must be called once, after the flux
+ * has been handed to the transport.
+ *
+ * <p>The Spring WebFlux transport has a copy of this class for {@code DataBuffer}s, since the
+ * transports do not depend on each other. Fixes apply to both.
+ */
+final class StreamingContentPublisher {
+
+  /** Streaming content. */
+  private final StreamingContent streamingContent;
+
+  /** Allocator for the chunk buffers. */
+  private final ByteBufAllocator allocator;
+
+  /** Size in bytes of each chunk. */
+  private final int chunkSize;
+
+  /** Maximum number of chunks requested by the transport at a time. */
+  private final int windowChunks;
+
+  /** Permits for chunks requested by the transport but not yet emitted. */
+  private final Semaphore demand = new Semaphore(0);
+
+  /** Released once the transport subscribed or the publisher was cancelled. */
+  private final CountDownLatch bound = new CountDownLatch(1);
+
+  /** Sink bound on subscription or {@code null} before the transport subscribed. */
+  private volatile FluxSink<ByteBuf> sink;
+
+  /** Whether the transport cancelled the subscription or the exchange completed. */
+  private volatile boolean cancelled;
+
+  /**
+   * @param streamingContent streaming content
+   * @param allocator allocator for the chunk buffers
+   * @param chunkSize size in bytes of each chunk
+   * @param windowSize maximum number of content bytes buffered at a time
+   */
+  StreamingContentPublisher(
+      StreamingContent streamingContent, ByteBufAllocator allocator, int chunkSize, int windowSize) {
+    Preconditions.checkArgument(chunkSize > 0);
+    Preconditions.checkArgument(windowSize > 0);
+    this.streamingContent = Preconditions.checkNotNull(streamingContent);
+    this.allocator = Preconditions.checkNotNull(allocator);
+    this.chunkSize = chunkSize;
+    this.windowChunks = Math.max(1, windowSize / chunkSize);
+  }
+
+  /** Returns the flux of chunks to send. It may only be subscribed once. */
+  Flux<ByteBuf> flux() {
+    Flux<ByteBuf> flux =
+        Flux.create(
+            sink -> {
+              this.sink = sink;
+              sink.onRequest(
+                  n -> demand.release((int) Math.min(n, Integer.MAX_VALUE - windowChunks)));
+              sink.onDispose(this::cancel);
+              bound.countDown();
+            });
+    return flux.limitRate(windowChunks).doOnDiscard(ByteBuf.class, ReferenceCountUtil::release);
+  }
+
+  /**
+   * Writes the content into the flux, blocking while the transport has not requested more chunks.
+   *
+   * <p>Returns without error if the subscription was cancelled, in which case the outcome of the
+   * exchange reports the failure.
+   *
+   * @throws IOException if the content failed to write
+   */
+  void writeContent() throws IOException {
+    ChunkOutputStream out = new ChunkOutputStream();
+    try {
+      streamingContent.writeTo(out);
+      out.emitChunk();
+      await(bound);
+      if (!cancelled) {
+        sink.complete();
+      }
+    } catch (CancelledException e) {
+      // the outcome of the exchange reports why the transport stopped reading
+    } catch (IOException | RuntimeException e) {
+      if (sink != null) {
+        sink.error(e);
+      }
+      throw e;
+    } finally {
+      out.releaseChunk();
+    }
+  }
+
+  /** Stops writing and wakes up the writing thread. */
+  void cancel() {
+    cancelled = true;
+    demand.release(windowChunks);
+    bound.countDown();
+  }
+
+  /** Waits for the given latch, converting an interruption into an I/O exception. */
+  private void await(CountDownLatch latch) throws IOException {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new InterruptedIOException("Interrupted while writing request content");
+    }
+  }
+
+  /** Waits for the transport to request one more chunk. */
+  private void awaitDemand() throws IOException {
+    try {
+      demand.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new InterruptedIOException("Interrupted while writing request content");
+    }
+    if (cancelled) {
+      throw new CancelledException();
+    }
+  }
+
+  /** Output stream that accumulates bytes into pooled chunks and emits them on demand. */
+  private final class ChunkOutputStream extends OutputStream {
+
+    /** Chunk being filled or {@code null} for none. */
+    private ByteBuf chunk;
+
+    @Override
+    public void write(int b) throws IOException {
+      ensureChunk();
+      chunk.writeByte(b);
+      if (!chunk.isWritable()) {
+        emitChunk();
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+        ensureChunk();
+        int count = Math.min(len, chunk.writableBytes());
+        chunk.writeBytes(b, off, count);
+        off += count;
+        len -= count;
+        if (!chunk.isWritable()) {
+          emitChunk();
+        }
+      }
+    }
+
+    private void ensureChunk() throws IOException {
+      if (cancelled) {
+        throw new CancelledException();
+      }
+      if (chunk == null) {
+        chunk = allocator.buffer(chunkSize, chunkSize);
+      }
+    }
+
+    /** Emits the current chunk, if any, once the transport requested it. */
+    void emitChunk() throws IOException {
+      if (chunk == null || !chunk.isReadable()) {
+        return;
+      }
+      // demand is only signalled once the sink is bound
+      awaitDemand();
+      ByteBuf emitted = chunk;
+      chunk = null;
+      sink.next(emitted);
+    }
+
+    /** Releases the chunk still held after a failure or cancellation. */
+    void releaseChunk() {
+      if (chunk != null) {
+        chunk.release();
+        chunk = null;
+      }
+    }
+  }
+
+  /** Signals that the transport no longer accepts content. */
+  private static final class CancelledException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+  }
+}
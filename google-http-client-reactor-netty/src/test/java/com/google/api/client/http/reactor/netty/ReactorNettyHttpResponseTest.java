@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http.reactor.netty;
+
+import static org.junit.Assert.assertEquals;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import org.junit.Test;
+import reactor.netty.http.client.HttpClientResponse;
+
+/** Tests {@link ReactorNettyHttpResponse}. */
+public class ReactorNettyHttpResponseTest {
+
+  private static HttpClientResponse newHttpClientResponse(final HttpHeaders headers) {
+    return (HttpClientResponse)
+        Proxy.newProxyInstance(
+            HttpClientResponse.class.getClassLoader(),
+            new Class<?>[] {HttpClientResponse.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "responseHeaders":
+                  return headers;
+                case "status":
+                  return HttpResponseStatus.OK;
+                default:
+                  throw new UnsupportedOperationException(method.getName());
+              }
+            });
+  }
+
+  @Test
+  public void testHeaders() {
+    HttpHeaders headers =
+        new DefaultHttpHeaders()
+            .add("Content-Type", "text/plain")
+            .add("Set-Cookie", "a=1")
+            .add("Set-Cookie", "b=2");
+    ReactorNettyHttpResponse response =
+        new ReactorNettyHttpResponse(
+            newHttpClientResponse(headers), new ByteArrayInputStream(new byte[0]));
+    // later changes to the headers do not affect the snapshot
+    headers.clear();
+
+    assertEquals(200, response.getStatusCode());
+    assertEquals(3, response.getHeaderCount());
+    assertEquals("Content-Type", response.getHeaderName(0));
+    assertEquals("text/plain", response.getHeaderValue(0));
+    assertEquals("Set-Cookie", response.getHeaderName(1));
+    assertEquals("a=1", response.getHeaderValue(1));
+    assertEquals("Set-Cookie", response.getHeaderName(2));
+    assertEquals("b=2", response.getHeaderValue(2));
+  }
+
+  @Test
+  public void testContentLength() {
+    HttpHeaders headers = new DefaultHttpHeaders();
+    ReactorNettyHttpResponse response =
+        new ReactorNettyHttpResponse(
+            newHttpClientResponse(headers), new ByteArrayInputStream(new byte[0]));
+    assertEquals(-1, response.getContentLength());
+
+    headers.add("Content-Length", "5000000000");
+    response =
+        new ReactorNettyHttpResponse(
+            newHttpClientResponse(headers), new ByteArrayInputStream(new byte[0]));
+    assertEquals(5000000000L, response.getContentLength());
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http.reactor.netty;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.client.util.ByteArrayStreamingContent;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+/** Tests {@link StreamingContentPublisher}. */
+public class StreamingContentPublisherTest {
+
+  private static byte[] newContent(int length) {
+    byte[] content = new byte[length];
+    for (int i = 0; i < length; i++) {
+      content[i] = (byte) i;
+    }
+    return content;
+  }
+
+  @Test
+  public void testWriteContent_chunks() throws Exception {
+    byte[] content = newContent(10_000);
+    StreamingContentPublisher publisher =
+        new StreamingContentPublisher(
+            new ByteArrayStreamingContent(content), UnpooledByteBufAllocator.DEFAULT, 4096, 8192);
+    CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+    publisher.flux().subscribe(subscriber);
+    publisher.writeContent();
+
+    assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+    assertEquals(3, subscriber.chunkSizes.size());
+    assertEquals(4096, (int) subscriber.chunkSizes.get(0));
+    assertEquals(4096, (int) subscriber.chunkSizes.get(1));
+    assertEquals(1808, (int) subscriber.chunkSizes.get(2));
+    assertArrayEquals(content, subscriber.bytes.toByteArray());
+  }
+
+  @Test
+  public void testWriteContent_empty() throws Exception {
+    StreamingContentPublisher publisher =
+        new StreamingContentPublisher(
+            new ByteArrayStreamingContent(new byte[0]), UnpooledByteBufAllocator.DEFAULT, 16, 16);
+    CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+    publisher.flux().subscribe(subscriber);
+    publisher.writeContent();
+
+    assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+    assertTrue(subscriber.chunkSizes.isEmpty());
+  }
+
+  @Test
+  public void testWriteContent_waitsForDemand() throws Exception {
+    byte[] content = newContent(64);
+    final StreamingContentPublisher publisher =
+        new StreamingContentPublisher(
+            new ByteArrayStreamingContent(content), UnpooledByteBufAllocator.DEFAULT, 16, 32);
+    CollectingSubscriber subscriber = new CollectingSubscriber(1);
+    publisher.flux().subscribe(subscriber);
+    final CountDownLatch written = new CountDownLatch(1);
+    Thread writer =
+        new Thread(
+            () -> {
+              try {
+                publisher.writeContent();
+                written.countDown();
+              } catch (Exception e) {
+                throw new RuntimeException(e);
+              }
+            });
+    writer.start();
+
+    assertFalse(written.await(200, TimeUnit.MILLISECONDS));
+    assertEquals(1, subscriber.chunkSizes.size());
+    subscriber.request(3);
+    assertTrue(written.await(5, TimeUnit.SECONDS));
+    assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+    assertArrayEquals(content, subscriber.bytes.toByteArray());
+  }
+
+  @Test
+  public void testWriteContent_cancelled() throws Exception {
+    StreamingContentPublisher publisher =
+        new StreamingContentPublisher(
+            new ByteArrayStreamingContent(newContent(64)),
+            UnpooledByteBufAllocator.DEFAULT,
+            16,
+            16);
+    CollectingSubscriber subscriber = new CollectingSubscriber(1);
+    publisher.flux().subscribe(subscriber);
+    subscriber.cancel();
+    // returns instead of blocking for demand that never comes
+    publisher.writeContent();
+    assertTrue(subscriber.chunkSizes.isEmpty());
+  }
+
+  private static final class CollectingSubscriber extends BaseSubscriber<ByteBuf> {
+
+    private final long initialRequest;
+    final List<Integer> chunkSizes = new ArrayList<>();
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final CountDownLatch completed = new CountDownLatch(1);
+
+    CollectingSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      request(initialRequest);
+    }
+
+    @Override
+    protected synchronized void hookOnNext(ByteBuf chunk) {
+      chunkSizes.add(chunk.readableBytes());
+      byte[] data = new byte[chunk.readableBytes()];
+      chunk.readBytes(data);
+      bytes.write(data, 0, data.length);
+      chunk.release();
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      completed.countDown();
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http.springwebflux.webclient;
+
+import com.google.api.client.util.Preconditions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Input stream fed by the response body {@link DataBuffer}s.
+ *
+ * <p>At most {@code prefetch} chunks are requested ahead of the reader, so the memory held per
+ * response is bounded regardless of the content length. Each chunk is released as soon as it has
+ * been read, and closing the stream before the end of the content cancels the body subscription.
+ *
+ * <p>This stream takes ownership of the emitted buffers. Implementation is not thread-safe for
+ * concurrent readers.
+ *
+ * <p>This is a copy of the Reactor Netty transport class for {@code ByteBuf}s, since the transports
+ * do not depend on each other. Fixes apply to both.
+ */
+final class ResponseContentInputStream extends InputStream implements CoreSubscriber<DataBuffer> {
+
+  /** Queue marker for the end of the content. */
+  private static final Object COMPLETE = new Object();
+
+  /** Maximum number of chunks requested ahead of the reader. */
+  private final int prefetch;
+
+  /** Received chunks followed by either {@link #COMPLETE} or the failure {@link Throwable}. */
+  private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+
+  /** Completes once the body subscription terminated or was cancelled. */
+  private final Sinks.Empty<Void> terminated = Sinks.empty();
+
+  /** Body subscription or {@code null} before subscribing. */
+  private volatile Subscription subscription;
+
+  /** Whether the stream has been closed. */
+  private volatile boolean closed;
+
+  /** Chunk being read or {@code null} for none. */
+  private DataBuffer current;
+
+  /** Terminal queue element once it has been reached or {@code null} before. */
+  private Object terminal;
+
+  /** @param prefetch maximum number of chunks requested ahead of the reader */
+  ResponseContentInputStream(int prefetch) {
+    Preconditions.checkArgument(prefetch > 0);
+    this.prefetch = prefetch;
+  }
+
+  /** Returns a mono that completes once the body subscription terminated or was cancelled. */
+  <T> Mono<T> whenTerminated() {
+    return terminated.asMono().then(Mono.<T>empty());
+  }
+
+  @Override
+  public void onSubscribe(Subscription s) {
+    subscription = s;
+    if (closed) {
+      s.cancel();
+    } else {
+      s.request(prefetch);
+    }
+  }
+
+  @Override
+  public void onNext(DataBuffer chunk) {
+    queue.offer(chunk);
+    if (closed) {
+      releaseQueued();
+    }
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    queue.offer(t);
+    terminated.tryEmitEmpty();
+  }
+
+  @Override
+  public void onComplete() {
+    queue.offer(COMPLETE);
+    terminated.tryEmitEmpty();
+  }
+
+  @Override
+  public int read() throws IOException {
+    DataBuffer chunk = nextChunk();
+    if (chunk == null) {
+      return -1;
+    }
+    int b = chunk.read() & 0xff;
+    releaseIfConsumed();
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    Preconditions.checkNotNull(b);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (len == 0) {
+      return 0;
+    }
+    DataBuffer chunk = nextChunk();
+    if (chunk == null) {
+      return -1;
+    }
+    int count = Math.min(len, chunk.readableByteCount());
+    chunk.read(b, off, count);
+    releaseIfConsumed();
+    return count;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return current == null ? 0 : current.readableByteCount();
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (current != null) {
+      DataBufferUtils.release(current);
+      current = null;
+    }
+    Subscription s = subscription;
+    if (s != null) {
+      s.cancel();
+    }
+    releaseQueued();
+    terminated.tryEmitEmpty();
+  }
+
+  /** Returns the chunk to read from or {@code null} at the end of the content. */
+  private DataBuffer nextChunk() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    while (current == null) {
+      if (terminal == null) {
+        Object next;
+        try {
+          next = queue.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while reading response content");
+        }
+        if (next instanceof DataBuffer) {
+          current = (DataBuffer) next;
+          releaseIfConsumed();
+          continue;
+        }
+        terminal = next;
+      }
+      if (terminal instanceof Throwable) {
+        Throwable cause = (Throwable) terminal;
+        throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+      }
+      return null;
+    }
+    return current;
+  }
+
+  /** Releases the current chunk and requests the next one once it has been fully read. */
+  private void releaseIfConsumed() {
+    if (current.readableByteCount() == 0) {
+      DataBufferUtils.release(current);
+      current = null;
+      subscription.request(1);
+    }
+  }
+
+  /** Releases all chunks still queued. */
+  private void releaseQueued() {
+    Object next;
+    while ((next = queue.poll()) != null) {
+      if (next instanceof DataBuffer) {
+        DataBufferUtils.release((DataBuffer) next);
+      }
+    }
+  }
+}
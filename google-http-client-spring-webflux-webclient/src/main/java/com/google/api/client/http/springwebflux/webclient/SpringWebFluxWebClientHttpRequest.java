@@ -16,19 +16,35 @@ package com.google.api.client.http.springwebflux.webclient;
 
 import com.google.api.client.http.LowLevelHttpRequest;
 import com.google.api.client.http.LowLevelHttpResponse;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.ReactiveHttpOutputMessage;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestBodySpec;
 import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import javax.annotation.Nullable;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author Yaniv Inbar
@@ -40,10 +56,23 @@ final class SpringWebFluxWebClientHttpRequest extends LowLevelHttpRequest {
     private final String method;
     private final String url;
 
+    /** Whether request and response content are streamed instead of held in memory. */
+    private final boolean streamingContent;
+
+    /** Size in bytes of each request content chunk. */
+    private final int contentChunkSize;
+
     SpringWebFluxWebClientHttpRequest(WebClient webClient, String method, String url) {
+        this(webClient, method, url, false, SpringWebFluxWebClientHttpTransport.DEFAULT_CONTENT_CHUNK_SIZE);
+    }
+
+    SpringWebFluxWebClientHttpRequest(
+        WebClient webClient, String method, String url, boolean streamingContent, int contentChunkSize) {
         this.webClient = webClient;
         this.method = method;
         this.url = url;
+        this.streamingContent = streamingContent;
+        this.contentChunkSize = contentChunkSize;
         this.httpHeaders = new HttpHeaders();
     }
 
@@ -62,7 +91,44 @@ final class SpringWebFluxWebClientHttpRequest extends LowLevelHttpRequest {
 
     @Override
     public LowLevelHttpResponse execute() throws IOException {
+        if (streamingContent) {
+            return getResponse(sendStreaming());
+        }
+        return aggregateResponse().block();
+    }
+
+    /**
+     * Sends the request without waiting for the response.
+     *
+     * <p>The request content, if any, is written on the calling thread before returning.
+     */
+    @Override
+    public CompletionStage<LowLevelHttpResponse> executeAsync() {
+        CompletableFuture<SpringWebFluxWebClientHttpResponse> responseFuture;
+        try {
+            responseFuture = streamingContent ? sendStreaming() : aggregateResponse().toFuture();
+        }
+        catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<LowLevelHttpResponse> result = new CompletableFuture<>();
+        responseFuture.whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+            }
+            else {
+                result.completeExceptionally(
+                    toIOException(error instanceof CompletionException ? error.getCause() : error));
+            }
+        });
+        return result;
+    }
 
+    /**
+     * Returns the response once its content has been fully received, after copying the request
+     * content into memory.
+     */
+    private Mono<SpringWebFluxWebClientHttpResponse> aggregateResponse() throws IOException {
         var currentClient = webClient.method(HttpMethod.valueOf(method)).uri(url);
 
         RequestHeadersSpec<?> requestHeadersSpec;
@@ -91,27 +157,151 @@ final class SpringWebFluxWebClientHttpRequest extends LowLevelHttpRequest {
 
         var responseSpec = requestHeadersSpec.retrieve();
 
-        try {
-            var responseEntityMono = responseSpec.toEntity(InputStream.class);
+        var responseEntityMono = responseSpec.toEntity(InputStream.class);
 
-            if (timeout != null) {
-                responseEntityMono = responseEntityMono.timeout(timeout);
-            }
+        if (timeout != null) {
+            responseEntityMono = responseEntityMono.timeout(timeout);
+        }
+
+        return responseEntityMono
+            .map(SpringWebFluxWebClientHttpResponse::new)
+            .onErrorResume(WebClientResponseException.class, webClientException -> Mono.just(
+                new SpringWebFluxWebClientHttpResponse(
+
+                    new ResponseEntity<>(
+
+                        new ByteArrayInputStream(webClientException.getResponseBodyAsByteArray()),
+
+                        webClientException.getHeaders(),
+
+                        webClientException.getStatusCode()))));
+    }
 
-            var responseEntity = responseEntityMono.block();
-            return new SpringWebFluxWebClientHttpResponse(responseEntity);
+    /**
+     * Sends the request without holding the content in memory.
+     *
+     * <p>The request content is written on the calling thread into buffers of the request's {@link
+     * org.springframework.core.io.buffer.DataBufferFactory} as the connection accepts them. The
+     * response is returned as soon as its headers have been received, whatever its status code, and
+     * its content is read from the connection as the caller consumes it. The connection is held
+     * until the content has been fully read or closed.
+     */
+    private CompletableFuture<SpringWebFluxWebClientHttpResponse> sendStreaming() throws IOException {
+        RequestBodySpec requestBodySpec = webClient.method(HttpMethod.valueOf(method)).uri(url);
+        requestBodySpec.headers(headers -> headers.addAll(httpHeaders));
+
+        RequestHeadersSpec<?> requestHeadersSpec = requestBodySpec;
+        StreamingContentPublisher contentPublisher = null;
+        if (getStreamingContent() != null) {
+            if (getContentType() != null) {
+                requestBodySpec.header(HttpHeaders.CONTENT_TYPE, getContentType());
+            }
+            if (getContentEncoding() != null) {
+                requestBodySpec.header(HttpHeaders.CONTENT_ENCODING, getContentEncoding());
+            }
+            if (getContentLength() >= 0) {
+                requestBodySpec.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(getContentLength()));
+            }
+            else {
+                requestBodySpec.header(HttpHeaders.TRANSFER_ENCODING, "chunked");
+            }
+            if (getContentLength() != 0) {
+                final StreamingContentPublisher publisher =
+                    new StreamingContentPublisher(
+                        getStreamingContent(),
+                        contentChunkSize,
+                        SpringWebFluxWebClientHttpTransport.CONTENT_WINDOW_SIZE);
+                BodyInserter<Flux<DataBuffer>, ReactiveHttpOutputMessage> inserter =
+                    (outputMessage, context) -> outputMessage.writeWith(publisher.flux(outputMessage.bufferFactory()));
+                requestHeadersSpec = requestBodySpec.body(inserter);
+                contentPublisher = publisher;
+            }
         }
-        catch (WebClientResponseException webClientException) {
-            return new SpringWebFluxWebClientHttpResponse(
 
-                new ResponseEntity<>(
+        Flux<SpringWebFluxWebClientHttpResponse> exchange =
+            requestHeadersSpec.exchangeToFlux(SpringWebFluxWebClientHttpRequest::streamResponse);
+        if (timeout != null) {
+            // only bounds the wait for the response headers, not the reading of the content
+            exchange = exchange.timeout(Mono.delay(timeout), response -> Mono.never());
+        }
 
-                    new ByteArrayInputStream(webClientException.getResponseBodyAsByteArray()),
+        CompletableFuture<SpringWebFluxWebClientHttpResponse> responseFuture = new CompletableFuture<>();
+        Disposable subscription = exchange.subscribe(responseFuture::complete, responseFuture::completeExceptionally);
+        responseFuture.whenComplete((response, error) -> {
+            if (responseFuture.isCancelled()) {
+                subscription.dispose();
+            }
+        });
+        if (contentPublisher != null) {
+            // stop writing as soon as the exchange fails or the server responds early
+            final StreamingContentPublisher publisher = contentPublisher;
+            responseFuture.whenComplete((response, error) -> publisher.cancel());
+            try {
+                publisher.writeContent();
+            }
+            catch (IOException | RuntimeException e) {
+                responseFuture.cancel(true);
+                throw e;
+            }
+        }
+        return responseFuture;
+    }
 
-                    webClientException.getHeaders(),
+    /**
+     * Exposes the response with its content streamed, completing only once the content is done so
+     * that {@link WebClient} keeps the connection until then.
+     *
+     * <p>A flux is used because {@link RequestHeadersSpec#exchangeToMono} releases the body as soon
+     * as the returned mono completes.
+     */
+    private static Flux<SpringWebFluxWebClientHttpResponse> streamResponse(ClientResponse response) {
+        ResponseContentInputStream content =
+            new ResponseContentInputStream(SpringWebFluxWebClientHttpTransport.RESPONSE_CONTENT_PREFETCH);
+        response.bodyToFlux(DataBuffer.class).subscribe(content);
+        ResponseEntity<InputStream> responseEntity =
+            new ResponseEntity<>(content, response.headers().asHttpHeaders(), response.statusCode());
+        return Flux.concat(
+            Mono.just(new SpringWebFluxWebClientHttpResponse(responseEntity)),
+            content.<SpringWebFluxWebClientHttpResponse>whenTerminated());
+    }
 
-                    webClientException.getStatusCode()));
+    /** Waits for the response, unwrapping failures into {@link IOException}s. */
+    private static LowLevelHttpResponse getResponse(
+        CompletableFuture<SpringWebFluxWebClientHttpResponse> responseFuture) throws IOException {
+        try {
+            return responseFuture.get();
+        }
+        catch (InterruptedException e) {
+            responseFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response");
         }
+        catch (ExecutionException e) {
+            Throwable failure = toIOException(e.getCause());
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            throw (IOException) failure;
+        }
+    }
 
+    /**
+     * Returns the {@link IOException} for a failure of the exchange so that it can be handled by the
+     * retry logic of {@link com.google.api.client.http.HttpRequest}, or the failure itself if it is
+     * an unexpected {@link RuntimeException}.
+     */
+    private static Throwable toIOException(Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            SocketTimeoutException timeoutException = new SocketTimeoutException("Timed out waiting for the response");
+            timeoutException.initCause(cause);
+            return timeoutException;
+        }
+        if (cause instanceof WebClientRequestException && cause.getCause() instanceof IOException) {
+            return cause.getCause();
+        }
+        if (cause instanceof IOException || cause instanceof RuntimeException) {
+            return cause;
+        }
+        return new IOException(cause);
     }
 }
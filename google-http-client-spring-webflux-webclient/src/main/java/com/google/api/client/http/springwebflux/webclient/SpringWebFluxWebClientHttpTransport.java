@@ -16,6 +16,7 @@ package com.google.api.client.http.springwebflux.webclient;
 
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.util.Beta;
+import com.google.api.client.util.Preconditions;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
@@ -43,6 +44,15 @@ import java.net.ProxySelector;
 @Beta
 public final class SpringWebFluxWebClientHttpTransport extends HttpTransport {
 
+    /** Default size in bytes of each request content chunk in streaming mode. */
+    static final int DEFAULT_CONTENT_CHUNK_SIZE = 8 * 1024;
+
+    /** Maximum number of request content bytes buffered at a time in streaming mode. */
+    static final int CONTENT_WINDOW_SIZE = 256 * 1024;
+
+    /** Maximum number of response content chunks received ahead of the reader in streaming mode. */
+    static final int RESPONSE_CONTENT_PREFETCH = 16;
+
     /**
      * Apache HTTP client.
      */
@@ -53,6 +63,12 @@ public final class SpringWebFluxWebClientHttpTransport extends HttpTransport {
      */
     private final boolean isMtls;
 
+    /** Whether request and response content are streamed instead of held in memory. */
+    private final boolean streamingContent;
+
+    /** Size in bytes of each request content chunk in streaming mode. */
+    private final int contentChunkSize;
+
     /**
      * Constructor that uses {@link #newDefaultHttpClient()} for the Apache HTTP client.
      *
@@ -80,8 +96,7 @@ public final class SpringWebFluxWebClientHttpTransport extends HttpTransport {
      * @since 1.30
      */
     public SpringWebFluxWebClientHttpTransport(WebClient webClient) {
-        this.webClient = webClient;
-        this.isMtls = false;
+        this(webClient, false);
     }
 
     /**
@@ -104,8 +119,15 @@ public final class SpringWebFluxWebClientHttpTransport extends HttpTransport {
      * @since 1.38
      */
     public SpringWebFluxWebClientHttpTransport(WebClient webClient, boolean isMtls) {
+        this(webClient, isMtls, false, DEFAULT_CONTENT_CHUNK_SIZE);
+    }
+
+    private SpringWebFluxWebClientHttpTransport(
+        WebClient webClient, boolean isMtls, boolean streamingContent, int contentChunkSize) {
         this.webClient = webClient;
         this.isMtls = isMtls;
+        this.streamingContent = streamingContent;
+        this.contentChunkSize = contentChunkSize;
     }
 
     /**
@@ -151,7 +173,6 @@ public final class SpringWebFluxWebClientHttpTransport extends HttpTransport {
      * @since 1.31
      */
     public static WebClient newDefaultHttpClientBuilder() {
-        System.out.println("SpringWebFluxWebClientHttpTransport.newDefaultHttpClientBuilder");
         return WebClient.create();
     }
 
@@ -163,7 +184,7 @@ public final class SpringWebFluxWebClientHttpTransport extends HttpTransport {
     @Override
     protected SpringWebFluxWebClientHttpRequest buildRequest(String method, String url) {
 
-        return new SpringWebFluxWebClientHttpRequest(webClient, method, url);
+        return new SpringWebFluxWebClientHttpRequest(webClient, method, url, streamingContent, contentChunkSize);
     }
 
     /**
@@ -193,4 +214,94 @@ public final class SpringWebFluxWebClientHttpTransport extends HttpTransport {
     public boolean isMtls() {
         return isMtls;
     }
+
+    /**
+     * Returns whether request and response content are streamed instead of held in memory.
+     *
+     * @since 1.44
+     */
+    public boolean isStreamingContent() {
+        return streamingContent;
+    }
+
+    /**
+     * Builder for {@link SpringWebFluxWebClientHttpTransport}.
+     *
+     * <p>Implementation is not thread-safe.
+     *
+     * @since 1.44
+     */
+    public static final class Builder {
+
+        private WebClient webClient;
+
+        private boolean isMtls;
+
+        private boolean streamingContent;
+
+        private int contentChunkSize = DEFAULT_CONTENT_CHUNK_SIZE;
+
+        /**
+         * Sets the web client to use, {@link #newDefaultHttpClient()} by default.
+         */
+        public Builder setWebClient(WebClient webClient) {
+            this.webClient = webClient;
+            return this;
+        }
+
+        /**
+         * Sets whether the web client uses mutual TLS.
+         */
+        public Builder setMtls(boolean isMtls) {
+            this.isMtls = isMtls;
+            return this;
+        }
+
+        /**
+         * Returns whether request and response content are streamed instead of held in memory.
+         */
+        public boolean isStreamingContent() {
+            return streamingContent;
+        }
+
+        /**
+         * Sets whether request and response content are streamed instead of held in memory, {@code
+         * false} by default.
+         *
+         * <p>When enabled, the request content is written in chunks from the request's {@link
+         * org.springframework.core.io.buffer.DataBufferFactory} as the connection accepts them, and
+         * the response content, including the content of error responses, is read from the
+         * connection as {@link com.google.api.client.http.HttpResponse#getContent()} is consumed. The
+         * connection is then held until the response content has been fully read or closed.
+         */
+        public Builder setStreamingContent(boolean streamingContent) {
+            this.streamingContent = streamingContent;
+            return this;
+        }
+
+        /**
+         * Returns the size in bytes of each request content chunk in streaming mode.
+         */
+        public int getContentChunkSize() {
+            return contentChunkSize;
+        }
+
+        /**
+         * Sets the size in bytes of each request content chunk in streaming mode, {@code 8192} by
+         * default.
+         */
+        public Builder setContentChunkSize(int contentChunkSize) {
+            Preconditions.checkArgument(contentChunkSize > 0);
+            this.contentChunkSize = contentChunkSize;
+            return this;
+        }
+
+        /**
+         * Returns a new instance of {@link SpringWebFluxWebClientHttpTransport} based on the options.
+         */
+        public SpringWebFluxWebClientHttpTransport build() {
+            return new SpringWebFluxWebClientHttpTransport(
+                webClient == null ? newDefaultHttpClient() : webClient, isMtls, streamingContent, contentChunkSize);
+        }
+    }
 }
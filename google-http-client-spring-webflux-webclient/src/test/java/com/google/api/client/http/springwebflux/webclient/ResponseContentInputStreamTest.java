@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http.springwebflux.webclient;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.api.client.util.IOUtils;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+/** Tests {@link ResponseContentInputStream}. */
+public class ResponseContentInputStreamTest {
+
+  private static final NettyDataBufferFactory BUFFER_FACTORY =
+      new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+  private static List<NettyDataBuffer> newChunks(String... parts) {
+    List<NettyDataBuffer> chunks = new ArrayList<>();
+    for (String part : parts) {
+      chunks.add(BUFFER_FACTORY.wrap(Unpooled.copiedBuffer(part, StandardCharsets.UTF_8)));
+    }
+    return chunks;
+  }
+
+  @Test
+  public void testRead() throws IOException {
+    List<NettyDataBuffer> chunks = newChunks("abc", "", "defg", "h");
+    ResponseContentInputStream content = new ResponseContentInputStream(2);
+    Flux.fromIterable(chunks).subscribe(content);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    IOUtils.copy(content, out);
+    assertEquals("abcdefgh", out.toString("UTF-8"));
+    for (NettyDataBuffer chunk : chunks) {
+      assertEquals(0, chunk.getNativeBuffer().refCnt());
+    }
+  }
+
+  @Test
+  public void testRead_singleBytes() throws IOException {
+    ResponseContentInputStream content = new ResponseContentInputStream(1);
+    Flux.fromIterable(newChunks("ab", "c")).subscribe(content);
+
+    assertEquals('a', content.read());
+    assertEquals(1, content.available());
+    assertEquals('b', content.read());
+    assertEquals('c', content.read());
+    assertEquals(-1, content.read());
+    assertEquals(-1, content.read(new byte[1], 0, 1));
+  }
+
+  @Test
+  public void testRead_boundedDemand() throws IOException {
+    final AtomicLong requested = new AtomicLong();
+    ResponseContentInputStream content = new ResponseContentInputStream(2);
+    Flux.fromIterable(newChunks("a", "b", "c", "d"))
+        .doOnRequest(requested::addAndGet)
+        .subscribe(content);
+
+    assertEquals(2, requested.get());
+    byte[] buffer = new byte[1];
+    assertEquals(1, content.read(buffer, 0, 1));
+    assertEquals(3, requested.get());
+  }
+
+  @Test
+  public void testRead_error() {
+    ResponseContentInputStream content = new ResponseContentInputStream(4);
+    Flux.fromIterable(newChunks("ab"))
+        .concatWith(Flux.error(new IOException("connection reset")))
+        .subscribe(content);
+
+    byte[] buffer = new byte[2];
+    try {
+      assertEquals(2, content.read(buffer, 0, 2));
+      assertArrayEquals("ab".getBytes(StandardCharsets.UTF_8), buffer);
+      content.read(buffer, 0, 2);
+      fail("expected " + IOException.class);
+    } catch (IOException e) {
+      assertEquals("connection reset", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testClose() throws IOException {
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    List<NettyDataBuffer> chunks = newChunks("ab", "cd", "ef");
+    ResponseContentInputStream content = new ResponseContentInputStream(2);
+    Flux.fromIterable(chunks).doOnCancel(() -> cancelled.set(true)).subscribe(content);
+
+    assertEquals('a', content.read());
+    content.close();
+    assertTrue(cancelled.get());
+    assertEquals(0, chunks.get(0).getNativeBuffer().refCnt());
+    assertEquals(0, chunks.get(1).getNativeBuffer().refCnt());
+    assertTrue(content.whenTerminated().hasElement().block() != null);
+    try {
+      content.read();
+      fail("expected " + IOException.class);
+    } catch (IOException e) {
+      // expected
+    }
+  }
+}
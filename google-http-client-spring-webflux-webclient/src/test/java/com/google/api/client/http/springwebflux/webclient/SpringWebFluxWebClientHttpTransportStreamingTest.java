@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http.springwebflux.webclient;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.api.client.http.ByteArrayContent;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.InputStreamContent;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+
+/** Tests the streaming mode of {@link SpringWebFluxWebClientHttpTransport}. */
+public class SpringWebFluxWebClientHttpTransportStreamingTest {
+
+  private static final int LARGE_CONTENT_LENGTH = 4 * 1024 * 1024;
+
+  private static final HttpHandler LARGE_ERROR_HANDLER =
+      httpExchange -> {
+        httpExchange.sendResponseHeaders(503, 0);
+        byte[] chunk = new byte[64 * 1024];
+        try (OutputStream out = httpExchange.getResponseBody()) {
+          for (int i = 0; i < LARGE_CONTENT_LENGTH / chunk.length; i++) {
+            out.write(chunk);
+          }
+        }
+      };
+
+  private static final HttpHandler COUNTING_HANDLER =
+      httpExchange -> {
+        long count = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream in = httpExchange.getRequestBody()) {
+          int read;
+          while ((read = in.read(buffer)) != -1) {
+            count += read;
+          }
+        }
+        String transferEncoding = httpExchange.getRequestHeaders().getFirst("Transfer-Encoding");
+        writeResponse(httpExchange, 200, count + " " + transferEncoding);
+      };
+
+  private static final HttpHandler SLOW_HANDLER =
+      httpExchange -> {
+        try {
+          Thread.sleep(5_000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        writeResponse(httpExchange, 200, "slow");
+      };
+
+  private static void writeResponse(HttpExchange httpExchange, int statusCode, String body)
+      throws IOException {
+    byte[] response = body.getBytes(StandardCharsets.UTF_8);
+    httpExchange.sendResponseHeaders(statusCode, response.length);
+    try (OutputStream out = httpExchange.getResponseBody()) {
+      out.write(response);
+    }
+  }
+
+  private static class FakeServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executorService;
+
+    FakeServer(HttpHandler httpHandler) throws IOException {
+      server = HttpServer.create(new InetSocketAddress(0), 0);
+      executorService = Executors.newFixedThreadPool(2);
+      server.setExecutor(executorService);
+      server.createContext("/", httpHandler);
+      server.start();
+    }
+
+    GenericUrl getUrl() {
+      return new GenericUrl("http://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    @Override
+    public void close() {
+      server.stop(0);
+      executorService.shutdownNow();
+    }
+  }
+
+  private static HttpTransport newStreamingTransport() {
+    return new SpringWebFluxWebClientHttpTransport.Builder().setStreamingContent(true).build();
+  }
+
+  @Test(timeout = 30_000L)
+  public void testErrorResponseContent() throws IOException {
+    try (FakeServer server = new FakeServer(LARGE_ERROR_HANDLER)) {
+      HttpRequest request =
+          newStreamingTransport()
+              .createRequestFactory()
+              .buildGetRequest(server.getUrl())
+              .setThrowExceptionOnExecuteError(false);
+      HttpResponse response = request.execute();
+      assertEquals(503, response.getStatusCode());
+      long count = 0;
+      byte[] buffer = new byte[8192];
+      try (InputStream content = response.getContent()) {
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+          count += read;
+        }
+      }
+      assertEquals(LARGE_CONTENT_LENGTH, count);
+    }
+  }
+
+  @Test(timeout = 30_000L)
+  public void testSendAsync() throws Exception {
+    try (FakeServer server = new FakeServer(COUNTING_HANDLER)) {
+      byte[] content = new byte[LARGE_CONTENT_LENGTH];
+      HttpRequest request =
+          newStreamingTransport()
+              .createRequestFactory()
+              .buildPostRequest(server.getUrl(), new ByteArrayContent("text/plain", content));
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        HttpResponse response = request.sendAsync(executor).get();
+        assertEquals(LARGE_CONTENT_LENGTH + " null", response.parseAsString());
+      } finally {
+        executor.shutdown();
+      }
+    }
+  }
+
+  @Test(timeout = 30_000L)
+  public void testUpload_contentLength() throws IOException {
+    try (FakeServer server = new FakeServer(COUNTING_HANDLER)) {
+      byte[] content = new byte[LARGE_CONTENT_LENGTH];
+      HttpRequest request =
+          newStreamingTransport()
+              .createRequestFactory()
+              .buildPostRequest(server.getUrl(), new ByteArrayContent("text/plain", content));
+      assertEquals(LARGE_CONTENT_LENGTH + " null", request.execute().parseAsString());
+    }
+  }
+
+  @Test(timeout = 30_000L)
+  public void testUpload_chunked() throws IOException {
+    try (FakeServer server = new FakeServer(COUNTING_HANDLER)) {
+      InputStream content = new ByteArrayInputStream(new byte[LARGE_CONTENT_LENGTH]);
+      HttpRequest request =
+          newStreamingTransport()
+              .createRequestFactory()
+              .buildPostRequest(server.getUrl(), new InputStreamContent("text/plain", content));
+      assertEquals(LARGE_CONTENT_LENGTH + " chunked", request.execute().parseAsString());
+    }
+  }
+
+  @Test(timeout = 10_000L)
+  public void testReadTimeout() throws IOException {
+    try (FakeServer server = new FakeServer(SLOW_HANDLER)) {
+      HttpRequest request =
+          newStreamingTransport()
+              .createRequestFactory()
+              .buildGetRequest(server.getUrl())
+              .setConnectTimeout(100)
+              .setReadTimeout(100)
+              .setNumberOfRetries(0);
+      long start = System.nanoTime();
+      try {
+        request.execute();
+        fail("expected " + SocketTimeoutException.class);
+      } catch (SocketTimeoutException expected) {
+        // expected
+      }
+      assertTrue(System.nanoTime() - start < 4_000_000_000L);
+    }
+  }
+}
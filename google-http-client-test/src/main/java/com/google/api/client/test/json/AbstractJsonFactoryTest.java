@@ -16,16 +16,19 @@ package com.google.api.client.test.json;
 
 import com.google.api.client.http.json.JsonHttpContent;
 import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonArrayIterator;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.JsonGenerator;
 import com.google.api.client.json.JsonObjectParser;
 import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonProjection;
 import com.google.api.client.json.JsonPolymorphicTypeMap;
 import com.google.api.client.json.JsonPolymorphicTypeMap.TypeDef;
 import com.google.api.client.json.JsonString;
 import com.google.api.client.json.JsonToken;
 import com.google.api.client.util.ArrayMap;
 import com.google.api.client.util.Data;
+import com.google.api.client.util.GenericData;
 import com.google.api.client.util.Key;
 import com.google.api.client.util.NullValue;
 import com.google.api.client.util.StringUtils;
@@ -37,7 +40,9 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.reflect.TypeToken;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.lang.reflect.Type;
@@ -47,11 +52,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.TreeMap;
 import junit.framework.TestCase;
 
@@ -457,6 +464,52 @@ public abstract class AbstractJsonFactoryTest extends TestCase {
     assertEquals(6, integerArr[0].intValue());
   }
 
+  public static class NumericArrayType {
+    @Key public long[] longs;
+
+    @Key public double[] doubles;
+
+    @Key public float[] floats;
+
+    @Key public int[] ints;
+
+    @Key public List<Long> longList;
+
+    @Key public List<Double> doubleList;
+  }
+
+  public void testParser_numericArrays() throws Exception {
+    StringBuilder longs = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      longs.append(i == 0 ? "" : ",").append(10000000000L + i);
+    }
+    NumericArrayType result =
+        newFactory()
+            .fromString(
+                "{\"longs\":["
+                    + longs
+                    + "],\"doubles\":[1.5,-2,\"NaN\"],\"floats\":[],\"ints\":[1,\"2\"],"
+                    + "\"longList\":[3,null,4],\"doubleList\":[0.25,1]}",
+                NumericArrayType.class);
+    assertEquals(100, result.longs.length);
+    assertEquals(10000000000L, result.longs[0]);
+    assertEquals(10000000099L, result.longs[99]);
+    assertTrue(Arrays.equals(new double[] {1.5, -2, Double.NaN}, result.doubles));
+    assertEquals(0, result.floats.length);
+    assertTrue(Arrays.equals(new int[] {1, 2}, result.ints));
+    assertEquals(Arrays.asList(3L, Data.nullOf(Long.class), 4L), result.longList);
+    assertEquals(Arrays.asList(0.25, 1.0), result.doubleList);
+  }
+
+  public void testParser_numericArrays_null() throws Exception {
+    try {
+      newFactory().fromString("{\"longs\":[1,null]}", NumericArrayType.class);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
   public static class CollectionOfCollectionType {
     @Key public LinkedList<LinkedList<String>> arr;
   }
@@ -1106,6 +1159,58 @@ public abstract class AbstractJsonFactoryTest extends TestCase {
     assertEquals(factory, data.getFactory());
   }
 
+  public static class FieldKinds extends GenericJson {
+    @Key public String string;
+    @Key public Boolean boxedBoolean;
+    @Key public boolean primitiveBoolean;
+    @Key public short shortValue;
+    @Key public long longValue;
+
+    @Key("long_string")
+    @JsonString
+    public long longString;
+
+    @Key public double doubleValue;
+    @Key public float floatValue;
+    @Key public Integer boxedInteger;
+    @Key public List<Integer> integers;
+  }
+
+  public void testToString_fieldKinds() throws Exception {
+    JsonFactory factory = newFactory();
+    FieldKinds value = new FieldKinds();
+    value.string = Data.NULL_STRING;
+    value.boxedBoolean = Data.NULL_BOOLEAN;
+    value.primitiveBoolean = true;
+    value.shortValue = 2;
+    value.longValue = 12345678901L;
+    value.longString = 3;
+    value.doubleValue = 0.5;
+    value.floatValue = 1.5f;
+    value.boxedInteger = Data.NULL_INTEGER;
+    value.integers = Arrays.asList(4, null, 5);
+    value.set("unknown", "u");
+    assertEquals(
+        "{\"boxedBoolean\":null,\"boxedInteger\":null,\"doubleValue\":0.5,"
+            + "\"floatValue\":1.5,\"integers\":[4,5],\"longValue\":12345678901,"
+            + "\"long_string\":\"3\",\"primitiveBoolean\":true,\"shortValue\":2,"
+            + "\"string\":null,\"unknown\":\"u\"}",
+        factory.toString(value));
+    value.doubleValue = Double.NaN;
+    try {
+      factory.toString(value);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testToString_ignoreCase() throws Exception {
+    GenericData data = new GenericData(EnumSet.of(GenericData.Flags.IGNORE_CASE));
+    data.set("Key", "value");
+    assertEquals("{\"key\":\"value\"}", newFactory().toString(data));
+  }
+
   /** Returns a JsonParser which parses the specified string. */
   private JsonParser createParser(String json) throws Exception {
     return newFactory().createJsonParser(json);
@@ -1277,6 +1382,137 @@ public abstract class AbstractJsonFactoryTest extends TestCase {
     assertEquals("b", simple.a);
   }
 
+  static final String SIMPLE_ARRAY = "[{\"a\":\"b\"},{\"a\":\"c\"}]";
+  static final String SIMPLE_ARRAY_WRAPPED = "{\"e\":1,\"d\":[{\"a\":\"b\"},{\"a\":\"c\"}]}";
+
+  public void testIterateArray() throws Exception {
+    JsonFactory factory = newFactory();
+    try (JsonArrayIterator<Simple> items =
+        factory.createJsonParser(SIMPLE_ARRAY).iterateArray(Simple.class)) {
+      assertTrue(items.hasNext());
+      assertEquals("b", items.next().a);
+      assertEquals("c", items.next().a);
+      assertFalse(items.hasNext());
+      try {
+        items.next();
+        fail("expected " + NoSuchElementException.class);
+      } catch (NoSuchElementException e) {
+        // expected
+      }
+    }
+  }
+
+  public void testIterateArray_nested() throws Exception {
+    JsonFactory factory = newFactory();
+    JsonParser parser = factory.createJsonParser(SIMPLE_ARRAY_WRAPPED);
+    parser.skipToKey("d");
+    JsonArrayIterator<Simple> items = parser.iterateArray(Simple.class);
+    List<String> values = new ArrayList<>();
+    while (items.hasNext()) {
+      values.add(items.next().a);
+    }
+    assertEquals(Arrays.asList("b", "c"), values);
+    // the parser can continue after the array
+    assertEquals(JsonToken.END_ARRAY, parser.getCurrentToken());
+    assertEquals(JsonToken.END_OBJECT, parser.nextToken());
+    items.close();
+  }
+
+  public void testIterateArray_null() throws Exception {
+    JsonFactory factory = newFactory();
+    JsonParser parser = factory.createJsonParser("{\"d\":null}");
+    parser.skipToKey("d");
+    assertFalse(parser.iterateArray(Simple.class).hasNext());
+  }
+
+  public void testIterateArray_notArray() throws Exception {
+    JsonFactory factory = newFactory();
+    try {
+      factory.createJsonParser(SIMPLE).iterateArray(Simple.class);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testJsonObjectParser_iterateArray() throws Exception {
+    JsonFactory factory = newFactory();
+    JsonObjectParser parser = new JsonObjectParser(factory);
+    try (JsonArrayIterator<Simple> items =
+        parser.iterateArray(new StringReader(SIMPLE_ARRAY), Simple.class)) {
+      assertEquals("b", items.next().a);
+      assertEquals("c", items.next().a);
+      assertFalse(items.hasNext());
+    }
+  }
+
+  public void testJsonObjectParser_iterateArrayWrapped() throws Exception {
+    JsonFactory factory = newFactory();
+    JsonObjectParser parser =
+        new JsonObjectParser.Builder(factory).setWrapperKeys(Collections.singleton("d")).build();
+    final boolean[] closed = new boolean[1];
+    InputStream in =
+        new ByteArrayInputStream(StringUtils.getBytesUtf8(SIMPLE_ARRAY_WRAPPED)) {
+          @Override
+          public void close() {
+            closed[0] = true;
+          }
+        };
+    JsonArrayIterator<Simple> items = parser.iterateArray(in, Charsets.UTF_8, Simple.class);
+    assertEquals("b", items.next().a);
+    assertFalse(closed[0]);
+    assertEquals("c", items.next().a);
+    assertFalse(items.hasNext());
+    // closed at the end of the array
+    assertTrue(closed[0]);
+  }
+
+  public static class Projected {
+    @Key String id;
+    @Key String etag;
+    @Key List<Simple> items;
+  }
+
+  static final String PROJECTED =
+      "{\"id\":\"i\",\"etag\":\"e\",\"unknown\":{\"x\":[1,2]},"
+          + "\"items\":[{\"a\":\"b\",\"z\":1},{\"a\":\"c\"}]}";
+
+  public void testParse_projection() throws Exception {
+    JsonFactory factory = newFactory();
+    Projected result =
+        factory
+            .createJsonParser(PROJECTED)
+            .parse(Projected.class, JsonProjection.of("/id", "/items/a"));
+    assertEquals("i", result.id);
+    assertNull(result.etag);
+    assertEquals(2, result.items.size());
+    assertEquals("b", result.items.get(0).a);
+    assertEquals("c", result.items.get(1).a);
+  }
+
+  public void testParse_projectionGenericJson() throws Exception {
+    JsonFactory factory = newFactory();
+    GenericJson result =
+        factory
+            .createJsonParser(PROJECTED)
+            .parse(GenericJson.class, JsonProjection.of("/etag", "/items/z"));
+    assertEquals("{\"etag\":\"e\",\"items\":[{\"z\":1},{}]}", factory.toString(result));
+  }
+
+  public void testJsonObjectParser_projection() throws Exception {
+    JsonFactory factory = newFactory();
+    JsonObjectParser parser =
+        new JsonObjectParser.Builder(factory)
+            .setWrapperKeys(Collections.singleton("d"))
+            .setProjection(JsonProjection.of("/etag"))
+            .build();
+    Projected result =
+        parser.parseAndClose(new StringReader("{\"d\":" + PROJECTED + "}"), Projected.class);
+    assertNull(result.id);
+    assertEquals("e", result.etag);
+    assertNull(result.items);
+  }
+
   public void testJsonHttpContent_simple() throws Exception {
     JsonFactory factory = newFactory();
     Simple simple = new Simple();
@@ -1297,6 +1533,45 @@ public abstract class AbstractJsonFactoryTest extends TestCase {
     assertEquals(SIMPLE_WRAPPED, out.toString("UTF-8"));
   }
 
+  public void testJsonHttpContent_length() throws Exception {
+    JsonFactory factory = newFactory();
+    Simple simple = new Simple();
+    simple.a = "b";
+    JsonHttpContent content = new JsonHttpContent(factory, simple).setWrapperKey("d");
+    assertEquals(SIMPLE_WRAPPED.length(), content.getLength());
+    // writes the content serialized for the length, then serializes it again
+    simple.a = "c";
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    content.writeTo(out);
+    assertEquals(SIMPLE_WRAPPED, out.toString("UTF-8"));
+    out.reset();
+    content.writeTo(out);
+    assertEquals(SIMPLE_WRAPPED.replace('b', 'c'), out.toString("UTF-8"));
+  }
+
+  public void testJsonHttpContent_overriddenWriteTo() throws Exception {
+    JsonHttpContent content =
+        new JsonHttpContent(newFactory(), new Simple()) {
+          @Override
+          public void writeTo(OutputStream out) throws IOException {
+            out.write(new byte[5]);
+          }
+        };
+    assertEquals(5, content.getLength());
+  }
+
+  public void testToByteArray_large() throws Exception {
+    JsonFactory factory = newFactory();
+    List<String> values = new ArrayList<String>();
+    for (int i = 0; i < 10000; i++) {
+      values.add("value \u00e9 " + i);
+    }
+    String json = factory.toString(values);
+    assertTrue(json.length() > 100000);
+    assertEquals(values, Arrays.asList(factory.fromString(json, String[].class)));
+    assertTrue(Arrays.equals(json.getBytes(Charsets.UTF_8), factory.toByteArray(values)));
+  }
+
   public static class V {
     @Key Void v;
     @Key String s;
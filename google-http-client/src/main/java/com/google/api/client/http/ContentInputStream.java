@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Buffered input stream of the HTTP response content that supports {@link #mark(int)} and {@link
+ * #reset()} for error handlers, but reads block reads directly from the underlying stream when its
+ * buffer is empty and no position is marked.
+ *
+ * <p>Parsers such as Jackson's byte-oriented JSON parser and the {@link java.io.InputStreamReader}
+ * of Gson read the content in blocks into buffers of their own, so copying the content through
+ * another buffer first would only cost time.
+ */
+final class ContentInputStream extends BufferedInputStream {
+
+  /** Minimum length of a read that bypasses the buffer, a quarter of the buffer size. */
+  private static final int DIRECT_READ_MIN_LENGTH = 2048;
+
+  ContentInputStream(InputStream in) {
+    super(in);
+  }
+
+  @Override
+  public synchronized int read(byte[] b, int off, int len) throws IOException {
+    InputStream in = this.in;
+    if (in != null && pos >= count && markpos < 0 && len >= DIRECT_READ_MIN_LENGTH) {
+      if (off < 0 || off > b.length - len) {
+        throw new IndexOutOfBoundsException();
+      }
+      return in.read(b, off, len);
+    }
+    return super.read(b, off, len);
+  }
+}
@@ -14,6 +14,8 @@
 
 package com.google.api.client.http;
 
+import com.google.api.client.util.ArrayMap;
+import com.google.api.client.util.Beta;
 import com.google.api.client.util.GenericData;
 import com.google.api.client.util.Key;
 import com.google.api.client.util.Preconditions;
@@ -45,7 +47,10 @@ import java.util.Set;
  *
  * <p>Query parameter values are parsed using {@link UrlEncodedParser#parse(String, Object)}.
  *
- * <p>Implementation is not thread-safe.
+ * <p>Use {@link #freeze()} to get an unmodifiable copy that builds its string only once, for
+ * example for a base URL that is requested many times.
+ *
+ * <p>Implementation is not thread-safe, except for {@link #freeze() frozen} URLs.
  *
  * @since 1.0
  * @author Yaniv Inbar
@@ -86,6 +91,21 @@ public class GenericUrl extends GenericData {
    */
   private boolean verbatim;
 
+  /** String of a {@link #freeze() frozen} URL or {@code null} if this URL is modifiable. */
+  private String frozenUrl;
+
+  /** Unmodifiable query parameters of a frozen URL, which are its unknown keys. */
+  private Map<String, Object> frozenParameters;
+
+  /** Raw encoded path of a frozen URL or {@code null} for none. */
+  private String frozenRawPath;
+
+  /** Index of the fragment in {@link #frozenUrl} or its length if there is no fragment. */
+  private int frozenFragmentStart;
+
+  /** Whether {@link #frozenUrl} has a query. */
+  private boolean frozenHasQuery;
+
   public GenericUrl() {}
 
   /**
@@ -235,8 +255,27 @@ public class GenericUrl extends GenericData {
     return build();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The clone of a {@link #freeze() frozen} URL is modifiable.
+   */
   @Override
   public GenericUrl clone() {
+    if (frozenUrl != null) {
+      GenericUrl result = copyComponents();
+      if (pathParts != null) {
+        result.pathParts = new ArrayList<String>(pathParts);
+      }
+      for (Map.Entry<String, Object> entry : getUnknownKeys().entrySet()) {
+        Object value = entry.getValue();
+        if (value instanceof Collection<?>) {
+          value = new ArrayList<Object>((Collection<?>) value);
+        }
+        result.put(entry.getKey(), value);
+      }
+      return result;
+    }
     GenericUrl result = (GenericUrl) super.clone();
     if (pathParts != null) {
       result.pathParts = new ArrayList<String>(pathParts);
@@ -244,6 +283,170 @@ public class GenericUrl extends GenericData {
     return result;
   }
 
+  /**
+   * {@link Beta} <br>
+   * Returns an unmodifiable copy of this URL, or this URL if it is already frozen.
+   *
+   * <p>The copy is a {@link GenericUrl} whose query parameters, including the values of any {@link
+   * Key} fields of this URL, are its unknown keys, and whose collections of values are copied. It
+   * builds its string and raw path only once, so that a frozen URL may be executed many times
+   * without escaping its parts again. Query parameter values are expected to be immutable, for
+   * example strings and numbers.
+   *
+   * <p>The setters of a frozen URL throw an {@link IllegalStateException}, and its query parameters
+   * and path parts throw an {@link UnsupportedOperationException} when they are modified. Use
+   * {@link #clone()} to get a modifiable copy, or {@link #withQueryParameter(String, Object)} to
+   * derive a URL with another query parameter.
+   *
+   * @since 1.44
+   */
+  @Beta
+  public final GenericUrl freeze() {
+    if (frozenUrl != null) {
+      return this;
+    }
+    GenericUrl result = copyComponents();
+    if (pathParts != null) {
+      result.pathParts = Collections.unmodifiableList(new ArrayList<String>(pathParts));
+    }
+    ArrayMap<String, Object> parameters = ArrayMap.create();
+    for (Map.Entry<String, Object> entry : entrySet()) {
+      parameters.add(entry.getKey(), freezeValue(entry.getValue()));
+    }
+    result.initFrozen(parameters);
+    return result;
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Returns whether this URL is {@link #freeze() frozen}.
+   *
+   * @since 1.44
+   */
+  @Beta
+  public final boolean isFrozen() {
+    return frozenUrl != null;
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Returns a {@link #freeze() frozen} URL with the components and query parameters of this URL and
+   * the given query parameter, without modifying this URL.
+   *
+   * <p>If this URL is frozen and does not have a query parameter of the given name, the string of
+   * the result only appends the parameter to the string of this URL instead of building it again.
+   * Otherwise the value is added to the values of the parameter of the same name.
+   *
+   * @param name query parameter name
+   * @param value query parameter value, which may be a collection of values, or {@code null} to
+   *     add no value
+   * @since 1.44
+   */
+  @Beta
+  public final GenericUrl withQueryParameter(String name, Object value) {
+    Preconditions.checkNotNull(name);
+    GenericUrl base = freeze();
+    Map<String, Object> baseParameters = base.getUnknownKeys();
+    ArrayMap<String, Object> parameters = ArrayMap.create(baseParameters.size() + 1);
+    boolean isNewName = true;
+    for (Map.Entry<String, Object> entry : baseParameters.entrySet()) {
+      Object baseValue = entry.getValue();
+      if (name.equals(entry.getKey())) {
+        isNewName = false;
+        baseValue = freezeValue(addValue(baseValue, value));
+      }
+      parameters.add(entry.getKey(), baseValue);
+    }
+    GenericUrl result = base.copyComponents();
+    result.pathParts = base.pathParts;
+    if (!isNewName || baseParameters != base.frozenParameters) {
+      result.initFrozen(parameters);
+      return result;
+    }
+    Object frozenValue = freezeValue(value);
+    parameters.add(name, frozenValue);
+    String url = base.frozenUrl;
+    StringBuilder buf = new StringBuilder(url.length() + 32);
+    buf.append(url, 0, base.frozenFragmentStart);
+    boolean hasQuery = base.frozenHasQuery;
+    if (frozenValue != null) {
+      String escapedName = base.verbatim ? name : CharEscapers.escapeUriQuery(name);
+      hasQuery = !appendParams(!hasQuery, buf, escapedName, frozenValue, base.verbatim);
+    }
+    result.frozenFragmentStart = buf.length();
+    buf.append(url, base.frozenFragmentStart, url.length());
+    result.frozenParameters = Collections.unmodifiableMap(parameters);
+    result.setUnknownKeys(result.frozenParameters);
+    result.frozenRawPath = base.frozenRawPath;
+    result.frozenHasQuery = hasQuery;
+    result.frozenUrl = buf.toString();
+    return result;
+  }
+
+  /** Returns a new modifiable URL with the components of this URL, but no path or parameters. */
+  private GenericUrl copyComponents() {
+    GenericUrl result = new GenericUrl();
+    result.scheme = scheme;
+    result.host = host;
+    result.userInfo = userInfo;
+    result.port = port;
+    result.fragment = fragment;
+    result.verbatim = verbatim;
+    return result;
+  }
+
+  /** Makes this URL frozen with the given query parameters. */
+  private void initFrozen(ArrayMap<String, Object> parameters) {
+    frozenParameters = Collections.unmodifiableMap(parameters);
+    setUnknownKeys(frozenParameters);
+    StringBuilder buf = new StringBuilder(buildAuthority());
+    int pathStart = buf.length();
+    if (pathParts != null) {
+      appendRawPathFromParts(buf);
+      frozenRawPath = buf.substring(pathStart);
+    }
+    int queryStart = buf.length();
+    addQueryParams(entrySet(), buf, verbatim);
+    frozenHasQuery = buf.length() != queryStart;
+    frozenFragmentStart = buf.length();
+    appendFragment(buf);
+    frozenUrl = buf.toString();
+  }
+
+  /** Returns an unmodifiable copy of the given collection or the given value otherwise. */
+  private static Object freezeValue(Object value) {
+    if (value instanceof Collection<?>) {
+      return Collections.unmodifiableList(new ArrayList<Object>((Collection<?>) value));
+    }
+    return value;
+  }
+
+  /** Returns the values of the given value followed by the given added value. */
+  private static Object addValue(Object value, Object addedValue) {
+    if (value == null) {
+      return addedValue;
+    }
+    if (addedValue == null) {
+      return value;
+    }
+    List<Object> values = new ArrayList<Object>();
+    addValues(values, value);
+    addValues(values, addedValue);
+    return values;
+  }
+
+  private static void addValues(List<Object> values, Object value) {
+    if (value instanceof Collection<?>) {
+      values.addAll((Collection<?>) value);
+    } else {
+      values.add(value);
+    }
+  }
+
+  private void checkModifiable() {
+    Preconditions.checkState(frozenUrl == null, "URL is frozen");
+  }
+
   @Override
   public GenericUrl set(String fieldName, Object value) {
     return (GenericUrl) super.set(fieldName, value);
@@ -264,6 +467,7 @@ public class GenericUrl extends GenericData {
    * @since 1.5
    */
   public final void setScheme(String scheme) {
+    checkModifiable();
     this.scheme = Preconditions.checkNotNull(scheme);
   }
 
@@ -282,6 +486,7 @@ public class GenericUrl extends GenericData {
    * @since 1.5
    */
   public final void setHost(String host) {
+    checkModifiable();
     this.host = Preconditions.checkNotNull(host);
   }
 
@@ -300,6 +505,7 @@ public class GenericUrl extends GenericData {
    * @since 1.15
    */
   public final void setUserInfo(String userInfo) {
+    checkModifiable();
     this.userInfo = userInfo;
   }
 
@@ -318,6 +524,7 @@ public class GenericUrl extends GenericData {
    * @since 1.5
    */
   public final void setPort(int port) {
+    checkModifiable();
     Preconditions.checkArgument(port >= -1, "expected port >= -1");
     this.port = port;
   }
@@ -345,6 +552,7 @@ public class GenericUrl extends GenericData {
    * @since 1.5
    */
   public void setPathParts(List<String> pathParts) {
+    checkModifiable();
     this.pathParts = pathParts;
   }
 
@@ -363,6 +571,7 @@ public class GenericUrl extends GenericData {
    * @since 1.5
    */
   public final void setFragment(String fragment) {
+    checkModifiable();
     this.fragment = fragment;
   }
 
@@ -371,6 +580,9 @@ public class GenericUrl extends GenericData {
    * #pathParts} and the query parameters specified by this generic URL.
    */
   public final String build() {
+    if (frozenUrl != null && getUnknownKeys() == frozenParameters) {
+      return frozenUrl;
+    }
     return buildAuthority() + buildRelativeUrl();
   }
 
@@ -414,13 +626,15 @@ public class GenericUrl extends GenericData {
       appendRawPathFromParts(buf);
     }
     addQueryParams(entrySet(), buf, verbatim);
+    appendFragment(buf);
+    return buf.toString();
+  }
 
-    // URL fragment
+  private void appendFragment(StringBuilder buf) {
     String fragment = this.fragment;
     if (fragment != null) {
       buf.append('#').append(verbatim ? fragment : URI_FRAGMENT_ESCAPER.escape(fragment));
     }
-    return buf.toString();
   }
 
   /**
@@ -508,6 +722,9 @@ public class GenericUrl extends GenericData {
    *     #pathParts} is {@code null}
    */
   public String getRawPath() {
+    if (frozenUrl != null) {
+      return frozenRawPath;
+    }
     List<String> pathParts = this.pathParts;
     if (pathParts == null) {
       return null;
@@ -523,6 +740,7 @@ public class GenericUrl extends GenericData {
    * @param encodedPath raw encoded path or {@code null} to set {@link #pathParts} to {@code null}
    */
   public void setRawPath(String encodedPath) {
+    checkModifiable();
     pathParts = toPathParts(encodedPath, verbatim);
   }
 
@@ -537,6 +755,7 @@ public class GenericUrl extends GenericData {
    * @param encodedPath raw encoded path or {@code null} to ignore
    */
   public void appendRawPath(String encodedPath) {
+    checkModifiable();
     if (encodedPath != null && encodedPath.length() != 0) {
       List<String> appendedPathParts = toPathParts(encodedPath, verbatim);
       if (pathParts == null || pathParts.isEmpty()) {
@@ -619,16 +838,23 @@ public class GenericUrl extends GenericData {
             verbatim
                 ? nameValueEntry.getKey()
                 : CharEscapers.escapeUriQuery(nameValueEntry.getKey());
-        if (value instanceof Collection<?>) {
-          Collection<?> collectionValue = (Collection<?>) value;
-          for (Object repeatedValue : collectionValue) {
-            first = appendParam(first, buf, name, repeatedValue, verbatim);
-          }
-        } else {
-          first = appendParam(first, buf, name, value, verbatim);
-        }
+        first = appendParams(first, buf, name, value, verbatim);
+      }
+    }
+  }
+
+  /** Appends the given value or each value of the given collection and returns the new first. */
+  static boolean appendParams(
+      boolean first, StringBuilder buf, String name, Object value, boolean verbatim) {
+    if (value instanceof Collection<?>) {
+      Collection<?> collectionValue = (Collection<?>) value;
+      for (Object repeatedValue : collectionValue) {
+        first = appendParam(first, buf, name, repeatedValue, verbatim);
       }
+    } else {
+      first = appendParam(first, buf, name, value, verbatim);
     }
+    return first;
   }
 
   private static boolean appendParam(
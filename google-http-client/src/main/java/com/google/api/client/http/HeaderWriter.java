@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http;
+
+import com.google.api.client.util.ArrayMap;
+import com.google.api.client.util.ClassInfo;
+import com.google.api.client.util.FieldInfo;
+import com.google.api.client.util.GenericData;
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.Types;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.logging.Logger;
+
+/**
+ * Writes the headers of one {@link HttpHeaders} class with the fields and display names resolved
+ * once for the class, instead of iterating over {@link HttpHeaders#entrySet()} and detecting
+ * duplicate names with a set for each request.
+ *
+ * <p>Produces exactly the headers of the generic implementation of {@link
+ * HttpHeaders#serializeHeaders}: the non-{@code null} fields in the order of {@link
+ * ClassInfo#getNames()}, followed by the unknown keys.
+ *
+ * <p>Implementation is thread-safe.
+ */
+final class HeaderWriter {
+
+  /** Maps a headers class to its writer, or {@code null} if it is written as a generic map. */
+  private static final ClassValue<HeaderWriter> WRITERS =
+      new ClassValue<HeaderWriter>() {
+        @Override
+        protected HeaderWriter computeValue(Class<?> type) {
+          return newWriter(type);
+        }
+      };
+
+  /** Fields in the order of their lower-case names. */
+  private final FieldInfo[] fieldInfos;
+
+  /** Display names of the fields, which are their declared names. */
+  private final String[] displayNames;
+
+  private HeaderWriter(FieldInfo[] fieldInfos, String[] displayNames) {
+    this.fieldInfos = fieldInfos;
+    this.displayNames = displayNames;
+  }
+
+  /**
+   * Returns the writer of the given headers class, or {@code null} if the class overrides {@link
+   * GenericData#entrySet()}.
+   */
+  static HeaderWriter of(Class<? extends HttpHeaders> type) {
+    return WRITERS.get(type);
+  }
+
+  /**
+   * Writes the given headers, with the same arguments as {@link HttpHeaders#serializeHeaders}.
+   *
+   * @throws IllegalArgumentException if an unknown key has the name of a field with a value
+   */
+  void write(
+      HttpHeaders headers,
+      StringBuilder logbuf,
+      StringBuilder curlbuf,
+      Logger logger,
+      LowLevelHttpRequest lowLevelHttpRequest,
+      Writer writer)
+      throws IOException {
+    FieldInfo[] fieldInfos = this.fieldInfos;
+    for (int i = 0; i < fieldInfos.length; i++) {
+      Object value = fieldInfos[i].getValue(headers);
+      if (value != null) {
+        addHeaders(logbuf, curlbuf, logger, lowLevelHttpRequest, writer, displayNames[i], value);
+      }
+    }
+    Map<String, Object> unknownKeys = headers.getUnknownKeys();
+    if (unknownKeys.isEmpty()) {
+      return;
+    }
+    ClassInfo classInfo = headers.getClassInfo();
+    if (unknownKeys instanceof ArrayMap<?, ?>) {
+      // array maps may have duplicate keys
+      @SuppressWarnings("unchecked")
+      ArrayMap<String, Object> arrayMap = (ArrayMap<String, Object>) unknownKeys;
+      int size = arrayMap.size();
+      for (int i = 0; i < size; i++) {
+        String name = arrayMap.getKey(i);
+        for (int j = 0; j < i; j++) {
+          checkUniqueName(name, !name.equals(arrayMap.getKey(j)));
+        }
+        addUnknownKey(
+            headers,
+            classInfo,
+            logbuf,
+            curlbuf,
+            logger,
+            lowLevelHttpRequest,
+            writer,
+            name,
+            arrayMap.getValue(i));
+      }
+    } else {
+      for (Map.Entry<String, Object> entry : unknownKeys.entrySet()) {
+        addUnknownKey(
+            headers,
+            classInfo,
+            logbuf,
+            curlbuf,
+            logger,
+            lowLevelHttpRequest,
+            writer,
+            entry.getKey(),
+            entry.getValue());
+      }
+    }
+  }
+
+  private static void addUnknownKey(
+      HttpHeaders headers,
+      ClassInfo classInfo,
+      StringBuilder logbuf,
+      StringBuilder curlbuf,
+      Logger logger,
+      LowLevelHttpRequest lowLevelHttpRequest,
+      Writer writer,
+      String name,
+      Object value)
+      throws IOException {
+    String displayName = name;
+    FieldInfo fieldInfo = classInfo.getFieldInfo(name);
+    if (fieldInfo != null) {
+      displayName = fieldInfo.getName();
+      // the generic implementation reports the lower-case name of a written field again
+      checkUniqueName(
+          name,
+          !name.equals(displayName.toLowerCase(Locale.US)) || fieldInfo.getValue(headers) == null);
+    }
+    if (value != null) {
+      addHeaders(logbuf, curlbuf, logger, lowLevelHttpRequest, writer, displayName, value);
+    }
+  }
+
+  private static void checkUniqueName(String name, boolean isUnique) {
+    Preconditions.checkArgument(
+        isUnique, "multiple headers of the same name (headers are case insensitive): %s", name);
+  }
+
+  /** Adds a header for the value or for each element of a list or array value. */
+  private static void addHeaders(
+      StringBuilder logbuf,
+      StringBuilder curlbuf,
+      Logger logger,
+      LowLevelHttpRequest lowLevelHttpRequest,
+      Writer writer,
+      String displayName,
+      Object value)
+      throws IOException {
+    if (value instanceof List<?> && value instanceof RandomAccess) {
+      List<?> values = (List<?>) value;
+      int size = values.size();
+      for (int i = 0; i < size; i++) {
+        HttpHeaders.addHeader(
+            logger, logbuf, curlbuf, lowLevelHttpRequest, displayName, values.get(i), writer);
+      }
+    } else if (value instanceof Iterable<?> || value.getClass().isArray()) {
+      for (Object repeatedValue : Types.iterableOf(value)) {
+        HttpHeaders.addHeader(
+            logger, logbuf, curlbuf, lowLevelHttpRequest, displayName, repeatedValue, writer);
+      }
+    } else {
+      HttpHeaders.addHeader(
+          logger, logbuf, curlbuf, lowLevelHttpRequest, displayName, value, writer);
+    }
+  }
+
+  private static HeaderWriter newWriter(Class<?> type) {
+    try {
+      if (type.getMethod("entrySet").getDeclaringClass() != GenericData.class) {
+        return null;
+      }
+    } catch (NoSuchMethodException e) {
+      // not possible
+      throw new RuntimeException(e);
+    }
+    ClassInfo classInfo = ClassInfo.of(type, true);
+    Collection<String> names = classInfo.getNames();
+    FieldInfo[] fieldInfos = new FieldInfo[names.size()];
+    String[] displayNames = new String[names.size()];
+    int i = 0;
+    for (String name : names) {
+      fieldInfos[i] = classInfo.getFieldInfo(name);
+      displayNames[i] = fieldInfos[i].getName();
+      i++;
+    }
+    return new HeaderWriter(fieldInfos, displayNames);
+  }
+}
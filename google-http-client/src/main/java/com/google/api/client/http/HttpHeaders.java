@@ -823,7 +823,7 @@ public class HttpHeaders extends GenericData {
     return setAuthorization("Basic " + encoded);
   }
 
-  private static void addHeader(
+  static void addHeader(
       Logger logger,
       StringBuilder logbuf,
       StringBuilder curlbuf,
@@ -901,6 +901,14 @@ public class HttpHeaders extends GenericData {
       LowLevelHttpRequest lowLevelHttpRequest,
       Writer writer)
       throws IOException {
+    HeaderWriter headerWriter = HeaderWriter.of(headers.getClass());
+    if (headerWriter != null) {
+      headerWriter.write(headers, logbuf, curlbuf, logger, lowLevelHttpRequest, writer);
+      if (writer != null) {
+        writer.flush();
+      }
+      return;
+    }
     HashSet<String> headerNames = new HashSet<String>();
     for (Map.Entry<String, Object> headerEntry : headers.entrySet()) {
       String name = headerEntry.getKey();
@@ -966,6 +974,19 @@ public class HttpHeaders extends GenericData {
     state.finish();
   }
 
+  /**
+   * Puts all headers of the given names and values into this object, as {@link
+   * #fromHttpResponse} does for the headers of a {@link LowLevelHttpResponse}.
+   */
+  final void fromHeaderValues(String[] names, String[] values) {
+    clear();
+    ParseHeaderState state = new ParseHeaderState(this, null);
+    for (int i = 0; i < names.length; i++) {
+      parseHeader(names[i], values[i], state);
+    }
+    state.finish();
+  }
+
   /** LowLevelHttpRequest which will call the .parseHeader() method for every header added. */
   private static class HeaderParsingFakeLevelHttpRequest extends LowLevelHttpRequest {
     private final HttpHeaders target;
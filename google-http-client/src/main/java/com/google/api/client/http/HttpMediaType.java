@@ -22,8 +22,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * HTTP Media-type as specified in the <a
@@ -36,18 +34,6 @@ import java.util.regex.Pattern;
  */
 public final class HttpMediaType {
 
-  /** Matches a valid media type or '*' (examples: "text" or "*"). */
-  private static final Pattern TYPE_REGEX;
-
-  /** Matches a valid token which might be used as a type, key parameter or key value. */
-  private static final Pattern TOKEN_REGEX;
-
-  /** The pattern matching the full HTTP media type string. */
-  private static final Pattern FULL_MEDIA_TYPE_REGEX;
-
-  /** The pattern matching a single parameter (key, value) at a time. */
-  private static final Pattern PARAMETER_REGEX;
-
   /** The main type of the media type, for example {@code "text"}. */
   private String type = "application";
 
@@ -60,52 +46,6 @@ public final class HttpMediaType {
   /** The last build result or {@code null}. */
   private String cachedBuildResult;
 
-  /** Initialize all Patterns used for parsing. */
-  static {
-    // TYPE_REGEX: Very restrictive regex accepting valid types and '*' for e.g. "text/*".
-    // http://tools.ietf.org/html/rfc4288#section-4.2
-    TYPE_REGEX = Pattern.compile("[\\w!#$&.+\\-\\^_]+|[*]");
-
-    // TOKEN_REGEX: Restrictive (but less than TYPE_REGEX) regex accepting valid tokens.
-    // http://tools.ietf.org/html/rfc2045#section-5.1
-    TOKEN_REGEX =
-        Pattern.compile("[\\p{ASCII}&&[^\\p{Cntrl} ;/=\\[\\]\\(\\)\\<\\>\\@\\,\\:\\\"\\?\\=]]+");
-
-    // FULL_MEDIA_TYPE_REGEX: Unrestrictive regex matching the general structure of the media type.
-    // Used to split a Content-Type string into different parts. Unrestrictive so that invalid char
-    // detection can be done on a per-type/parameter basis.
-    String typeOrKey = "[^\\s/=;\"]+"; // only disallow separators
-    String wholeParameterSection = ";.*";
-    FULL_MEDIA_TYPE_REGEX =
-        Pattern.compile(
-            "\\s*("
-                + typeOrKey
-                + ")/("
-                + typeOrKey
-                + ")"
-                + // main type (G1)/sub type (G2)
-                "\\s*("
-                + wholeParameterSection
-                + ")?",
-            Pattern.DOTALL); // parameters (G3) or null
-
-    // PARAMETER_REGEX: Semi-restrictive regex matching each parameter in the parameter section.
-    // We also allow multipart values here (http://www.w3.org/Protocols/rfc1341/7_2_Multipart.html)
-    // although those do not fully conform to the HTTP spec.
-    String quotedParameterValue = "\"([^\"]*)\"";
-    String unquotedParameterValue = "[^\\s;\"]*";
-    String parameterValue = quotedParameterValue + "|" + unquotedParameterValue;
-    PARAMETER_REGEX =
-        Pattern.compile(
-            "\\s*;\\s*("
-                + typeOrKey
-                + ")"
-                + // parameter key (G1)
-                "=("
-                + parameterValue
-                + ")"); // G2 (if quoted) and else G3
-  }
-
   /**
    * Initializes the {@link HttpMediaType} by setting the specified media type.
    *
@@ -123,7 +63,22 @@ public final class HttpMediaType {
    * @param mediaType full media type string, for example {@code "text/plain; charset=utf-8"}
    */
   public HttpMediaType(String mediaType) {
-    fromString(mediaType);
+    copyFrom(ParsedMediaType.of(mediaType));
+  }
+
+  private HttpMediaType() {}
+
+  /** Returns a new {@link HttpMediaType} with the type, sub type and parameters of the given one. */
+  static HttpMediaType copyOf(ParsedMediaType mediaType) {
+    HttpMediaType result = new HttpMediaType();
+    result.copyFrom(mediaType);
+    return result;
+  }
+
+  private void copyFrom(ParsedMediaType mediaType) {
+    type = mediaType.getType();
+    subType = mediaType.getSubType();
+    parameters.putAll(mediaType.getParameters());
   }
 
   /**
@@ -132,8 +87,7 @@ public final class HttpMediaType {
    * @param type main/major media type
    */
   public HttpMediaType setType(String type) {
-    Preconditions.checkArgument(
-        TYPE_REGEX.matcher(type).matches(), "Type contains reserved characters");
+    Preconditions.checkArgument(matchesType(type), "Type contains reserved characters");
     this.type = type;
     cachedBuildResult = null;
     return this;
@@ -150,8 +104,7 @@ public final class HttpMediaType {
    * @param subType sub media type
    */
   public HttpMediaType setSubType(String subType) {
-    Preconditions.checkArgument(
-        TYPE_REGEX.matcher(subType).matches(), "Subtype contains reserved characters");
+    Preconditions.checkArgument(matchesType(subType), "Subtype contains reserved characters");
     this.subType = subType;
     cachedBuildResult = null;
     return this;
@@ -162,38 +115,6 @@ public final class HttpMediaType {
     return subType;
   }
 
-  /**
-   * Sets the full media type by parsing a full content-type string, for example {@code "text/plain;
-   * foo=bar"}.
-   *
-   * <p>This method will not clear existing parameters. Use {@link #clearParameters()} if this
-   * behavior is required.
-   *
-   * @param combinedType full media type in the {@code "maintype/subtype; key=value"} format.
-   */
-  private HttpMediaType fromString(String combinedType) {
-    Matcher matcher = FULL_MEDIA_TYPE_REGEX.matcher(combinedType);
-    Preconditions.checkArgument(
-        matcher.matches(), "Type must be in the 'maintype/subtype; parameter=value' format");
-
-    setType(matcher.group(1));
-    setSubType(matcher.group(2));
-    String params = matcher.group(3);
-    if (params != null) {
-      matcher = PARAMETER_REGEX.matcher(params);
-      while (matcher.find()) {
-        // 1=key, 2=valueWithQuotes, 3=valueWithoutQuotes
-        String key = matcher.group(1);
-        String value = matcher.group(3);
-        if (value == null) {
-          value = matcher.group(2);
-        }
-        setParameter(key, value);
-      }
-    }
-    return this;
-  }
-
   /**
    * Sets the media parameter to the specified value.
    *
@@ -206,8 +127,7 @@ public final class HttpMediaType {
       return this;
     }
 
-    Preconditions.checkArgument(
-        TOKEN_REGEX.matcher(name).matches(), "Name contains reserved characters");
+    Preconditions.checkArgument(matchesToken(name), "Name contains reserved characters");
     cachedBuildResult = null;
     parameters.put(name.toLowerCase(Locale.US), value);
     return this;
@@ -248,11 +168,40 @@ public final class HttpMediaType {
   }
 
   /**
-   * Returns whether the given value matches the regular expression for "token" as specified in <a
-   * href="http://tools.ietf.org/html/rfc2616#section-2.2">RFC 2616 section 2.2</a>.
+   * Returns whether the given value is a valid type or {@code '*'}, as specified in <a
+   * href="http://tools.ietf.org/html/rfc4288#section-4.2">RFC 4288 section 4.2</a>.
+   */
+  static boolean matchesType(String value) {
+    if (value.equals("*")) {
+      return true;
+    }
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (!(c >= 'a' && c <= 'z'
+          || c >= 'A' && c <= 'Z'
+          || c >= '0' && c <= '9'
+          || "!#$&.+-^_".indexOf(c) >= 0)) {
+        return false;
+      }
+    }
+    return length > 0;
+  }
+
+  /**
+   * Returns whether the given value is a "token" as specified in <a
+   * href="http://tools.ietf.org/html/rfc2616#section-2.2">RFC 2616 section 2.2</a> and <a
+   * href="http://tools.ietf.org/html/rfc2045#section-5.1">RFC 2045 section 5.1</a>.
    */
   static boolean matchesToken(String value) {
-    return TOKEN_REGEX.matcher(value).matches();
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c <= ' ' || c >= 0x7f || ";/=[]()<>@,:\"?".indexOf(c) >= 0) {
+        return false;
+      }
+    }
+    return length > 0;
   }
 
   private static String quoteString(String unquotedString) {
@@ -304,11 +253,10 @@ public final class HttpMediaType {
    * both types are {@code null}.
    */
   public static boolean equalsIgnoreParameters(String mediaTypeA, String mediaTypeB) {
-    // TODO(mlinder): Make the HttpMediaType.isSameType implementation more performant.
     return (mediaTypeA == null && mediaTypeB == null)
         || mediaTypeA != null
             && mediaTypeB != null
-            && new HttpMediaType(mediaTypeA).equalsIgnoreParameters(new HttpMediaType(mediaTypeB));
+            && ParsedMediaType.of(mediaTypeA).equalsIgnoreParameters(ParsedMediaType.of(mediaTypeB));
   }
 
   /**
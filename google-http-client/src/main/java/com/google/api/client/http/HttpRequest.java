@@ -31,10 +31,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -101,6 +106,18 @@ public final class HttpRequest {
    */
   private HttpHeaders responseHeaders = new HttpHeaders();
 
+  /**
+   * Headers of the last response that are not yet parsed into {@link #responseHeaders}, or {@code
+   * null} for none.
+   */
+  private RawResponseHeaders pendingResponseHeaders;
+
+  /**
+   * Whether {@link #responseHeaders} was passed to or returned to the caller, who may read its
+   * fields directly, so that responses must parse their headers into it immediately.
+   */
+  private boolean responseHeadersShared;
+
   /**
    * The number of retries that will be allowed to execute before the request will be terminated or
    * {@code 0} to not retry requests. Retries occur as a result of either {@link
@@ -513,9 +530,20 @@ public final class HttpRequest {
   /**
    * Returns the HTTP response headers.
    *
+   * <p>The headers of a response are only parsed when they are first requested, and then all of
+   * them are parsed at once, even to read a single header. Parsing is therefore only skipped for
+   * responses whose headers are never requested. Once returned, the headers of later responses of
+   * this request are parsed immediately, since the caller may read their fields at any time.
+   *
    * @since 1.5
    */
   public HttpHeaders getResponseHeaders() {
+    responseHeadersShared = true;
+    RawResponseHeaders pending = pendingResponseHeaders;
+    if (pending != null) {
+      pendingResponseHeaders = null;
+      pending.parseInto(responseHeaders);
+    }
     return responseHeaders;
   }
 
@@ -540,9 +568,45 @@ public final class HttpRequest {
    */
   public HttpRequest setResponseHeaders(HttpHeaders responseHeaders) {
     this.responseHeaders = Preconditions.checkNotNull(responseHeaders);
+    responseHeadersShared = true;
+    pendingResponseHeaders = null;
     return this;
   }
 
+  /**
+   * Copies the headers of the given response, which are parsed into the {@link
+   * #getResponseHeaders() response headers} only once they are requested, unless the response
+   * headers are already in the hands of the caller.
+   *
+   * @param response low-level response
+   * @param logger {@link StringBuilder} to which logging output is added or {@code null} to disable
+   *     logging
+   * @return copied headers or {@code null} if they were parsed immediately
+   */
+  RawResponseHeaders readResponseHeaders(LowLevelHttpResponse response, StringBuilder logger)
+      throws IOException {
+    if (responseHeadersShared) {
+      pendingResponseHeaders = null;
+      responseHeaders.fromHttpResponse(response, logger);
+      return null;
+    }
+    RawResponseHeaders headers = new RawResponseHeaders(response);
+    if (logger != null) {
+      headers.log(logger);
+    }
+    pendingResponseHeaders = headers;
+    return headers;
+  }
+
+  /**
+   * Returns the {@code "Location"} header of the response or {@code null} for none, without parsing
+   * the response headers if they are not parsed yet.
+   */
+  String getResponseLocation() {
+    RawResponseHeaders pending = pendingResponseHeaders;
+    return pending != null ? pending.getFirstValue("Location") : responseHeaders.getLocation();
+  }
+
   /**
    * Returns the HTTP request execute interceptor to intercept the start of {@link #execute()}
    * (before executing the HTTP request) or {@code null} for none.
@@ -847,25 +911,228 @@ public final class HttpRequest {
    */
   @SuppressWarnings("deprecation")
   public HttpResponse execute() throws IOException {
-    boolean retryRequest = false;
-    Preconditions.checkArgument(numRetries >= 0);
-    int retriesRemaining = numRetries;
-    if (backOffPolicy != null) {
-      // Reset the BackOffPolicy at the start of each execute.
-      backOffPolicy.reset();
+    Execution execution = new Execution();
+    while (true) {
+      LowLevelHttpRequest lowLevelHttpRequest = execution.prepareAttempt();
+      // switch tracing scope to current span
+      @SuppressWarnings("MustBeClosedChecker")
+      Scope ws = tracer.withSpan(execution.span);
+      try {
+        execution.onLowLevelResponse(lowLevelHttpRequest.execute());
+      } catch (IOException e) {
+        execution.onLowLevelFailure(e);
+      } finally {
+        ws.close();
+      }
+      if (!execution.processAttempt()) {
+        return execution.complete();
+      }
+      if (execution.backOffMillis != BackOffPolicy.STOP) {
+        try {
+          sleeper.sleep(execution.backOffMillis);
+        } catch (InterruptedException exception) {
+          // ignore
+        }
+      }
+    }
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Executes this request asynchronously in a single separate thread using the supplied executor.
+   *
+   * <p>The thread is blocked for the whole execution, including back off between retries. Prefer
+   * {@link #sendAsync(Executor)}, which only uses threads while there is work to do.
+   *
+   * @param executor executor to run the asynchronous request
+   * @return future for accessing the HTTP response
+   * @since 1.13
+   */
+  @Beta
+  public Future<HttpResponse> executeAsync(Executor executor) {
+    FutureTask<HttpResponse> future =
+        new FutureTask<HttpResponse>(
+            new Callable<HttpResponse>() {
+
+              public HttpResponse call() throws Exception {
+                return execute();
+              }
+            });
+    executor.execute(future);
+    return future;
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Executes this request asynchronously using {@link #executeAsync(Executor)} in a single separate
+   * thread using {@link Executors#newFixedThreadPool(int)}.
+   *
+   * @return A future for accessing the results of the asynchronous request.
+   * @since 1.13
+   */
+  @Beta
+  public Future<HttpResponse> executeAsync() {
+    return executeAsync(
+        Executors.newFixedThreadPool(1, new ThreadFactoryBuilder().setDaemon(true).build()));
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Executes this request without blocking a thread while waiting for the server, with the same
+   * retry, back off, redirect and interceptor behavior as {@link #execute()}.
+   *
+   * <p>Each attempt is built and started on the given executor using {@link
+   * LowLevelHttpRequest#executeAsync()}, and the response is processed on that executor as well, so
+   * interceptors and handlers never run on the I/O threads of the transport. With a transport that
+   * executes requests asynchronously, a thread is only held while building the request, writing
+   * its content and processing the response. Back off between retries is scheduled instead of
+   * slept, so the {@link #getSleeper() sleeper} is not used; handlers that sleep themselves, such
+   * as {@link HttpBackOffUnsuccessfulResponseHandler}, still block an executor thread.
+   *
+   * <p>The executor must allow its threads to block, since writing the content and handlers may
+   * block, so it should not be {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+   *
+   * <p>The returned future completes with the same response, or fails with the same exception, as
+   * {@link #execute()} would return or throw. This request must not be modified until it
+   * completes.
+   *
+   * @param executor executor to build requests and process responses on
+   * @return future for the HTTP response
+   * @since 1.44
+   */
+  @Beta
+  public CompletableFuture<HttpResponse> sendAsync(Executor executor) {
+    Preconditions.checkNotNull(executor);
+    CompletableFuture<HttpResponse> result = new CompletableFuture<HttpResponse>();
+    try {
+      startAttempt(new Execution(), executor, result);
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  /** Schedules the next attempt of an asynchronous execution on the executor. */
+  private void startAttempt(
+      final Execution execution,
+      final Executor executor,
+      final CompletableFuture<HttpResponse> result) {
+    executor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            CompletionStage<LowLevelHttpResponse> stage;
+            try {
+              LowLevelHttpRequest lowLevelHttpRequest = execution.prepareAttempt();
+              @SuppressWarnings("MustBeClosedChecker")
+              Scope ws = tracer.withSpan(execution.span);
+              try {
+                stage = lowLevelHttpRequest.executeAsync();
+              } finally {
+                ws.close();
+              }
+            } catch (Throwable e) {
+              result.completeExceptionally(e);
+              return;
+            }
+            stage.whenCompleteAsync(
+                new BiConsumer<LowLevelHttpResponse, Throwable>() {
+                  @Override
+                  public void accept(LowLevelHttpResponse lowLevelHttpResponse, Throwable error) {
+                    completeAttempt(execution, executor, result, lowLevelHttpResponse, error);
+                  }
+                },
+                executor);
+          }
+        });
+  }
+
+  /** Processes the outcome of an attempt of an asynchronous execution. */
+  private void completeAttempt(
+      Execution execution,
+      Executor executor,
+      CompletableFuture<HttpResponse> result,
+      LowLevelHttpResponse lowLevelHttpResponse,
+      Throwable error) {
+    try {
+      if (error instanceof CompletionException && error.getCause() != null) {
+        error = error.getCause();
+      }
+      if (error == null) {
+        execution.onLowLevelResponse(lowLevelHttpResponse);
+      } else if (error instanceof IOException) {
+        execution.onLowLevelFailure((IOException) error);
+      } else {
+        // like in execute(), only I/O failures are retried
+        result.completeExceptionally(error);
+        return;
+      }
+      if (!execution.processAttempt()) {
+        result.complete(execution.complete());
+      } else if (execution.backOffMillis > 0) {
+        startAttempt(
+            execution,
+            CompletableFuture.delayedExecutor(
+                execution.backOffMillis, TimeUnit.MILLISECONDS, executor),
+            result);
+      } else {
+        startAttempt(execution, executor, result);
+      }
+    } catch (Throwable e) {
+      result.completeExceptionally(e);
     }
-    HttpResponse response = null;
-    IOException executeException;
-
-    Preconditions.checkNotNull(requestMethod);
-    Preconditions.checkNotNull(url);
-
-    Span span =
-        tracer
-            .spanBuilder(OpenCensusUtils.SPAN_NAME_HTTP_REQUEST_EXECUTE)
-            .setRecordEvents(OpenCensusUtils.isRecordEvent())
-            .startSpan();
-    do {
+  }
+
+  /**
+   * State of a single {@link #execute()} or {@link #sendAsync(Executor)} call across its attempts.
+   */
+  @SuppressWarnings("deprecation")
+  private final class Execution {
+
+    /** Span of the whole execution. */
+    final Span span;
+
+    /** Number of retries remaining, {@code -1} once there are none. */
+    private int retriesRemaining;
+
+    /** Whether the current attempt may be retried. */
+    private boolean retryRequest;
+
+    /** Whether the current attempt is logged. */
+    private boolean loggable;
+
+    /** Response of the current attempt or {@code null} for none. */
+    private HttpResponse response;
+
+    /** Failure of the current attempt or {@code null} for none. */
+    private IOException executeException;
+
+    /**
+     * Time in milliseconds to back off before the next attempt or {@link BackOffPolicy#STOP} if the
+     * back off policy was not consulted.
+     */
+    long backOffMillis;
+
+    Execution() {
+      Preconditions.checkArgument(numRetries >= 0);
+      retriesRemaining = numRetries;
+      if (backOffPolicy != null) {
+        // Reset the BackOffPolicy at the start of each execute.
+        backOffPolicy.reset();
+      }
+
+      Preconditions.checkNotNull(requestMethod);
+      Preconditions.checkNotNull(url);
+
+      span =
+          tracer
+              .spanBuilder(OpenCensusUtils.SPAN_NAME_HTTP_REQUEST_EXECUTE)
+              .setRecordEvents(OpenCensusUtils.isRecordEvent())
+              .startSpan();
+    }
+
+    /** Runs the interceptor and builds the low-level request of the next attempt. */
+    LowLevelHttpRequest prepareAttempt() throws IOException {
       span.addAnnotation("retry #" + (numRetries - retriesRemaining));
       // Cleanup any unneeded response from a previous iteration
       if (response != null) {
@@ -874,10 +1141,11 @@ public final class HttpRequest {
 
       response = null;
       executeException = null;
+      backOffMillis = BackOffPolicy.STOP;
 
       // run the interceptor
       if (executeInterceptor != null) {
-        executeInterceptor.intercept(this);
+        executeInterceptor.intercept(HttpRequest.this);
       }
       // build low-level HTTP request
       String urlString = url.build();
@@ -888,7 +1156,7 @@ public final class HttpRequest {
 
       LowLevelHttpRequest lowLevelHttpRequest = transport.buildRequest(requestMethod, urlString);
       Logger logger = HttpTransport.LOGGER;
-      boolean loggable = loggingEnabled && logger.isLoggable(Level.CONFIG);
+      loggable = loggingEnabled && logger.isLoggable(Level.CONFIG);
       StringBuilder logbuf = null;
       StringBuilder curlbuf = null;
       // log method and URL
@@ -1003,49 +1271,58 @@ public final class HttpRequest {
       // execute
       lowLevelHttpRequest.setTimeout(connectTimeout, readTimeout);
       lowLevelHttpRequest.setWriteTimeout(writeTimeout);
-
-      // switch tracing scope to current span
-      @SuppressWarnings("MustBeClosedChecker")
-      Scope ws = tracer.withSpan(span);
       OpenCensusUtils.recordSentMessageEvent(span, lowLevelHttpRequest.getContentLength());
+      return lowLevelHttpRequest;
+    }
+
+    /** Wraps the low-level response of the current attempt. */
+    void onLowLevelResponse(LowLevelHttpResponse lowLevelHttpResponse) throws IOException {
+      if (lowLevelHttpResponse != null) {
+        OpenCensusUtils.recordReceivedMessageEvent(span, lowLevelHttpResponse.getContentLength());
+        span.putAttribute(
+            HttpTraceAttributeConstants.HTTP_STATUS_CODE,
+            AttributeValue.longAttributeValue(lowLevelHttpResponse.getStatusCode()));
+      }
+      // Flag used to indicate if an exception is thrown before the response is constructed.
+      boolean responseConstructed = false;
       try {
-        LowLevelHttpResponse lowLevelHttpResponse = lowLevelHttpRequest.execute();
-        if (lowLevelHttpResponse != null) {
-          OpenCensusUtils.recordReceivedMessageEvent(span, lowLevelHttpResponse.getContentLength());
-          span.putAttribute(
-              HttpTraceAttributeConstants.HTTP_STATUS_CODE,
-              AttributeValue.longAttributeValue(lowLevelHttpResponse.getStatusCode()));
-        }
-        // Flag used to indicate if an exception is thrown before the response is constructed.
-        boolean responseConstructed = false;
-        try {
-          response = new HttpResponse(this, lowLevelHttpResponse);
-          responseConstructed = true;
-        } finally {
-          if (!responseConstructed) {
-            InputStream lowLevelContent = lowLevelHttpResponse.getContent();
-            if (lowLevelContent != null) {
-              lowLevelContent.close();
-            }
+        response = new HttpResponse(HttpRequest.this, lowLevelHttpResponse);
+        responseConstructed = true;
+      } finally {
+        if (!responseConstructed) {
+          InputStream lowLevelContent = lowLevelHttpResponse.getContent();
+          if (lowLevelContent != null) {
+            lowLevelContent.close();
           }
         }
-      } catch (IOException e) {
-        if (!retryOnExecuteIOException
-            && (ioExceptionHandler == null
-                || !ioExceptionHandler.handleIOException(this, retryRequest))) {
-          // static analysis shows response is always null here
-          span.end(OpenCensusUtils.getEndSpanOptions(null));
-          throw e;
-        }
-        // Save the exception in case the retries do not work and we need to re-throw it later.
-        executeException = e;
-        if (loggable) {
-          logger.log(Level.WARNING, "exception thrown while executing request", e);
-        }
-      } finally {
-        ws.close();
       }
+    }
+
+    /**
+     * Records the I/O failure of the current attempt, rethrowing it unless it may be retried.
+     */
+    void onLowLevelFailure(IOException e) throws IOException {
+      if (!retryOnExecuteIOException
+          && (ioExceptionHandler == null
+              || !ioExceptionHandler.handleIOException(HttpRequest.this, retryRequest))) {
+        // static analysis shows response is always null here
+        span.end(OpenCensusUtils.getEndSpanOptions(null));
+        throw e;
+      }
+      // Save the exception in case the retries do not work and we need to re-throw it later.
+      executeException = e;
+      if (loggable) {
+        HttpTransport.LOGGER.log(Level.WARNING, "exception thrown while executing request", e);
+      }
+    }
 
+    /**
+     * Runs the response handlers on the outcome of the current attempt.
+     *
+     * @return whether to retry, after backing off for {@link #backOffMillis} if it is not {@link
+     *     BackOffPolicy#STOP}
+     */
+    boolean processAttempt() throws IOException {
       // Flag used to indicate if an exception is thrown before the response has completed
       // processing.
       boolean responseProcessed = false;
@@ -1056,10 +1333,12 @@ public final class HttpRequest {
             // Even if we don't have the potential to retry, we might want to run the
             // handler to fix conditions (like expired tokens) that might cause us
             // trouble on our next request
-            errorHandled = unsuccessfulResponseHandler.handleResponse(this, response, retryRequest);
+            errorHandled =
+                unsuccessfulResponseHandler.handleResponse(HttpRequest.this, response, retryRequest);
           }
           if (!errorHandled) {
-            if (handleRedirect(response.getStatusCode(), response.getHeaders())) {
+            // the location is read without parsing the headers for the caller
+            if (handleRedirect(response.getStatusCode(), getResponseLocation())) {
               // The unsuccessful request's error could not be handled and it is a redirect request.
               errorHandled = true;
             } else if (retryRequest
@@ -1069,11 +1348,7 @@ public final class HttpRequest {
               // before retrying
               long backOffTime = backOffPolicy.getNextBackOffMillis();
               if (backOffTime != BackOffPolicy.STOP) {
-                try {
-                  sleeper.sleep(backOffTime);
-                } catch (InterruptedException exception) {
-                  // ignore
-                }
+                backOffMillis = backOffTime;
                 errorHandled = true;
               }
             }
@@ -1099,64 +1374,34 @@ public final class HttpRequest {
           response.disconnect();
         }
       }
-    } while (retryRequest);
-    span.end(OpenCensusUtils.getEndSpanOptions(response == null ? null : response.getStatusCode()));
-
-    if (response == null) {
-      // Retries did not help resolve the execute exception, re-throw it.
-      throw executeException;
-    }
-    // response interceptor
-    if (responseInterceptor != null) {
-      responseInterceptor.interceptResponse(response);
+      return retryRequest;
     }
-    // throw an exception if unsuccessful response
-    if (throwExceptionOnExecuteError && !response.isSuccessStatusCode()) {
-      try {
-        throw new HttpResponseException.Builder(response)
-            .setAttemptCount(numRetries - retriesRemaining)
-            .build();
-      } finally {
-        response.disconnect();
-      }
-    }
-    return response;
-  }
 
-  /**
-   * {@link Beta} <br>
-   * Executes this request asynchronously in a single separate thread using the supplied executor.
-   *
-   * @param executor executor to run the asynchronous request
-   * @return future for accessing the HTTP response
-   * @since 1.13
-   */
-  @Beta
-  public Future<HttpResponse> executeAsync(Executor executor) {
-    FutureTask<HttpResponse> future =
-        new FutureTask<HttpResponse>(
-            new Callable<HttpResponse>() {
-
-              public HttpResponse call() throws Exception {
-                return execute();
-              }
-            });
-    executor.execute(future);
-    return future;
-  }
+    /** Ends the execution with the response of the last attempt. */
+    HttpResponse complete() throws IOException {
+      span.end(
+          OpenCensusUtils.getEndSpanOptions(response == null ? null : response.getStatusCode()));
 
-  /**
-   * {@link Beta} <br>
-   * Executes this request asynchronously using {@link #executeAsync(Executor)} in a single separate
-   * thread using {@link Executors#newFixedThreadPool(int)}.
-   *
-   * @return A future for accessing the results of the asynchronous request.
-   * @since 1.13
-   */
-  @Beta
-  public Future<HttpResponse> executeAsync() {
-    return executeAsync(
-        Executors.newFixedThreadPool(1, new ThreadFactoryBuilder().setDaemon(true).build()));
+      if (response == null) {
+        // Retries did not help resolve the execute exception, re-throw it.
+        throw executeException;
+      }
+      // response interceptor
+      if (responseInterceptor != null) {
+        responseInterceptor.interceptResponse(response);
+      }
+      // throw an exception if unsuccessful response
+      if (throwExceptionOnExecuteError && !response.isSuccessStatusCode()) {
+        try {
+          throw new HttpResponseException.Builder(response)
+              .setAttemptCount(numRetries - retriesRemaining)
+              .build();
+        } finally {
+          response.disconnect();
+        }
+      }
+      return response;
+    }
   }
 
   /**
@@ -1175,7 +1420,11 @@ public final class HttpRequest {
    * @since 1.11
    */
   public boolean handleRedirect(int statusCode, HttpHeaders responseHeaders) {
-    String redirectLocation = responseHeaders.getLocation();
+    return handleRedirect(statusCode, responseHeaders.getLocation());
+  }
+
+  /** Handles a redirect to the given location, which is {@code null} for none. */
+  private boolean handleRedirect(int statusCode, String redirectLocation) {
     if (getFollowRedirects()
         && HttpStatusCodes.isRedirect(statusCode)
         && redirectLocation != null) {
@@ -18,7 +18,6 @@ import com.google.api.client.util.IOUtils;
 import com.google.api.client.util.LoggingInputStream;
 import com.google.api.client.util.Preconditions;
 import com.google.api.client.util.StringUtils;
-import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
@@ -63,8 +62,17 @@ public final class HttpResponse {
   /** Content type or {@code null} for none. */
   private final String contentType;
 
-  /** Parsed content-type/media type or {@code null} if content-type is null. */
-  private final HttpMediaType mediaType;
+  /**
+   * Shared parsed content-type/media type or {@code null} if content-type is null or cannot be
+   * parsed.
+   */
+  private final ParsedMediaType parsedMediaType;
+
+  /**
+   * Copy of {@link #parsedMediaType} returned by {@link #getMediaType()}, which the caller may
+   * modify, or {@code null} if not requested yet.
+   */
+  private HttpMediaType mediaType;
 
   /** Low-level HTTP response. */
   LowLevelHttpResponse response;
@@ -141,16 +149,20 @@ public final class HttpResponse {
     }
 
     // headers
-    request.getResponseHeaders().fromHttpResponse(response, loggable ? logbuf : null);
+    RawResponseHeaders rawHeaders =
+        request.readResponseHeaders(response, loggable ? logbuf : null);
 
     // Retrieve the content-type directly from the headers as response.getContentType() is outdated
     // and e.g. not set by BatchUnparsedResponse.FakeLowLevelHttpResponse
     String contentType = response.getContentType();
     if (contentType == null) {
-      contentType = request.getResponseHeaders().getContentType();
+      contentType =
+          rawHeaders != null
+              ? rawHeaders.getFirstValue("Content-Type")
+              : request.getResponseHeaders().getContentType();
     }
     this.contentType = contentType;
-    this.mediaType = parseMediaType(contentType);
+    this.parsedMediaType = parseMediaType(contentType);
 
     // log from buffer
     if (loggable) {
@@ -159,15 +171,15 @@ public final class HttpResponse {
   }
 
   /**
-   * Returns an {@link HttpMediaType} object parsed from {@link #contentType}, or {@code null} if if
+   * Returns a {@link ParsedMediaType} object parsed from {@link #contentType}, or {@code null} if
    * {@link #contentType} cannot be parsed or {@link #contentType} is {@code null}.
    */
-  private static HttpMediaType parseMediaType(String contentType) {
+  private static ParsedMediaType parseMediaType(String contentType) {
     if (contentType == null) {
       return null;
     }
     try {
-      return new HttpMediaType(contentType);
+      return ParsedMediaType.of(contentType);
     } catch (IllegalArgumentException e) {
       // contentType is invalid and cannot be parsed.
       return null;
@@ -261,12 +273,17 @@ public final class HttpResponse {
    * @since 1.10
    */
   public HttpMediaType getMediaType() {
+    if (mediaType == null && parsedMediaType != null) {
+      mediaType = HttpMediaType.copyOf(parsedMediaType);
+    }
     return mediaType;
   }
 
   /**
    * Returns the HTTP response headers.
    *
+   * <p>All the headers are parsed on the first call, see {@link HttpRequest#getResponseHeaders()}.
+   *
    * @since 1.5
    */
   public HttpHeaders getHeaders() {
@@ -375,8 +392,9 @@ public final class HttpResponse {
             content = lowLevelResponseContent;
           } else {
             // wrap the content with BufferedInputStream to support
-            // mark()/reset() while error checking in error handlers
-            content = new BufferedInputStream(lowLevelResponseContent);
+            // mark()/reset() while error checking in error handlers, without copying block reads
+            // of parsers that buffer the content themselves
+            content = new ContentInputStream(lowLevelResponseContent);
           }
           contentProcessed = true;
         } catch (EOFException e) {
@@ -522,20 +540,33 @@ public final class HttpResponse {
    */
   public Charset getContentCharset() {
     if (mediaType != null) {
-      // use specified charset parameter from content/type header if available
-      if (mediaType.getCharsetParameter() != null) {
-        return mediaType.getCharsetParameter();
-      }
-      // fallback to well-known charsets
-      if ("application".equals(mediaType.getType()) && "json".equals(mediaType.getSubType())) {
-        // https://tools.ietf.org/html/rfc4627 - JSON must be encoded with UTF-8
-        return StandardCharsets.UTF_8;
-      }
-      // fallback to well-kown charset for text/csv
-      if ("text".equals(mediaType.getType()) && "csv".equals(mediaType.getSubType())) {
-        // https://www.iana.org/assignments/media-types/text/csv - CSV must be encoded with UTF-8
-        return StandardCharsets.UTF_8;
-      }
+      // the caller may have modified the media type
+      return getContentCharset(
+          mediaType.getType(), mediaType.getSubType(), mediaType.getCharsetParameter());
+    }
+    if (parsedMediaType != null) {
+      return getContentCharset(
+          parsedMediaType.getType(),
+          parsedMediaType.getSubType(),
+          parsedMediaType.getCharsetParameter());
+    }
+    return StandardCharsets.ISO_8859_1;
+  }
+
+  private static Charset getContentCharset(String type, String subType, Charset charset) {
+    // use specified charset parameter from content/type header if available
+    if (charset != null) {
+      return charset;
+    }
+    // fallback to well-known charsets
+    if ("application".equals(type) && "json".equals(subType)) {
+      // https://tools.ietf.org/html/rfc4627 - JSON must be encoded with UTF-8
+      return StandardCharsets.UTF_8;
+    }
+    // fallback to well-kown charset for text/csv
+    if ("text".equals(type) && "csv".equals(subType)) {
+      // https://www.iana.org/assignments/media-types/text/csv - CSV must be encoded with UTF-8
+      return StandardCharsets.UTF_8;
     }
     return StandardCharsets.ISO_8859_1;
   }
@@ -16,6 +16,8 @@ package com.google.api.client.http;
 
 import com.google.api.client.util.StreamingContent;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Low-level HTTP request.
@@ -160,4 +162,26 @@ public abstract class LowLevelHttpRequest {
 
   /** Executes the request and returns a low-level HTTP response object. */
   public abstract LowLevelHttpResponse execute() throws IOException;
+
+  /**
+   * Executes the request and returns a stage that completes with the low-level HTTP response
+   * object, or with the {@link IOException} that {@link #execute()} would throw.
+   *
+   * <p>Default implementation calls {@link #execute()} on the calling thread and returns a completed
+   * stage. Transports based on non-blocking I/O should override it to return as soon as the request
+   * has been sent, without holding the calling thread while waiting for the response. The request
+   * content, if any, may still be written on the calling thread, and the stage may be completed on
+   * an I/O thread of the transport.
+   *
+   * @since 1.44
+   */
+  public CompletionStage<LowLevelHttpResponse> executeAsync() {
+    CompletableFuture<LowLevelHttpResponse> future = new CompletableFuture<LowLevelHttpResponse>();
+    try {
+      future.complete(execute());
+    } catch (IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http;
+
+import com.google.api.client.util.Preconditions;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable media type parsed from a Content-Type string, which {@link HttpMediaType} copies and
+ * {@link HttpResponse} reads without copying.
+ *
+ * <p>The parser accepts exactly the strings of the former regular expressions of {@link
+ * HttpMediaType}: a main type and a sub type separated by {@code '/'}, optionally followed by a
+ * parameter section starting with {@code ';'} in which each {@code "; key=value"} or {@code
+ * "; key=\"quoted value\""} is a parameter and anything else is skipped.
+ *
+ * <p>Parsed media types are cached by their string, since responses repeat the same few
+ * Content-Type values. The cache is cleared when it reaches {@link #MAX_CACHE_SIZE} entries, and
+ * strings longer than {@link #MAX_CACHED_LENGTH} are not cached.
+ *
+ * <p>Implementation is thread-safe.
+ */
+final class ParsedMediaType {
+
+  /** Maximum number of cached media types. */
+  static final int MAX_CACHE_SIZE = 256;
+
+  /** Maximum length of a cached media type string. */
+  static final int MAX_CACHED_LENGTH = 256;
+
+  private static final ConcurrentHashMap<String, ParsedMediaType> CACHE =
+      new ConcurrentHashMap<String, ParsedMediaType>();
+
+  /** The main type of the media type, for example {@code "text"}. */
+  private final String type;
+
+  /** The sub type of the media type, for example {@code "plain"}. */
+  private final String subType;
+
+  /** Unmodifiable parameters with lower-case names. */
+  private final SortedMap<String, String> parameters;
+
+  /** Charset of the charset parameter or {@code null} if unset or not resolved yet. */
+  private volatile Charset charset;
+
+  private ParsedMediaType(String type, String subType, SortedMap<String, String> parameters) {
+    this.type = type;
+    this.subType = subType;
+    this.parameters = parameters;
+  }
+
+  /**
+   * Returns the parsed media type of the given string.
+   *
+   * @param mediaType full media type string, for example {@code "text/plain; charset=utf-8"}
+   * @throws IllegalArgumentException if the string is not a valid media type
+   */
+  static ParsedMediaType of(String mediaType) {
+    ParsedMediaType result = CACHE.get(mediaType);
+    if (result == null) {
+      result = parse(mediaType);
+      if (mediaType.length() <= MAX_CACHED_LENGTH) {
+        if (CACHE.size() >= MAX_CACHE_SIZE) {
+          CACHE.clear();
+        }
+        CACHE.put(mediaType, result);
+      }
+    }
+    return result;
+  }
+
+  /** Returns the main media type, for example {@code "text"}. */
+  String getType() {
+    return type;
+  }
+
+  /** Returns the sub media type, for example {@code "plain"}. */
+  String getSubType() {
+    return subType;
+  }
+
+  /** Returns the unmodifiable parameters, whose names are lower-case. */
+  SortedMap<String, String> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Returns the charset of the charset parameter or {@code null} if unset.
+   *
+   * @throws IllegalArgumentException if the charset is not supported
+   */
+  Charset getCharsetParameter() {
+    Charset result = charset;
+    if (result == null) {
+      String value = parameters.get("charset");
+      if (value == null) {
+        return null;
+      }
+      result = Charset.forName(value);
+      charset = result;
+    }
+    return result;
+  }
+
+  /** Returns whether both media types have the same type and sub type, ignoring case. */
+  boolean equalsIgnoreParameters(ParsedMediaType other) {
+    return type.equalsIgnoreCase(other.type) && subType.equalsIgnoreCase(other.subType);
+  }
+
+  private static ParsedMediaType parse(String mediaType) {
+    int length = mediaType.length();
+    int index = skipWhitespace(mediaType, 0);
+    int typeEnd = skipTypeOrKey(mediaType, index);
+    int subTypeEnd = -1;
+    if (typeEnd > index && typeEnd < length && mediaType.charAt(typeEnd) == '/') {
+      subTypeEnd = skipTypeOrKey(mediaType, typeEnd + 1);
+    }
+    Preconditions.checkArgument(
+        subTypeEnd > typeEnd + 1,
+        "Type must be in the 'maintype/subtype; parameter=value' format");
+    int parametersStart = skipWhitespace(mediaType, subTypeEnd);
+    Preconditions.checkArgument(
+        parametersStart == length || mediaType.charAt(parametersStart) == ';',
+        "Type must be in the 'maintype/subtype; parameter=value' format");
+
+    String type = mediaType.substring(index, typeEnd);
+    Preconditions.checkArgument(
+        HttpMediaType.matchesType(type), "Type contains reserved characters");
+    String subType = mediaType.substring(typeEnd + 1, subTypeEnd);
+    Preconditions.checkArgument(
+        HttpMediaType.matchesType(subType), "Subtype contains reserved characters");
+
+    TreeMap<String, String> parameters = new TreeMap<String, String>();
+    index = parametersStart;
+    while (index < length) {
+      // each parameter starts at the next ';'
+      int separator = mediaType.indexOf(';', index);
+      if (separator < 0) {
+        break;
+      }
+      index = separator + 1;
+      int keyStart = skipWhitespace(mediaType, index);
+      int keyEnd = skipTypeOrKey(mediaType, keyStart);
+      if (keyEnd == keyStart || keyEnd == length || mediaType.charAt(keyEnd) != '=') {
+        continue;
+      }
+      int valueStart = keyEnd + 1;
+      String value;
+      int closingQuote =
+          valueStart < length && mediaType.charAt(valueStart) == '"'
+              ? mediaType.indexOf('"', valueStart + 1)
+              : -1;
+      if (closingQuote >= 0) {
+        value = mediaType.substring(valueStart + 1, closingQuote);
+        index = closingQuote + 1;
+      } else {
+        index = valueStart;
+        while (index < length && !isUnquotedValueDelimiter(mediaType.charAt(index))) {
+          index++;
+        }
+        value = mediaType.substring(valueStart, index);
+      }
+      String key = mediaType.substring(keyStart, keyEnd);
+      Preconditions.checkArgument(
+          HttpMediaType.matchesToken(key), "Name contains reserved characters");
+      parameters.put(key.toLowerCase(Locale.US), value);
+    }
+    return new ParsedMediaType(type, subType, Collections.unmodifiableSortedMap(parameters));
+  }
+
+  /** Returns the index of the first character at or after the given index that is not a space. */
+  private static int skipWhitespace(String value, int index) {
+    while (index < value.length() && isWhitespace(value.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Returns the index of the first separator at or after the given index of a type, sub type or
+   * parameter key, which may contain any character other than spaces, {@code '/'}, {@code '='},
+   * {@code ';'} and {@code '"'}.
+   */
+  private static int skipTypeOrKey(String value, int index) {
+    while (index < value.length()) {
+      char c = value.charAt(index);
+      if (isWhitespace(c) || c == '/' || c == '=' || c == ';' || c == '"') {
+        break;
+      }
+      index++;
+    }
+    return index;
+  }
+
+  private static boolean isUnquotedValueDelimiter(char c) {
+    return isWhitespace(c) || c == ';' || c == '"';
+  }
+
+  /** Returns whether the character is a space as defined by {@code \s} of regular expressions. */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+}
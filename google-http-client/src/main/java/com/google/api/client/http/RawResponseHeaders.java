@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http;
+
+import com.google.api.client.util.StringUtils;
+import java.io.IOException;
+
+/**
+ * Names and values of the headers of a {@link LowLevelHttpResponse}, copied without parsing them
+ * into {@link HttpHeaders}, which {@link HttpRequest#getResponseHeaders()} defers until the headers
+ * are first requested.
+ *
+ * <p>Implementation is not thread-safe.
+ */
+final class RawResponseHeaders {
+
+  private final String[] names;
+
+  private final String[] values;
+
+  RawResponseHeaders(LowLevelHttpResponse response) throws IOException {
+    int headerCount = response.getHeaderCount();
+    names = new String[headerCount];
+    values = new String[headerCount];
+    for (int i = 0; i < headerCount; i++) {
+      names[i] = response.getHeaderName(i);
+      values[i] = response.getHeaderValue(i);
+    }
+  }
+
+  /**
+   * Returns the value of the first header of the given case-insensitive name or {@code null} for
+   * none.
+   */
+  String getFirstValue(String name) {
+    for (int i = 0; i < names.length; i++) {
+      if (name.equalsIgnoreCase(names[i])) {
+        return values[i];
+      }
+    }
+    return null;
+  }
+
+  /** Appends the headers to the given logging output in the format of {@link HttpHeaders}. */
+  void log(StringBuilder logger) {
+    for (int i = 0; i < names.length; i++) {
+      logger.append(names[i]).append(": ").append(values[i]).append(StringUtils.LINE_SEPARATOR);
+    }
+  }
+
+  /** Clears the given headers and parses these headers into them. */
+  void parseInto(HttpHeaders headers) {
+    headers.fromHeaderValues(names, values);
+  }
+}
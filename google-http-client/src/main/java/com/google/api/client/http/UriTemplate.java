@@ -14,17 +14,23 @@
 
 package com.google.api.client.http;
 
+import com.google.api.client.util.Beta;
+import com.google.api.client.util.ClassInfo;
 import com.google.api.client.util.Data;
 import com.google.api.client.util.FieldInfo;
+import com.google.api.client.util.GenericData;
 import com.google.api.client.util.Preconditions;
-import com.google.api.client.util.Types;
 import com.google.api.client.util.escape.CharEscapers;
 import com.google.common.base.Splitter;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.RandomAccess;
 
 /**
  * Expands URI Templates.
@@ -290,26 +296,7 @@ public class UriTemplate {
           pathBuf.append(compositeOutput.getOutputPrefix());
           isFirstParameter = false;
         }
-        if (value instanceof Iterator<?>) {
-          // Get the list property value.
-          Iterator<?> iterator = (Iterator<?>) value;
-          value = getListPropertyValue(varName, iterator, containsExplodeModifier, compositeOutput);
-        } else if (value instanceof Iterable<?> || value.getClass().isArray()) {
-          // Get the list property value.
-          Iterator<?> iterator = Types.iterableOf(value).iterator();
-          value = getListPropertyValue(varName, iterator, containsExplodeModifier, compositeOutput);
-        } else if (value.getClass().isEnum()) {
-          String name = FieldInfo.of((Enum<?>) value).getName();
-          value = getSimpleValue(varName, name != null ? name : value.toString(), compositeOutput);
-        } else if (!Data.isValueOfPrimitiveType(value)) {
-          // Parse the value as a key/value map.
-          Map<String, Object> map = getMap(value);
-          value = getMapPropertyValue(varName, map, containsExplodeModifier, compositeOutput);
-        } else {
-          // For everything else...
-          value = getSimpleValue(varName, value.toString(), compositeOutput);
-        }
-        pathBuf.append(value);
+        appendValue(pathBuf, varName, value, containsExplodeModifier, compositeOutput);
       }
     }
     if (addUnusedParamsAsQueryParams) {
@@ -319,77 +306,490 @@ public class UriTemplate {
     return pathBuf.toString();
   }
 
-  private static String getSimpleValue(String name, String value, CompositeOutput compositeOutput) {
+  /**
+   * {@link Beta} <br>
+   * Compiles a URI template that is relative to a base URL, as expanded by {@link #expand(String,
+   * String, Object, boolean)}.
+   *
+   * @param baseUrl The base URL which the URI component is relative to.
+   * @param uriTemplate URI component. It may contain one or more sequences of the form "{name}".
+   * @return compiled template
+   * @throws IllegalArgumentException if an expression of the template is not closed
+   * @since 1.44
+   */
+  @Beta
+  public static Compiled compile(String baseUrl, String uriTemplate) {
+    String pathUri;
+    if (uriTemplate.startsWith("/")) {
+      // Remove the base path from the base URL.
+      GenericUrl url = new GenericUrl(baseUrl);
+      url.setRawPath(null);
+      pathUri = url.build() + uriTemplate;
+    } else if (uriTemplate.startsWith("http://") || uriTemplate.startsWith("https://")) {
+      pathUri = uriTemplate;
+    } else {
+      pathUri = baseUrl + uriTemplate;
+    }
+    return compile(pathUri);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Compiles templates in a URI, as expanded by {@link #expand(String, Object, boolean)}.
+   *
+   * <p>Sample usage:
+   *
+   * <pre>{@code
+   * static final UriTemplate.Compiled GET_OBJECT =
+   *     UriTemplate.compile("https://storage.googleapis.com/storage/v1/b/{bucket}/o/{object}");
+   *
+   * String url = GET_OBJECT.expand(parameters, true);
+   * }</pre>
+   *
+   * @param pathUri URI component. It may contain one or more sequences of the form "{name}".
+   * @return compiled template
+   * @throws IllegalArgumentException if an expression of the template is not closed
+   * @since 1.44
+   */
+  @Beta
+  public static Compiled compile(String pathUri) {
+    List<String> literals = new ArrayList<String>();
+    List<Expression> expressions = new ArrayList<Expression>();
+    List<String> variableNames = new ArrayList<String>();
+    int cur = 0;
+    int length = pathUri.length();
+    while (cur < length) {
+      int next = pathUri.indexOf('{', cur);
+      if (next == -1) {
+        break;
+      }
+      literals.add(pathUri.substring(cur, next));
+      int close = pathUri.indexOf('}', next + 2);
+      Preconditions.checkArgument(close != -1, "expression not closed in URI template: %s", pathUri);
+      cur = close + 1;
+      String templates = pathUri.substring(next + 1, close);
+      CompositeOutput compositeOutput = getCompositeOutput(templates);
+      List<String> templateList = Splitter.on(',').splitToList(templates);
+      int size = templateList.size();
+      String[] varNames = new String[size];
+      boolean[] explodes = new boolean[size];
+      int[] variableIndexes = new int[size];
+      for (int i = 0; i < size; i++) {
+        String template = templateList.get(i);
+        explodes[i] = template.endsWith("*");
+        int varNameStartIndex = i == 0 ? compositeOutput.getVarNameStartIndex() : 0;
+        int varNameEndIndex = explodes[i] ? template.length() - 1 : template.length();
+        varNames[i] = template.substring(varNameStartIndex, varNameEndIndex);
+        if (variableNames.contains(varNames[i])) {
+          // the first reference of a variable consumes it
+          variableIndexes[i] = -1;
+        } else {
+          variableIndexes[i] = variableNames.size();
+          variableNames.add(varNames[i]);
+        }
+      }
+      expressions.add(new Expression(compositeOutput, varNames, explodes, variableIndexes));
+    }
+    literals.add(pathUri.substring(cur));
+    return new Compiled(
+        pathUri,
+        literals.toArray(new String[0]),
+        expressions.toArray(new Expression[0]),
+        variableNames.toArray(new String[0]));
+  }
+
+  /**
+   * {@link Beta} <br>
+   * URI template compiled by {@link UriTemplate#compile(String)} into literal segments and
+   * expressions, which expands its template exactly as {@link UriTemplate#expand(String, Object,
+   * boolean)} does, but without scanning the template again.
+   *
+   * <p>The values of a parameters object whose class is not a {@link Map} are read from its {@link
+   * com.google.api.client.util.Key} fields directly, and so are the fields of {@link GenericData},
+   * instead of copying them into a map first. Other maps are copied as by {@link #expand(String,
+   * Object, boolean)}.
+   *
+   * <p>Implementation is thread-safe.
+   *
+   * @since 1.44
+   */
+  @Beta
+  public static final class Compiled {
+
+    /** Template that was compiled. */
+    private final String template;
+
+    /** Literal segments, before each expression and after the last one. */
+    private final String[] literals;
+
+    private final Expression[] expressions;
+
+    /** Names of the variables in the order of their first reference. */
+    private final String[] variableNames;
+
+    /** Plan of the last class of parameters or {@code null} for none. */
+    private volatile ParameterPlan lastPlan;
+
+    Compiled(String template, String[] literals, Expression[] expressions, String[] variableNames) {
+      this.template = template;
+      this.literals = literals;
+      this.expressions = expressions;
+      this.variableNames = variableNames;
+    }
+
+    /**
+     * Expands the template.
+     *
+     * @param parameters an object with parameters designated by Key annotations. If the template
+     *     has no variable references, parameters may be {@code null}.
+     * @param addUnusedParamsAsQueryParams If true then parameters that do not match the template
+     *     are appended to the expanded template as query parameters.
+     * @return The expanded template
+     */
+    public String expand(Object parameters, boolean addUnusedParamsAsQueryParams) {
+      if (expressions.length == 0 && !addUnusedParamsAsQueryParams) {
+        return template;
+      }
+      StringBuilder buf = new StringBuilder(template.length() + 64);
+      expand(buf, parameters, addUnusedParamsAsQueryParams);
+      return buf.toString();
+    }
+
+    /**
+     * Expands the template into the given buffer.
+     *
+     * @param buf buffer to which the expanded template is appended
+     * @param parameters an object with parameters designated by Key annotations. If the template
+     *     has no variable references, parameters may be {@code null}.
+     * @param addUnusedParamsAsQueryParams If true then parameters that do not match the template
+     *     are appended to the expanded template as query parameters.
+     */
+    public void expand(
+        StringBuilder buf, Object parameters, boolean addUnusedParamsAsQueryParams) {
+      if (parameters != null && Data.isNull(parameters)) {
+        parameters = null;
+      }
+      ParameterPlan plan = null;
+      Map<String, Object> variableMap = null;
+      if (parameters != null) {
+        plan = getPlan(parameters.getClass());
+        if (!plan.readsFields(parameters)) {
+          plan = null;
+          variableMap = getMap(parameters);
+        }
+      }
+      for (int i = 0; i < expressions.length; i++) {
+        buf.append(literals[i]);
+        Expression expression = expressions[i];
+        CompositeOutput compositeOutput = expression.compositeOutput;
+        boolean isFirstParameter = true;
+        for (int j = 0; j < expression.varNames.length; j++) {
+          String varName = expression.varNames[j];
+          Object value;
+          if (variableMap != null) {
+            value = variableMap.remove(varName);
+          } else {
+            int variableIndex = expression.variableIndexes[j];
+            value =
+                plan == null || variableIndex == -1
+                    ? null
+                    : plan.getValue(parameters, variableIndex, varName);
+          }
+          if (value == null) {
+            // The value for this variable is undefined. continue with the next template.
+            continue;
+          }
+          if (!isFirstParameter) {
+            buf.append(compositeOutput.getExplodeJoiner());
+          } else {
+            buf.append(compositeOutput.getOutputPrefix());
+            isFirstParameter = false;
+          }
+          appendValue(buf, varName, value, expression.explodes[j], compositeOutput);
+        }
+      }
+      buf.append(literals[expressions.length]);
+      if (addUnusedParamsAsQueryParams) {
+        if (variableMap != null) {
+          GenericUrl.addQueryParams(variableMap.entrySet(), buf, false);
+        } else if (plan != null) {
+          plan.appendUnusedParameters(buf, parameters, variableNames);
+        }
+      }
+    }
+
+    /** Returns the template that was compiled. */
+    public String getTemplate() {
+      return template;
+    }
+
+    @Override
+    public String toString() {
+      return template;
+    }
+
+    private ParameterPlan getPlan(Class<?> type) {
+      ParameterPlan plan = lastPlan;
+      if (plan == null || plan.type != type) {
+        plan = new ParameterPlan(type, variableNames);
+        lastPlan = plan;
+      }
+      return plan;
+    }
+  }
+
+  /** Expression of a compiled template, for example {@code "{?fields,maxResults}"}. */
+  private static final class Expression {
+
+    final CompositeOutput compositeOutput;
+
+    /** Names of the variables. */
+    final String[] varNames;
+
+    /** Whether each variable has the explode modifier. */
+    final boolean[] explodes;
+
+    /**
+     * Index of each variable in the variable names of the template or {@code -1} for a variable
+     * that was already referenced, which is undefined.
+     */
+    final int[] variableIndexes;
+
+    Expression(
+        CompositeOutput compositeOutput,
+        String[] varNames,
+        boolean[] explodes,
+        int[] variableIndexes) {
+      this.compositeOutput = compositeOutput;
+      this.varNames = varNames;
+      this.explodes = explodes;
+      this.variableIndexes = variableIndexes;
+    }
+  }
+
+  /** Reads the variables of a compiled template from the fields of one class of parameters. */
+  private static final class ParameterPlan {
+
+    final Class<?> type;
+
+    /**
+     * Whether the class is a {@link Map} whose entries are not simply its fields and unknown keys,
+     * which is copied into a map instead.
+     */
+    private final boolean isMap;
+
+    /** Fields in the order of {@link ClassInfo#getNames()}. */
+    private final FieldInfo[] fieldInfos;
+
+    /** Index of the field of each variable of the template or {@code -1} for none. */
+    private final int[] variableFieldIndexes;
+
+    /** Whether each field is a variable of the template. */
+    private final boolean[] isVariableField;
+
+    ParameterPlan(Class<?> type, String[] variableNames) {
+      this.type = type;
+      boolean isMap = Map.class.isAssignableFrom(type);
+      if (GenericData.class.isAssignableFrom(type)) {
+        try {
+          isMap = type.getMethod("entrySet").getDeclaringClass() != GenericData.class;
+        } catch (NoSuchMethodException e) {
+          // not possible
+          throw new RuntimeException(e);
+        }
+      }
+      this.isMap = isMap;
+      if (isMap) {
+        fieldInfos = null;
+        variableFieldIndexes = null;
+        isVariableField = null;
+        return;
+      }
+      ClassInfo classInfo = ClassInfo.of(type);
+      List<String> names = new ArrayList<String>(classInfo.getNames());
+      fieldInfos = new FieldInfo[names.size()];
+      isVariableField = new boolean[names.size()];
+      for (int i = 0; i < fieldInfos.length; i++) {
+        fieldInfos[i] = classInfo.getFieldInfo(names.get(i));
+      }
+      variableFieldIndexes = new int[variableNames.length];
+      for (int i = 0; i < variableNames.length; i++) {
+        variableFieldIndexes[i] = names.indexOf(variableNames[i]);
+        if (variableFieldIndexes[i] != -1) {
+          isVariableField[variableFieldIndexes[i]] = true;
+        }
+      }
+    }
+
+    /**
+     * Returns whether the variables are read from the fields and unknown keys of the given
+     * parameters, which is not the case for maps and case-insensitive {@link GenericData}.
+     */
+    boolean readsFields(Object parameters) {
+      return !isMap
+          && !(parameters instanceof GenericData
+              && ((GenericData) parameters).getClassInfo().getIgnoreCase());
+    }
+
+    /** Returns the value of the given variable or {@code null} if it is undefined. */
+    Object getValue(Object parameters, int variableIndex, String varName) {
+      int fieldIndex = variableFieldIndexes[variableIndex];
+      Object value;
+      if (fieldIndex != -1) {
+        value = fieldInfos[fieldIndex].getValue(parameters);
+      } else if (parameters instanceof GenericData) {
+        value = ((GenericData) parameters).getUnknownKeys().get(varName);
+      } else {
+        return null;
+      }
+      return value == null || Data.isNull(value) ? null : value;
+    }
+
+    /** Appends the parameters that are not variables of the template as query parameters. */
+    void appendUnusedParameters(StringBuilder buf, Object parameters, String[] variableNames) {
+      boolean first = true;
+      for (int i = 0; i < fieldInfos.length; i++) {
+        if (!isVariableField[i]) {
+          Object value = fieldInfos[i].getValue(parameters);
+          if (value != null && !Data.isNull(value)) {
+            String name = CharEscapers.escapeUriQuery(fieldInfos[i].getName());
+            first = GenericUrl.appendParams(first, buf, name, value, false);
+          }
+        }
+      }
+      if (parameters instanceof GenericData) {
+        Map<String, Object> unknownKeys = ((GenericData) parameters).getUnknownKeys();
+        if (!unknownKeys.isEmpty()) {
+          for (Map.Entry<String, Object> entry : unknownKeys.entrySet()) {
+            Object value = entry.getValue();
+            if (value != null
+                && !Data.isNull(value)
+                && !contains(variableNames, entry.getKey())) {
+              String name = CharEscapers.escapeUriQuery(entry.getKey());
+              first = GenericUrl.appendParams(first, buf, name, value, false);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean contains(String[] names, String name) {
+    for (String element : names) {
+      if (element.equals(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Appends the expansion of the given defined value of a variable. */
+  private static void appendValue(
+      StringBuilder buf,
+      String varName,
+      Object value,
+      boolean containsExplodeModifier,
+      CompositeOutput compositeOutput) {
+    if (value instanceof Iterator<?>) {
+      // Get the list property value.
+      Iterator<?> iterator = (Iterator<?>) value;
+      for (int i = 0; iterator.hasNext(); i++) {
+        appendListElement(
+            buf, varName, iterator.next(), i, containsExplodeModifier, compositeOutput);
+      }
+    } else if (value instanceof List<?> && value instanceof RandomAccess) {
+      List<?> list = (List<?>) value;
+      int size = list.size();
+      for (int i = 0; i < size; i++) {
+        appendListElement(buf, varName, list.get(i), i, containsExplodeModifier, compositeOutput);
+      }
+    } else if (value instanceof Iterable<?>) {
+      int i = 0;
+      for (Object element : (Iterable<?>) value) {
+        appendListElement(buf, varName, element, i++, containsExplodeModifier, compositeOutput);
+      }
+    } else if (value.getClass().isArray()) {
+      int length = Array.getLength(value);
+      for (int i = 0; i < length; i++) {
+        appendListElement(
+            buf, varName, Array.get(value, i), i, containsExplodeModifier, compositeOutput);
+      }
+    } else if (value.getClass().isEnum()) {
+      String name = FieldInfo.of((Enum<?>) value).getName();
+      appendSimpleValue(buf, varName, name != null ? name : value.toString(), compositeOutput);
+    } else if (!Data.isValueOfPrimitiveType(value)) {
+      // Parse the value as a key/value map.
+      Map<String, Object> map = getMap(value);
+      appendMapPropertyValue(buf, varName, map, containsExplodeModifier, compositeOutput);
+    } else {
+      // For everything else...
+      appendSimpleValue(buf, varName, value.toString(), compositeOutput);
+    }
+  }
+
+  private static void appendSimpleValue(
+      StringBuilder buf, String name, String value, CompositeOutput compositeOutput) {
     if (compositeOutput.requiresVarAssignment()) {
-      return String.format("%s=%s", name, compositeOutput.getEncodedValue(value));
+      buf.append(name).append('=');
     }
-    return compositeOutput.getEncodedValue(value);
+    buf.append(compositeOutput.getEncodedValue(value));
   }
 
   /**
-   * Expand the template of a composite list property. Eg: If d := ["red", "green", "blue"] then
-   * {/d*} is expanded to "/red/green/blue"
+   * Expand the template of one element of a composite list property. Eg: If d := ["red", "green",
+   * "blue"] then {/d*} is expanded to "/red/green/blue"
    *
+   * @param buf buffer to which the expanded element is appended
    * @param varName the name of the variable the value corresponds to. E.g. "d"
-   * @param iterator the iterator over list values. E.g. ["red", "green", "blue"]
-   * @param containsExplodeModifiersSet to true if the template contains the explode modifier "*"
+   * @param element the list element. E.g. "green"
+   * @param index the index of the element. E.g. 1
+   * @param containsExplodeModifier Set to true if the template contains the explode modifier "*"
    * @param compositeOutput an instance of CompositeOutput. Contains information on how the
    *     expansion should be done
-   * @return the expanded list template
-   * @throws IllegalArgumentException if the required list path parameter is empty
    */
-  private static String getListPropertyValue(
+  private static void appendListElement(
+      StringBuilder buf,
       String varName,
-      Iterator<?> iterator,
+      Object element,
+      int index,
       boolean containsExplodeModifier,
       CompositeOutput compositeOutput) {
-    if (!iterator.hasNext()) {
-      return "";
-    }
-    StringBuilder retBuf = new StringBuilder();
-    String joiner;
     if (containsExplodeModifier) {
-      joiner = compositeOutput.getExplodeJoiner();
-    } else {
-      joiner = COMPOSITE_NON_EXPLODE_JOINER;
-      if (compositeOutput.requiresVarAssignment()) {
-        retBuf.append(CharEscapers.escapeUriPath(varName));
-        retBuf.append("=");
-      }
-    }
-    while (iterator.hasNext()) {
-      if (containsExplodeModifier && compositeOutput.requiresVarAssignment()) {
-        retBuf.append(CharEscapers.escapeUriPath(varName));
-        retBuf.append("=");
+      if (index != 0) {
+        buf.append(compositeOutput.getExplodeJoiner());
       }
-      retBuf.append(compositeOutput.getEncodedValue(iterator.next().toString()));
-      if (iterator.hasNext()) {
-        retBuf.append(joiner);
+      if (compositeOutput.requiresVarAssignment()) {
+        buf.append(CharEscapers.escapeUriPath(varName));
+        buf.append("=");
       }
+    } else if (index != 0) {
+      buf.append(COMPOSITE_NON_EXPLODE_JOINER);
+    } else if (compositeOutput.requiresVarAssignment()) {
+      buf.append(CharEscapers.escapeUriPath(varName));
+      buf.append("=");
     }
-    return retBuf.toString();
+    buf.append(compositeOutput.getEncodedValue(element.toString()));
   }
 
   /**
    * Expand the template of a composite map property. Eg: If d := [("semi", ";"),("dot",
    * "."),("comma", ",")] then {/d*} is expanded to "/semi=%3B/dot=./comma=%2C"
    *
+   * @param buf buffer to which the expanded map template is appended
    * @param varName the name of the variable the value corresponds to. Eg: "d"
    * @param map the map property value. Eg: [("semi", ";"),("dot", "."),("comma", ",")]
    * @param containsExplodeModifier Set to true if the template contains the explode modifier "*"
    * @param compositeOutput contains information on how the expansion should be done
-   * @return the expanded map template
-   * @throws IllegalArgumentException if the required list path parameter is map
    */
-  private static String getMapPropertyValue(
+  private static void appendMapPropertyValue(
+      StringBuilder buf,
       String varName,
       Map<String, Object> map,
       boolean containsExplodeModifier,
       CompositeOutput compositeOutput) {
     if (map.isEmpty()) {
-      return "";
+      return;
     }
-    StringBuilder retBuf = new StringBuilder();
     String joiner;
     String mapElementsJoiner;
     if (containsExplodeModifier) {
@@ -399,8 +799,8 @@ public class UriTemplate {
       joiner = COMPOSITE_NON_EXPLODE_JOINER;
       mapElementsJoiner = COMPOSITE_NON_EXPLODE_JOINER;
       if (compositeOutput.requiresVarAssignment()) {
-        retBuf.append(CharEscapers.escapeUriPath(varName));
-        retBuf.append("=");
+        buf.append(CharEscapers.escapeUriPath(varName));
+        buf.append("=");
       }
     }
     for (Iterator<Map.Entry<String, Object>> mapIterator = map.entrySet().iterator();
@@ -408,13 +808,12 @@ public class UriTemplate {
       Map.Entry<String, Object> entry = mapIterator.next();
       String encodedKey = compositeOutput.getEncodedValue(entry.getKey());
       String encodedValue = compositeOutput.getEncodedValue(entry.getValue().toString());
-      retBuf.append(encodedKey);
-      retBuf.append(mapElementsJoiner);
-      retBuf.append(encodedValue);
+      buf.append(encodedKey);
+      buf.append(mapElementsJoiner);
+      buf.append(encodedValue);
       if (mapIterator.hasNext()) {
-        retBuf.append(joiner);
+        buf.append(joiner);
       }
     }
-    return retBuf.toString();
   }
 }
@@ -19,15 +19,13 @@ import com.google.api.client.http.LowLevelHttpResponse;
 import com.google.api.client.util.Preconditions;
 import com.google.api.client.util.StreamingContent;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -117,6 +115,9 @@ final class NetHttpRequest extends LowLevelHttpRequest {
           writeContentToOutputStream(outputWriter, out);
 
           threw = false;
+        } catch (WriteTimeoutException e) {
+          // the connection was disconnected, so there is no response to parse
+          throw e;
         } catch (IOException e) {
           // If we've gotten a response back, continue on and try to parse the response. Otherwise,
           // re-throw the IOException
@@ -172,34 +173,108 @@ final class NetHttpRequest extends LowLevelHttpRequest {
       throws IOException {
     if (writeTimeout == 0) {
       outputWriter.write(out, getStreamingContent());
-    } else {
-      // do it with timeout
-      final StreamingContent content = getStreamingContent();
-      final Callable<Boolean> writeContent =
-          new Callable<Boolean>() {
-            @Override
-            public Boolean call() throws IOException {
-              outputWriter.write(out, content);
-              return Boolean.TRUE;
-            }
-          };
-
-      final ExecutorService executor = Executors.newSingleThreadExecutor();
-      final Future<Boolean> future = executor.submit(new FutureTask<Boolean>(writeContent), null);
-      executor.shutdown();
-
-      try {
-        future.get(writeTimeout, TimeUnit.MILLISECONDS);
-      } catch (InterruptedException e) {
-        throw new IOException("Socket write interrupted", e);
-      } catch (ExecutionException e) {
-        throw new IOException("Exception in socket write", e);
-      } catch (TimeoutException e) {
-        throw new IOException("Socket write timed out", e);
+      return;
+    }
+    // write on the calling thread, with a deadline shared by all requests instead of a thread each
+    WriteDeadline deadline = WriteDeadline.schedule(connection, writeTimeout);
+    Throwable writeFailure = null;
+    try {
+      outputWriter.write(out, getStreamingContent());
+    } catch (IOException | RuntimeException | Error e) {
+      writeFailure = e;
+      throw e;
+    } finally {
+      if (deadline.finish()) {
+        WriteTimeoutException timeoutException = new WriteTimeoutException();
+        timeoutException.initCause(new TimeoutException());
+        if (writeFailure != null) {
+          // most likely caused by the disconnection, but kept in case it is not
+          timeoutException.addSuppressed(writeFailure);
+        }
+        throw timeoutException;
       }
-      if (!executor.isTerminated()) {
-        executor.shutdown();
+    }
+  }
+
+  /** Signals that the write deadline expired and the connection was disconnected. */
+  private static final class WriteTimeoutException extends SocketTimeoutException {
+
+    private static final long serialVersionUID = 1L;
+
+    WriteTimeoutException() {
+      super("Socket write timed out");
+    }
+  }
+
+  /**
+   * Deadline of a content write that aborts the write once it expires.
+   *
+   * <p>The write is aborted by disconnecting the connection, which closes the socket that the
+   * writing thread is blocked on, whether it is a platform or a virtual thread. The writing thread
+   * is not interrupted, so that its interrupt status and any interruptible channel the content is
+   * read from are left alone.
+   */
+  private static final class WriteDeadline implements Runnable {
+
+    /** Scheduler shared by all write deadlines. */
+    private static final ScheduledThreadPoolExecutor SCHEDULER = newScheduler();
+
+    private final HttpURLConnection connection;
+    private ScheduledFuture<?> future;
+
+    /** Whether the write finished. Guarded by {@code this}. */
+    private boolean finished;
+
+    /** Whether the deadline expired before the write finished. Guarded by {@code this}. */
+    private boolean expired;
+
+    private WriteDeadline(HttpURLConnection connection) {
+      this.connection = connection;
+    }
+
+    /** Schedules the deadline of a write to the given connection. */
+    static WriteDeadline schedule(HttpURLConnection connection, int writeTimeout) {
+      WriteDeadline deadline = new WriteDeadline(connection);
+      ScheduledFuture<?> future = SCHEDULER.schedule(deadline, writeTimeout, TimeUnit.MILLISECONDS);
+      synchronized (deadline) {
+        deadline.future = future;
+      }
+      return deadline;
+    }
+
+    @Override
+    public synchronized void run() {
+      if (!finished) {
+        expired = true;
+        connection.disconnect();
+      }
+    }
+
+    /** Marks the write as finished and returns whether the deadline expired before. */
+    boolean finish() {
+      ScheduledFuture<?> scheduled;
+      synchronized (this) {
+        finished = true;
+        if (expired) {
+          return true;
+        }
+        scheduled = future;
       }
+      scheduled.cancel(false);
+      return false;
+    }
+
+    private static ScheduledThreadPoolExecutor newScheduler() {
+      ScheduledThreadPoolExecutor scheduler =
+          new ScheduledThreadPoolExecutor(
+              1,
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("google-http-client-write-timeout-%d")
+                  .build());
+      // only keep the deadlines of writes still in progress
+      scheduler.setRemoveOnCancelPolicy(true);
+      return scheduler;
     }
   }
 }
@@ -19,6 +19,7 @@ import com.google.api.client.http.HttpMediaType;
 import com.google.api.client.json.Json;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.JsonGenerator;
+import com.google.api.client.util.PooledByteArrayOutputStream;
 import com.google.api.client.util.Preconditions;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -36,6 +37,11 @@ import java.io.OutputStream;
  * </code>
  * </pre>
  *
+ * <p>{@link #getLength()} serializes the content into a pooled buffer, which the next call to
+ * {@link #writeTo(OutputStream)} writes and releases, so that the content is serialized only once.
+ * Later calls to {@link #writeTo(OutputStream)}, for example on retries, serialize the content
+ * again.
+ *
  * <p>Implementation is not thread-safe.
  *
  * @since 1.0
@@ -53,6 +59,12 @@ public class JsonHttpContent extends AbstractHttpContent {
   /** Wrapper key for the JSON content or {@code null} for none. */
   private String wrapperKey;
 
+  /**
+   * Content serialized by {@link #computeLength()} that was not written yet, or {@code null} for
+   * none.
+   */
+  private PooledByteArrayOutputStream serializedContent;
+
   /**
    * @param jsonFactory JSON factory to use
    * @param data JSON key name/value data
@@ -64,7 +76,58 @@ public class JsonHttpContent extends AbstractHttpContent {
     this.data = Preconditions.checkNotNull(data);
   }
 
+  @Override
+  protected long computeLength() throws IOException {
+    if (!retrySupported() || !writesSerializedContent()) {
+      return super.computeLength();
+    }
+    PooledByteArrayOutputStream buffer = new PooledByteArrayOutputStream();
+    try {
+      serialize(buffer);
+    } catch (IOException | RuntimeException e) {
+      buffer.release();
+      throw e;
+    }
+    if (serializedContent != null) {
+      serializedContent.release();
+    }
+    serializedContent = buffer;
+    return buffer.size();
+  }
+
   public void writeTo(OutputStream out) throws IOException {
+    PooledByteArrayOutputStream buffer = serializedContent;
+    if (buffer != null) {
+      serializedContent = null;
+      try {
+        buffer.writeTo(out);
+      } finally {
+        buffer.release();
+      }
+      return;
+    }
+    serialize(out);
+  }
+
+  /**
+   * Returns whether {@link #writeTo(OutputStream)} is not overridden, so that it writes the content
+   * serialized by {@link #computeLength()}.
+   */
+  private boolean writesSerializedContent() {
+    if (getClass() == JsonHttpContent.class) {
+      return true;
+    }
+    try {
+      return getClass().getMethod("writeTo", OutputStream.class).getDeclaringClass()
+          == JsonHttpContent.class;
+    } catch (NoSuchMethodException e) {
+      // not possible
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Serializes the content to the given output stream. */
+  private void serialize(OutputStream out) throws IOException {
     JsonGenerator generator = jsonFactory.createJsonGenerator(out, getCharset());
     if (wrapperKey != null) {
       generator.writeStartObject();
@@ -39,6 +39,19 @@ public class CustomizeJsonParser {
     return false;
   }
 
+  /**
+   * Returns the customizer to parse the value of the given key of the given context object with, or
+   * {@code null} to skip the value without parsing it.
+   *
+   * <p>The default implementation returns this customizer. {@link JsonProjection} overrides it to
+   * only parse the values of some paths.
+   *
+   * @since 1.44
+   */
+  public CustomizeJsonParser forKey(Object context, String key) {
+    return this;
+  }
+
   /** Called when the given unrecognized key is encountered in the given context object. */
   public void handleUnrecognizedKey(Object context, String key) {}
 
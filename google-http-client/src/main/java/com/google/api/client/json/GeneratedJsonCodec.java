@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.json;
+
+import com.google.api.client.util.Beta;
+import com.google.api.client.util.GenericData;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * {@link Beta} <br>
+ * Parses and serializes the {@link com.google.api.client.util.Key} fields of one data class with
+ * code generated at compile time instead of reflection.
+ *
+ * <p>Implementations are generated by the {@code google-http-client-json-processor} annotation
+ * processor. The codec of a class named {@code com.example.Outer$Inner} is the public class {@code
+ * com.example.Outer_Inner_JsonCodec}, in which each {@code '_'} of the class name is doubled so that
+ * {@code com.example.Outer_Inner} has the distinct codec {@code
+ * com.example.Outer__Inner_JsonCodec}. The codec must have a public no-argument constructor and
+ * return the class from {@link #getDataClass()}. {@link JsonParser} and {@link JsonGenerator} use
+ * the codec of the exact class of the object they parse or serialize if there is one, and
+ * otherwise fall back to reflection.
+ *
+ * <p>A codec only handles what it can do exactly like the reflective implementation. Other fields,
+ * unknown keys of {@link GenericData} and any values with an unexpected JSON token are left to the
+ * reflective implementation.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @since 1.44
+ */
+@Beta
+public abstract class GeneratedJsonCodec {
+
+  /** Suffix of the simple name of a generated codec. */
+  private static final String CODEC_SUFFIX = "_JsonCodec";
+
+  /** Maps a data class to its codec, or {@code null} if it has none. */
+  private static final ClassValue<GeneratedJsonCodec> CODECS =
+      new ClassValue<GeneratedJsonCodec>() {
+        @Override
+        protected GeneratedJsonCodec computeValue(Class<?> type) {
+          return loadCodec(type);
+        }
+      };
+
+  /** Returns the data class of this codec. */
+  protected abstract Class<?> getDataClass();
+
+  /**
+   * Parses the value of a field of the destination, if it is handled by this codec.
+   *
+   * <p>The parser is positioned at the first token of the value. If the field is handled, the
+   * parser is left at the last token of the value. Otherwise, the parser must not have been moved.
+   *
+   * @param parser JSON parser
+   * @param destination destination object of the data class
+   * @param key JSON key of the field
+   * @return whether the value was parsed, or {@code false} to let the reflective implementation
+   *     parse it
+   */
+  protected abstract boolean parseField(JsonParser parser, Object destination, String key)
+      throws IOException;
+
+  /**
+   * Writes the non-{@code null} fields of the value in the order of their JSON keys, between the
+   * start and the end of the JSON object.
+   *
+   * <p>Unknown keys of {@link GenericData} are written by the caller. Codecs of classes with fields
+   * that are not accessible from the generated code call {@link #serializeFieldsReflectively}.
+   *
+   * @param generator JSON generator
+   * @param value object of the data class
+   */
+  protected abstract void serializeFields(JsonGenerator generator, Object value)
+      throws IOException;
+
+  /**
+   * Writes the non-{@code null} fields of the value in the order of their JSON keys with
+   * reflection, like {@link #serializeFields} does.
+   *
+   * @param generator JSON generator
+   * @param value object of the data class
+   */
+  protected static void serializeFieldsReflectively(JsonGenerator generator, Object value)
+      throws IOException {
+    SerializationPlan.of(value.getClass()).writeKeyFields(generator, value);
+  }
+
+  /**
+   * Serializes a field value the way the reflective implementation of {@link
+   * JsonGenerator#serialize(Object)} does.
+   *
+   * @param generator JSON generator
+   * @param value field value
+   * @param isJsonString whether the field has the {@link JsonString} annotation
+   */
+  protected static void serializeValue(JsonGenerator generator, Object value, boolean isJsonString)
+      throws IOException {
+    generator.serialize(isJsonString, value);
+  }
+
+  /** Returns the codec of the given data class or {@code null} if it has none. */
+  static GeneratedJsonCodec of(Class<?> type) {
+    return CODECS.get(type);
+  }
+
+  /** Returns whether this codec writes the fields of the given object of the data class. */
+  boolean serializes(Object value) {
+    // same exceptions as for the reflective field writers
+    return SerializationPlan.of(value.getClass()).serializes(value);
+  }
+
+  /** Loads and instantiates the codec of the given class, or returns {@code null} if it has none. */
+  private static GeneratedJsonCodec loadCodec(Class<?> type) {
+    ClassLoader classLoader = type.getClassLoader();
+    if (classLoader == null
+        || type.isArray()
+        || type.isPrimitive()
+        || (Map.class.isAssignableFrom(type) && !GenericData.class.isAssignableFrom(type))) {
+      return null;
+    }
+    String name = type.getName();
+    int lastDot = name.lastIndexOf('.');
+    // Outer$Inner and Outer_Inner must not have the same codec
+    String codecName =
+        name.substring(0, lastDot + 1)
+            + name.substring(lastDot + 1).replace("_", "__").replace('$', '_')
+            + CODEC_SUFFIX;
+    try {
+      Class<?> codecClass = Class.forName(codecName, true, classLoader);
+      if (!GeneratedJsonCodec.class.isAssignableFrom(codecClass)
+          || !Modifier.isPublic(codecClass.getModifiers())) {
+        return null;
+      }
+      Constructor<?> constructor = codecClass.getConstructor();
+      GeneratedJsonCodec codec = (GeneratedJsonCodec) constructor.newInstance();
+      return codec.getDataClass() == type ? codec : null;
+    } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+      // no codec, or one that cannot be used, falls back to reflection
+      return null;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.json;
+
+import com.google.api.client.util.Beta;
+import com.google.api.client.util.Preconditions;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Beta} <br>
+ * Iterator over the elements of a JSON array that parses each element only when it is requested,
+ * so that only one element at a time is held in memory.
+ *
+ * <p>Use {@link JsonParser#iterateArray(Class)} or {@link JsonObjectParser#iterateArray} to create
+ * one. Closing the iterator closes the underlying JSON parser, so it should be used with a
+ * try-with-resources statement:
+ *
+ * <pre>{@code
+ * try (JsonArrayIterator<Item> items = parser.iterateArray(Item.class)) {
+ *   while (items.hasNext()) {
+ *     process(items.next());
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>{@link IOException}s of the parser are thrown by {@link #hasNext()} and {@link #next()} as
+ * {@link UncheckedIOException}s.
+ *
+ * <p>Implementation is not thread-safe.
+ *
+ * @param <T> type of the elements
+ * @since 1.44
+ */
+@Beta
+public final class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+
+  /** JSON parser. */
+  private final JsonParser parser;
+
+  /** Type of the elements. */
+  private final Type itemType;
+
+  /** Customize JSON parser or {@code null} for none. */
+  private final CustomizeJsonParser customizeParser;
+
+  /** Whether to close the parser at the end of the array. */
+  private final boolean closeAtEnd;
+
+  /** Destination context stack, which is empty between elements. */
+  private final ArrayList<Type> context = new ArrayList<Type>();
+
+  /** Whether the parser points to the first token of the next element. */
+  private boolean hasNextElement;
+
+  /** Whether the end of the array was reached or the iterator was closed. */
+  private boolean finished;
+
+  /** Whether the parser was closed. */
+  private boolean closed;
+
+  /**
+   * @param parser JSON parser pointing to the start of the array or to a JSON {@code null}, which
+   *     is iterated as an empty array
+   * @param itemType type of the elements
+   * @param customizeParser customize JSON parser or {@code null} for none
+   * @param closeAtEnd whether to close the parser at the end of the array
+   */
+  JsonArrayIterator(
+      JsonParser parser,
+      Type itemType,
+      CustomizeJsonParser customizeParser,
+      boolean closeAtEnd)
+      throws IOException {
+    this.parser = parser;
+    this.itemType = itemType;
+    this.customizeParser = customizeParser;
+    this.closeAtEnd = closeAtEnd;
+    JsonToken token = parser.getCurrentToken();
+    // token is null at start, so get next token
+    if (token == null) {
+      token = parser.nextToken();
+    }
+    Preconditions.checkArgument(
+        token == JsonToken.START_ARRAY || token == JsonToken.VALUE_NULL,
+        "expected a JSON array but got %s",
+        token);
+    if (token == JsonToken.VALUE_NULL) {
+      finish();
+    }
+  }
+
+  public boolean hasNext() {
+    if (finished) {
+      return false;
+    }
+    if (!hasNextElement) {
+      try {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+          throw new EOFException("unexpected end of input in a JSON array");
+        }
+        if (token == JsonToken.END_ARRAY) {
+          finish();
+          return false;
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      hasNextElement = true;
+    }
+    return true;
+  }
+
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    hasNextElement = false;
+    try {
+      @SuppressWarnings("unchecked")
+      T result = (T) parser.parseValue(null, itemType, context, null, customizeParser, true);
+      return result;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Stops the iteration and closes the underlying JSON parser.
+   *
+   * <p>Unless the end of the array was reached, the rest of the array is not parsed.
+   */
+  public void close() throws IOException {
+    finished = true;
+    if (!closed) {
+      closed = true;
+      parser.close();
+    }
+  }
+
+  /** Marks the end of the iteration and closes the parser if requested. */
+  private void finish() throws IOException {
+    finished = true;
+    if (closeAtEnd) {
+      close();
+    }
+  }
+}
@@ -14,7 +14,7 @@
 
 package com.google.api.client.json;
 
-import java.io.ByteArrayOutputStream;
+import com.google.api.client.util.PooledByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -134,7 +134,12 @@ public abstract class JsonFactory {
    * @since 1.7
    */
   public final byte[] toByteArray(Object item) throws IOException {
-    return toByteStream(item, false).toByteArray();
+    PooledByteArrayOutputStream byteStream = toByteStream(item, false);
+    try {
+      return byteStream.toByteArray();
+    } finally {
+      byteStream.release();
+    }
   }
 
   /**
@@ -146,26 +151,37 @@ public abstract class JsonFactory {
    * @return serialized JSON string representation
    */
   private String toString(Object item, boolean pretty) throws IOException {
-    return toByteStream(item, pretty).toString("UTF-8");
+    PooledByteArrayOutputStream byteStream = toByteStream(item, pretty);
+    try {
+      return byteStream.toString(StandardCharsets.UTF_8);
+    } finally {
+      byteStream.release();
+    }
   }
 
   /**
    * Returns a UTF-8 byte array output stream of the serialized JSON representation for the given
-   * item using {@link JsonGenerator#serialize(Object)}.
+   * item using {@link JsonGenerator#serialize(Object)}, which the caller must release.
    *
    * @param item data key/value pairs
    * @param pretty whether to return a pretty representation
    * @return serialized JSON string representation
    */
-  private ByteArrayOutputStream toByteStream(Object item, boolean pretty) throws IOException {
-    ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-    JsonGenerator generator = createJsonGenerator(byteStream, StandardCharsets.UTF_8);
-    if (pretty) {
-      generator.enablePrettyPrint();
+  private PooledByteArrayOutputStream toByteStream(Object item, boolean pretty)
+      throws IOException {
+    PooledByteArrayOutputStream byteStream = new PooledByteArrayOutputStream();
+    try {
+      JsonGenerator generator = createJsonGenerator(byteStream, StandardCharsets.UTF_8);
+      if (pretty) {
+        generator.enablePrettyPrint();
+      }
+      generator.serialize(item);
+      generator.flush();
+      return byteStream;
+    } catch (IOException | RuntimeException e) {
+      byteStream.release();
+      throw e;
     }
-    generator.serialize(item);
-    generator.flush();
-    return byteStream;
   }
 
   /**
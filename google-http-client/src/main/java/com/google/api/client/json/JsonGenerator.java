@@ -105,7 +105,7 @@ public abstract class JsonGenerator implements Closeable, Flushable {
     serialize(false, value);
   }
 
-  private void serialize(boolean isJsonString, Object value) throws IOException {
+  void serialize(boolean isJsonString, Object value) throws IOException {
     if (value == null) {
       return;
     }
@@ -155,6 +155,21 @@ public abstract class JsonGenerator implements Closeable, Flushable {
       }
     } else {
       writeStartObject();
+      GeneratedJsonCodec codec = GeneratedJsonCodec.of(valueClass);
+      if (codec != null && codec.serializes(value)) {
+        codec.serializeFields(this, value);
+        if (value instanceof GenericData) {
+          SerializationPlan.writeUnknownKeys(this, (GenericData) value);
+        }
+        writeEndObject();
+        return;
+      }
+      SerializationPlan plan = SerializationPlan.of(valueClass);
+      if (plan != null && plan.serializes(value)) {
+        plan.writeFields(this, value);
+        writeEndObject();
+        return;
+      }
       // only inspect fields of POJO (possibly extends GenericData) but not generic Map
       boolean isMapNotGenericData = value instanceof Map<?, ?> && !(value instanceof GenericData);
       ClassInfo classInfo = isMapNotGenericData ? null : ClassInfo.of(valueClass);
@@ -14,6 +14,7 @@
 
 package com.google.api.client.json;
 
+import com.google.api.client.util.Beta;
 import com.google.api.client.util.ObjectParser;
 import com.google.api.client.util.Preconditions;
 import com.google.api.client.util.Sets;
@@ -53,6 +54,9 @@ public class JsonObjectParser implements ObjectParser {
   /** Wrapper keys for the JSON content or empty for none. */
   private final Set<String> wrapperKeys;
 
+  /** Projection of the JSON content or {@code null} to parse all of it. */
+  private final JsonProjection projection;
+
   /** @param jsonFactory JSON factory */
   public JsonObjectParser(JsonFactory jsonFactory) {
     this(new Builder(jsonFactory));
@@ -65,6 +69,7 @@ public class JsonObjectParser implements ObjectParser {
   protected JsonObjectParser(Builder builder) {
     jsonFactory = builder.jsonFactory;
     wrapperKeys = new HashSet<String>(builder.wrapperKeys);
+    projection = builder.projection;
   }
 
   @SuppressWarnings("unchecked")
@@ -76,7 +81,7 @@ public class JsonObjectParser implements ObjectParser {
   public Object parseAndClose(InputStream in, Charset charset, Type dataType) throws IOException {
     JsonParser parser = jsonFactory.createJsonParser(in, charset);
     initializeParser(parser);
-    return parser.parse(dataType, true);
+    return parse(parser, dataType);
   }
 
   @SuppressWarnings("unchecked")
@@ -87,7 +92,72 @@ public class JsonObjectParser implements ObjectParser {
   public Object parseAndClose(Reader reader, Type dataType) throws IOException {
     JsonParser parser = jsonFactory.createJsonParser(reader);
     initializeParser(parser);
-    return parser.parse(dataType, true);
+    return parse(parser, dataType);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Returns an iterator that parses the elements of the JSON array in the given input stream one at
+   * a time into new instances of the given item class.
+   *
+   * <p>If wrapper keys are set, the array is the value of the first wrapper key that is found in
+   * the JSON object. The parser and the input stream are closed once the end of the array is
+   * reached or the iterator is closed, so any content after the array is not parsed.
+   *
+   * @param in input stream
+   * @param charset charset
+   * @param itemClass class of the array items (must have a public default constructor)
+   * @return iterator over the parsed items
+   * @since 1.44
+   */
+  @Beta
+  public <T> JsonArrayIterator<T> iterateArray(InputStream in, Charset charset, Class<T> itemClass)
+      throws IOException {
+    JsonParser parser = jsonFactory.createJsonParser(in, charset);
+    initializeParser(parser);
+    return iterateArray(parser, itemClass);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Returns an iterator that parses the elements of the JSON array in the given reader one at a
+   * time into new instances of the given item class.
+   *
+   * <p>See {@link #iterateArray(InputStream, Charset, Class)} for details.
+   *
+   * @param reader reader
+   * @param itemClass class of the array items (must have a public default constructor)
+   * @return iterator over the parsed items
+   * @since 1.44
+   */
+  @Beta
+  public <T> JsonArrayIterator<T> iterateArray(Reader reader, Class<T> itemClass)
+      throws IOException {
+    JsonParser parser = jsonFactory.createJsonParser(reader);
+    initializeParser(parser);
+    return iterateArray(parser, itemClass);
+  }
+
+  /** Parses and closes the parser, applying the projection if any. */
+  private Object parse(JsonParser parser, Type dataType) throws IOException {
+    return projection == null
+        ? parser.parse(dataType, true)
+        : parser.parse(dataType, true, projection);
+  }
+
+  /** Returns an iterator that closes the parser at the end, or closes it if the array is missing. */
+  private <T> JsonArrayIterator<T> iterateArray(JsonParser parser, Class<T> itemClass)
+      throws IOException {
+    boolean failed = true;
+    try {
+      JsonArrayIterator<T> result = new JsonArrayIterator<T>(parser, itemClass, projection, true);
+      failed = false;
+      return result;
+    } finally {
+      if (failed) {
+        parser.close();
+      }
+    }
   }
 
   /** Returns the JSON factory. */
@@ -104,6 +174,17 @@ public class JsonObjectParser implements ObjectParser {
     return Collections.unmodifiableSet(wrapperKeys);
   }
 
+  /**
+   * {@link Beta} <br>
+   * Returns the projection of the JSON content or {@code null} to parse all of it.
+   *
+   * @since 1.44
+   */
+  @Beta
+  public final JsonProjection getProjection() {
+    return projection;
+  }
+
   /**
    * Initialize the parser to skip to wrapped keys (if any).
    *
@@ -143,6 +224,9 @@ public class JsonObjectParser implements ObjectParser {
     /** Wrapper keys for the JSON content or empty for none. */
     Collection<String> wrapperKeys = Sets.newHashSet();
 
+    /** Projection of the JSON content or {@code null} to parse all of it. */
+    JsonProjection projection;
+
     /** @param jsonFactory JSON factory */
     public Builder(JsonFactory jsonFactory) {
       this.jsonFactory = Preconditions.checkNotNull(jsonFactory);
@@ -173,5 +257,34 @@ public class JsonObjectParser implements ObjectParser {
       this.wrapperKeys = wrapperKeys;
       return this;
     }
+
+    /**
+     * {@link Beta} <br>
+     * Returns the projection of the JSON content or {@code null} to parse all of it.
+     *
+     * @since 1.44
+     */
+    @Beta
+    public final JsonProjection getProjection() {
+      return projection;
+    }
+
+    /**
+     * {@link Beta} <br>
+     * Sets the projection of the JSON content or {@code null} to parse all of it.
+     *
+     * <p>The paths of the projection are relative to the value of the wrapper key, if any, and to
+     * each element of the arrays returned by {@link JsonObjectParser#iterateArray}.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @since 1.44
+     */
+    @Beta
+    public Builder setProjection(JsonProjection projection) {
+      this.projection = projection;
+      return this;
+    }
   }
 }
@@ -32,15 +32,13 @@ import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Abstract low-level JSON parser. See <a
@@ -62,11 +60,16 @@ public abstract class JsonParser implements Closeable {
    * Maps a polymorphic {@link Class} to its {@link Field} with the {@link JsonPolymorphicTypeMap}
    * annotation, or {@code null} if there is no field with that annotation.
    */
-  private static WeakHashMap<Class<?>, Field> cachedTypemapFields =
-      new WeakHashMap<Class<?>, Field>();
+  private static final ClassValue<Field> cachedTypemapFields =
+      new ClassValue<Field>() {
+        @Override
+        protected Field computeValue(Class<?> key) {
+          return findTypemapField(key);
+        }
+      };
 
-  /** Lock on the {@code cachedTypemapFields}. */
-  private static final Lock lock = new ReentrantLock();
+  /** Initial capacity of the primitive arrays that JSON arrays of numbers are parsed into. */
+  private static final int PRIMITIVE_ARRAY_INITIAL_CAPACITY = 16;
 
   /** Returns the JSON factory from which this generator was created. */
   public abstract JsonFactory getFactory();
@@ -430,6 +433,7 @@ public abstract class JsonParser implements Closeable {
           customizeParser);
       return;
     }
+    GeneratedJsonCodec codec = GeneratedJsonCodec.of(destinationClass);
     while (curToken == JsonToken.FIELD_NAME) {
       String key = getText();
       nextToken();
@@ -437,6 +441,21 @@ public abstract class JsonParser implements Closeable {
       if (customizeParser != null && customizeParser.stopAt(destination, key)) {
         return;
       }
+      CustomizeJsonParser valueParser = customizeParser;
+      if (customizeParser != null) {
+        valueParser = customizeParser.forKey(destination, key);
+        if (valueParser == null) {
+          // skip values outside of the projection
+          skipChildren();
+          curToken = nextToken();
+          continue;
+        }
+      }
+      // use the generated code for the fields it handles
+      if (codec != null && codec.parseField(this, destination, key)) {
+        curToken = nextToken();
+        continue;
+      }
       // get the field from the type information
       FieldInfo fieldInfo = classInfo.getFieldInfo(key);
       if (fieldInfo != null) {
@@ -444,18 +463,21 @@ public abstract class JsonParser implements Closeable {
         if (fieldInfo.isFinal() && !fieldInfo.isPrimitive()) {
           throw new IllegalArgumentException("final array/object fields are not supported");
         }
+        if (fieldInfo.isPrimitive() && parsePrimitiveField(fieldInfo, destination)) {
+          curToken = nextToken();
+          continue;
+        }
         Field field = fieldInfo.getField();
         int contextSize = context.size();
         context.add(field.getGenericType());
         Object fieldValue =
-            parseValue(
-                field, fieldInfo.getGenericType(), context, destination, customizeParser, true);
+            parseValue(field, fieldInfo.getGenericType(), context, destination, valueParser, true);
         context.remove(contextSize);
         fieldInfo.setValue(destination, fieldValue);
       } else if (isGenericData) {
         // store unknown field in generic JSON
         GenericData object = (GenericData) destination;
-        object.set(key, parseValue(null, null, context, destination, customizeParser, true));
+        object.set(key, parseValue(null, null, context, destination, valueParser, true));
       } else {
         // unrecognized field, skip value.
         if (customizeParser != null) {
@@ -467,6 +489,45 @@ public abstract class JsonParser implements Closeable {
     }
   }
 
+  /**
+   * Sets a field of type {@code int}, {@code long}, {@code boolean} or {@code double} to the
+   * current value without boxing it, if it is a JSON number or boolean that {@link #parseValue}
+   * would accept for the field.
+   *
+   * @return whether the field was set, or {@code false} to parse the value with {@link
+   *     #parseValue}, which also reports errors
+   */
+  private boolean parsePrimitiveField(FieldInfo fieldInfo, Object destination)
+      throws IOException {
+    Class<?> type = fieldInfo.getType();
+    JsonToken token = getCurrentToken();
+    switch (token) {
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        if (type != boolean.class) {
+          return false;
+        }
+        fieldInfo.setBoolean(destination, token == JsonToken.VALUE_TRUE);
+        return true;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        if (type != int.class && type != long.class && type != double.class
+            || fieldInfo.getField().getAnnotation(JsonString.class) != null) {
+          return false;
+        }
+        if (type == int.class) {
+          fieldInfo.setInt(destination, getIntValue());
+        } else if (type == long.class) {
+          fieldInfo.setLong(destination, getLongValue());
+        } else {
+          fieldInfo.setDouble(destination, getDoubleValue());
+        }
+        return true;
+      default:
+        return false;
+    }
+  }
+
   /**
    * Parse a JSON Array from the given JSON parser (which is closed after parsing completes) into
    * the given destination collection.
@@ -634,22 +695,179 @@ public abstract class JsonParser implements Closeable {
       CustomizeJsonParser customizeParser)
       throws IOException {
     JsonToken curToken = startParsingObjectOrArray();
+    // JSON numbers into boxed number items skip the generic parsing of each value
+    Type numberItemType =
+        (destinationItemType == Long.class
+                || destinationItemType == Double.class
+                || destinationItemType == Integer.class
+                || destinationItemType == Float.class)
+            && (fieldContext == null || fieldContext.getAnnotation(JsonString.class) == null)
+        ? destinationItemType
+        : null;
     while (curToken != JsonToken.END_ARRAY) {
+      Object parsedValue;
+      if (numberItemType != null && isNumber(curToken)) {
+        if (numberItemType == Long.class) {
+          parsedValue = getLongValue();
+        } else if (numberItemType == Double.class) {
+          parsedValue = getDoubleValue();
+        } else if (numberItemType == Integer.class) {
+          parsedValue = getIntValue();
+        } else {
+          parsedValue = getFloatValue();
+        }
+      } else {
+        parsedValue =
+            parseValue(
+                fieldContext,
+                destinationItemType,
+                context,
+                destinationCollection,
+                customizeParser,
+                true);
+      }
       @SuppressWarnings("unchecked")
-      T parsedValue =
-          (T)
-              parseValue(
-                  fieldContext,
-                  destinationItemType,
-                  context,
-                  destinationCollection,
-                  customizeParser,
-                  true);
-      destinationCollection.add(parsedValue);
+      T item = (T) parsedValue;
+      destinationCollection.add(item);
       curToken = nextToken();
     }
   }
 
+  /** Returns whether the given array component type is parsed by {@link #parsePrimitiveArray}. */
+  private static boolean isUnboxedNumberArrayComponent(Type componentType) {
+    return componentType == int.class
+        || componentType == long.class
+        || componentType == double.class
+        || componentType == float.class;
+  }
+
+  /**
+   * Parses a JSON array into a new array of {@code int}, {@code long}, {@code double} or {@code
+   * float}, writing JSON numbers directly into a growable primitive array instead of collecting
+   * boxed values first. Other JSON values are parsed as usual and unboxed.
+   *
+   * @param fieldContext field context or {@code null} for none
+   * @param componentType primitive component type of the array
+   * @param context destination context stack (possibly empty)
+   * @param customizeParser optional parser customizer or {@code null} for none
+   * @return new primitive array of exactly the parsed length
+   */
+  private Object parsePrimitiveArray(
+      Field fieldContext,
+      Class<?> componentType,
+      ArrayList<Type> context,
+      CustomizeJsonParser customizeParser)
+      throws IOException {
+    JsonToken curToken = startParsingObjectOrArray();
+    int size = 0;
+    if (componentType == int.class) {
+      int[] values = new int[PRIMITIVE_ARRAY_INITIAL_CAPACITY];
+      while (curToken != JsonToken.END_ARRAY) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] =
+            isNumber(curToken)
+                ? getIntValue()
+                : ((Number) parseValue(fieldContext, int.class, context, null, customizeParser, true))
+                    .intValue();
+        curToken = nextToken();
+      }
+      return Arrays.copyOf(values, size);
+    }
+    if (componentType == long.class) {
+      long[] values = new long[PRIMITIVE_ARRAY_INITIAL_CAPACITY];
+      while (curToken != JsonToken.END_ARRAY) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] =
+            isNumber(curToken)
+                ? getLongValue()
+                : ((Number) parseValue(fieldContext, long.class, context, null, customizeParser, true))
+                    .longValue();
+        curToken = nextToken();
+      }
+      return Arrays.copyOf(values, size);
+    }
+    if (componentType == double.class) {
+      double[] values = new double[PRIMITIVE_ARRAY_INITIAL_CAPACITY];
+      while (curToken != JsonToken.END_ARRAY) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] =
+            isNumber(curToken)
+                ? getDoubleValue()
+                : ((Number)
+                        parseValue(fieldContext, double.class, context, null, customizeParser, true))
+                    .doubleValue();
+        curToken = nextToken();
+      }
+      return Arrays.copyOf(values, size);
+    }
+    float[] values = new float[PRIMITIVE_ARRAY_INITIAL_CAPACITY];
+    while (curToken != JsonToken.END_ARRAY) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size << 1);
+      }
+      values[size++] =
+          isNumber(curToken)
+              ? getFloatValue()
+              : ((Number) parseValue(fieldContext, float.class, context, null, customizeParser, true))
+                  .floatValue();
+      curToken = nextToken();
+    }
+    return Arrays.copyOf(values, size);
+  }
+
+  /** Returns whether the given token is a JSON number. */
+  private static boolean isNumber(JsonToken token) {
+    return token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT;
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Returns an iterator that parses the elements of a JSON array one at a time into new instances
+   * of the given item class.
+   *
+   * <p>Before this method is called, the parser must either point to the start of the input, to
+   * the start of the array, or to a JSON {@code null}, which is iterated as an empty array. For
+   * example, call {@link #skipToKey(String)} first to iterate over an array nested under a key.
+   * Once the iteration ends, the current token is the array's ending {@link JsonToken#END_ARRAY}.
+   *
+   * <p>Closing the returned iterator closes this parser.
+   *
+   * @param <T> item class
+   * @param destinationItemClass class of the array items (must have a public default constructor)
+   * @return iterator over the parsed items
+   * @since 1.44
+   */
+  @Beta
+  public final <T> JsonArrayIterator<T> iterateArray(Class<T> destinationItemClass)
+      throws IOException {
+    return iterateArray(destinationItemClass, null);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Returns an iterator that parses the elements of a JSON array one at a time into new instances
+   * of the given item class, optionally using the given parser customizer.
+   *
+   * <p>See {@link #iterateArray(Class)} for details.
+   *
+   * @param <T> item class
+   * @param destinationItemClass class of the array items (must have a public default constructor)
+   * @param customizeParser optional parser customizer or {@code null} for none
+   * @return iterator over the parsed items
+   * @since 1.44
+   */
+  @Beta
+  public final <T> JsonArrayIterator<T> iterateArray(
+      Class<T> destinationItemClass, CustomizeJsonParser customizeParser) throws IOException {
+    return new JsonArrayIterator<T>(this, destinationItemClass, customizeParser, false);
+  }
+
   /**
    * Parse a JSON Object from the given JSON parser into the given destination map, optionally using
    * the given parser customizer.
@@ -675,8 +893,18 @@ public abstract class JsonParser implements Closeable {
       if (customizeParser != null && customizeParser.stopAt(destinationMap, key)) {
         return;
       }
+      CustomizeJsonParser valueParser = customizeParser;
+      if (customizeParser != null) {
+        valueParser = customizeParser.forKey(destinationMap, key);
+        if (valueParser == null) {
+          // skip values outside of the projection
+          skipChildren();
+          curToken = nextToken();
+          continue;
+        }
+      }
       Object value =
-          parseValue(fieldContext, valueType, context, destinationMap, customizeParser, true);
+          parseValue(fieldContext, valueType, context, destinationMap, valueParser, true);
       destinationMap.put(key, value);
       curToken = nextToken();
     }
@@ -694,7 +922,7 @@ public abstract class JsonParser implements Closeable {
    * @param handlePolymorphic whether or not to check for polymorphic schema
    * @return parsed value
    */
-  private final Object parseValue(
+  final Object parseValue(
       Field fieldContext,
       Type valueType,
       ArrayList<Type> context,
@@ -731,9 +959,6 @@ public abstract class JsonParser implements Closeable {
           if (customizeParser != null && fieldContext != null) {
             collectionValue = customizeParser.newInstanceForArray(destination, fieldContext);
           }
-          if (collectionValue == null) {
-            collectionValue = Data.newCollectionInstance(valueType);
-          }
           Type subType = null;
           if (isArray) {
             subType = Types.getArrayComponentType(valueType);
@@ -741,6 +966,15 @@ public abstract class JsonParser implements Closeable {
             subType = Types.getIterableParameter(valueType);
           }
           subType = Data.resolveWildcardTypeOrTypeVariable(context, subType);
+          if (collectionValue == null
+              && isArray
+              && isUnboxedNumberArrayComponent(subType)
+              && (fieldContext == null || fieldContext.getAnnotation(JsonString.class) == null)) {
+            return parsePrimitiveArray(fieldContext, (Class<?>) subType, context, customizeParser);
+          }
+          if (collectionValue == null) {
+            collectionValue = Data.newCollectionInstance(valueType);
+          }
           parseArray(fieldContext, collectionValue, subType, context, customizeParser);
           if (isArray) {
             return Types.toArray(collectionValue, Types.getRawArrayComponentType(context, subType));
@@ -915,48 +1149,41 @@ public abstract class JsonParser implements Closeable {
     if (key == null) {
       return null;
     }
-    lock.lock();
-    try {
-      // Must use containsKey because we do store null values for when the class has no
-      // JsonPolymorphicTypeMap field.
-      if (cachedTypemapFields.containsKey(key)) {
-        return cachedTypemapFields.get(key);
-      }
-      // Find the field that determines the type and cache it.
-      Field value = null;
-      Collection<FieldInfo> fieldInfos = ClassInfo.of(key).getFieldInfos();
-      for (FieldInfo fieldInfo : fieldInfos) {
-        Field field = fieldInfo.getField();
-        JsonPolymorphicTypeMap typemapAnnotation =
-            field.getAnnotation(JsonPolymorphicTypeMap.class);
-        if (typemapAnnotation != null) {
-          Preconditions.checkArgument(
-              value == null,
-              "Class contains more than one field with @JsonPolymorphicTypeMap annotation: %s",
-              key);
-          Preconditions.checkArgument(
-              Data.isPrimitive(field.getType()),
-              "Field which has the @JsonPolymorphicTypeMap, %s, is not a supported type: %s",
-              key,
-              field.getType());
-          value = field;
-          // Check for duplicate typeDef keys
-          TypeDef[] typeDefs = typemapAnnotation.typeDefinitions();
-          HashSet<String> typeDefKeys = Sets.newHashSet();
+    return cachedTypemapFields.get(key);
+  }
+
+  /** Finds the field of {@link #getCachedTypemapFieldFor(Class)} without caching. */
+  private static Field findTypemapField(Class<?> key) {
+    // Find the field that determines the type.
+    Field value = null;
+    Collection<FieldInfo> fieldInfos = ClassInfo.of(key).getFieldInfos();
+    for (FieldInfo fieldInfo : fieldInfos) {
+      Field field = fieldInfo.getField();
+      JsonPolymorphicTypeMap typemapAnnotation = field.getAnnotation(JsonPolymorphicTypeMap.class);
+      if (typemapAnnotation != null) {
+        Preconditions.checkArgument(
+            value == null,
+            "Class contains more than one field with @JsonPolymorphicTypeMap annotation: %s",
+            key);
+        Preconditions.checkArgument(
+            Data.isPrimitive(field.getType()),
+            "Field which has the @JsonPolymorphicTypeMap, %s, is not a supported type: %s",
+            key,
+            field.getType());
+        value = field;
+        // Check for duplicate typeDef keys
+        TypeDef[] typeDefs = typemapAnnotation.typeDefinitions();
+        HashSet<String> typeDefKeys = Sets.newHashSet();
+        Preconditions.checkArgument(
+            typeDefs.length > 0, "@JsonPolymorphicTypeMap must have at least one @TypeDef");
+        for (TypeDef typeDef : typeDefs) {
           Preconditions.checkArgument(
-              typeDefs.length > 0, "@JsonPolymorphicTypeMap must have at least one @TypeDef");
-          for (TypeDef typeDef : typeDefs) {
-            Preconditions.checkArgument(
-                typeDefKeys.add(typeDef.key()),
-                "Class contains two @TypeDef annotations with identical key: %s",
-                typeDef.key());
-          }
+              typeDefKeys.add(typeDef.key()),
+              "Class contains two @TypeDef annotations with identical key: %s",
+              typeDef.key());
         }
       }
-      cachedTypemapFields.put(key, value);
-      return value;
-    } finally {
-      lock.unlock();
     }
+    return value;
   }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.json;
+
+import com.google.api.client.util.Beta;
+import com.google.api.client.util.Preconditions;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link Beta} <br>
+ * Parser customizer that only parses the values of the given JSON paths and skips all other values
+ * with {@link JsonParser#skipChildren()}, without creating objects for them.
+ *
+ * <p>Paths use the syntax of <a href="https://tools.ietf.org/html/rfc6901">JSON pointers</a>, with
+ * {@code ~1} for {@code /} and {@code ~0} for {@code ~} in keys, and are relative to the parsed
+ * value. Array indices are not part of paths: the same paths apply to each element of an array. A
+ * path keeps the whole value at its end, and the empty path keeps everything. For example, {@code
+ * JsonProjection.of("/id", "/items/name")} parses:
+ *
+ * <pre>{@code
+ * {"id": "a", "items": [{"name": "b"}, {"name": "c"}]}
+ * }</pre>
+ *
+ * <p>from {@code {"id": "a", "etag": "e", "items": [{"name": "b", "size": 1}, {"name": "c"}]}}.
+ *
+ * <p>Keys that are skipped are neither stored in {@link com.google.api.client.util.GenericData}
+ * nor reported to {@link #handleUnrecognizedKey}. Use {@link
+ * JsonObjectParser.Builder#setProjection} to apply a projection to HTTP responses, or pass it
+ * directly to {@link JsonParser#parse(Class, CustomizeJsonParser)}.
+ *
+ * <p>Implementation is immutable and thread-safe.
+ *
+ * @since 1.44
+ */
+@Beta
+public final class JsonProjection extends CustomizeJsonParser {
+
+  /** Projection that keeps everything. */
+  private static final JsonProjection ALL = new JsonProjection(null);
+
+  /** Projections of the values of the kept keys, or {@code null} to keep all keys. */
+  private final Map<String, JsonProjection> children;
+
+  private JsonProjection(Map<String, JsonProjection> children) {
+    this.children = children;
+  }
+
+  /**
+   * Returns a projection that keeps the values of the given JSON paths.
+   *
+   * @param paths JSON pointers, each either empty or starting with {@code /}
+   */
+  public static JsonProjection of(String... paths) {
+    return of(Arrays.asList(paths));
+  }
+
+  /**
+   * Returns a projection that keeps the values of the given JSON paths.
+   *
+   * @param paths JSON pointers, each either empty or starting with {@code /}
+   */
+  public static JsonProjection of(Collection<String> paths) {
+    Node root = new Node();
+    for (String path : paths) {
+      Preconditions.checkArgument(
+          path.isEmpty() || path.charAt(0) == '/', "invalid JSON pointer: %s", path);
+      Node node = root;
+      int start = 1;
+      while (!node.all && start <= path.length()) {
+        int end = path.indexOf('/', start);
+        if (end == -1) {
+          end = path.length();
+        }
+        String key = path.substring(start, end).replace("~1", "/").replace("~0", "~");
+        Node child = node.children.get(key);
+        if (child == null) {
+          child = new Node();
+          node.children.put(key, child);
+        }
+        node = child;
+        start = end + 1;
+      }
+      // a path keeps everything under its end, including the paths that extend it
+      node.all = true;
+      node.children.clear();
+    }
+    return root.toProjection();
+  }
+
+  @Override
+  public CustomizeJsonParser forKey(Object context, String key) {
+    return children == null ? this : children.get(key);
+  }
+
+  /** Mutable node of a projection being built. */
+  private static final class Node {
+
+    /** Whether to keep all keys. */
+    boolean all;
+
+    /** Nodes of the kept keys. */
+    final Map<String, Node> children = new HashMap<String, Node>();
+
+    JsonProjection toProjection() {
+      if (all) {
+        return ALL;
+      }
+      Map<String, JsonProjection> result = new HashMap<String, JsonProjection>();
+      for (Map.Entry<String, Node> entry : children.entrySet()) {
+        result.put(entry.getKey(), entry.getValue().toProjection());
+      }
+      return new JsonProjection(Collections.unmodifiableMap(result));
+    }
+  }
+}
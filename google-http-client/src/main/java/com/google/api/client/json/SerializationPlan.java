@@ -0,0 +1,291 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.json;
+
+import com.google.api.client.util.ClassInfo;
+import com.google.api.client.util.Data;
+import com.google.api.client.util.FieldInfo;
+import com.google.api.client.util.GenericData;
+import com.google.api.client.util.Preconditions;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the {@link com.google.api.client.util.Key} fields of the objects of one class with the
+ * field writers built once for the class, instead of iterating over {@link Data#mapOf(Object)} and
+ * looking up the {@link JsonString} annotation of each field for each object.
+ *
+ * <p>Produces exactly the output of the generic implementation of {@link
+ * JsonGenerator#serialize(Object)}: non-{@code null} fields in the order of {@link
+ * ClassInfo#getNames()}, followed by the unknown keys of {@link GenericData}.
+ *
+ * <p>Implementation is thread-safe.
+ */
+final class SerializationPlan {
+
+  /**
+   * Maps a class to its plan, or {@code null} for a {@link Map} that is not {@link GenericData}.
+   */
+  private static final ClassValue<SerializationPlan> PLANS =
+      new ClassValue<SerializationPlan>() {
+        @Override
+        protected SerializationPlan computeValue(Class<?> type) {
+          return newPlan(type);
+        }
+      };
+
+  /** Writers of the fields in the order of their JSON keys. */
+  private final FieldWriter[] fieldWriters;
+
+  /** Whether the objects are {@link GenericData} with unknown keys to write after the fields. */
+  private final boolean isGenericData;
+
+  /**
+   * Whether the objects are {@link GenericData} that overrides {@link GenericData#entrySet()} and
+   * is therefore serialized as a generic map.
+   */
+  private final boolean hasCustomEntries;
+
+  private SerializationPlan(
+      FieldWriter[] fieldWriters, boolean isGenericData, boolean hasCustomEntries) {
+    this.fieldWriters = fieldWriters;
+    this.isGenericData = isGenericData;
+    this.hasCustomEntries = hasCustomEntries;
+  }
+
+  /**
+   * Returns the plan of the given class, or {@code null} for a {@link Map} that is not {@link
+   * GenericData}.
+   */
+  static SerializationPlan of(Class<?> type) {
+    return PLANS.get(type);
+  }
+
+  /**
+   * Returns whether this plan writes the fields of the given object of the class, which is not the
+   * case for {@link GenericData} with custom entries or for case-insensitive {@link GenericData},
+   * whose keys are lower-case.
+   */
+  boolean serializes(Object value) {
+    return !isGenericData
+        || !hasCustomEntries && !((GenericData) value).getClassInfo().getIgnoreCase();
+  }
+
+  /**
+   * Writes the non-{@code null} fields of the given object, between the start and the end of the
+   * JSON object.
+   */
+  void writeFields(JsonGenerator generator, Object value) throws IOException {
+    writeKeyFields(generator, value);
+    if (isGenericData) {
+      writeUnknownKeys(generator, (GenericData) value);
+    }
+  }
+
+  /** Writes the non-{@code null} fields of the given object, without any unknown keys. */
+  void writeKeyFields(JsonGenerator generator, Object value) throws IOException {
+    for (FieldWriter fieldWriter : fieldWriters) {
+      fieldWriter.write(generator, value);
+    }
+  }
+
+  /** Writes the non-{@code null} unknown keys of the given data, which never match a field. */
+  static void writeUnknownKeys(JsonGenerator generator, GenericData value) throws IOException {
+    for (Map.Entry<String, Object> entry : value.getUnknownKeys().entrySet()) {
+      Object fieldValue = entry.getValue();
+      if (fieldValue != null) {
+        generator.writeFieldName(entry.getKey());
+        generator.serialize(false, fieldValue);
+      }
+    }
+  }
+
+  private static SerializationPlan newPlan(Class<?> type) {
+    boolean isGenericData = GenericData.class.isAssignableFrom(type);
+    if (Map.class.isAssignableFrom(type) && !isGenericData) {
+      return null;
+    }
+    boolean hasCustomEntries = false;
+    if (isGenericData) {
+      try {
+        // custom entries are serialized as a generic map
+        hasCustomEntries = type.getMethod("entrySet").getDeclaringClass() != GenericData.class;
+      } catch (NoSuchMethodException e) {
+        // not possible
+        throw new RuntimeException(e);
+      }
+    }
+    ClassInfo classInfo = ClassInfo.of(type);
+    List<FieldWriter> fieldWriters = new ArrayList<FieldWriter>();
+    for (String name : classInfo.getNames()) {
+      fieldWriters.add(new FieldWriter(classInfo.getFieldInfo(name)));
+    }
+    return new SerializationPlan(
+        fieldWriters.toArray(new FieldWriter[0]), isGenericData, hasCustomEntries);
+  }
+
+  /** Writes one field with a value writer chosen once for the type of the field. */
+  private static final class FieldWriter {
+
+    /** Writes the value with {@link JsonGenerator#serialize(boolean, Object)}. */
+    private static final int GENERIC = 0;
+
+    /** Writes a {@link String} or {@link Data#NULL_STRING}. */
+    private static final int STRING = 1;
+
+    /** Writes a {@link Boolean}. */
+    private static final int BOOLEAN = 2;
+
+    /** Writes a {@code short} or {@code byte}. */
+    private static final int SHORT = 3;
+
+    /** Writes a {@code float}. */
+    private static final int FLOAT = 4;
+
+    /** Writes a {@code boolean} without boxing it. */
+    private static final int PRIMITIVE_BOOLEAN = 5;
+
+    /** Writes an {@code int} without boxing it. */
+    private static final int PRIMITIVE_INT = 6;
+
+    /** Writes a {@code long} without boxing it. */
+    private static final int PRIMITIVE_LONG = 7;
+
+    /** Writes a {@code double} without boxing it. */
+    private static final int PRIMITIVE_DOUBLE = 8;
+
+    private final FieldInfo fieldInfo;
+
+    /** JSON key of the field. */
+    private final String name;
+
+    /** Whether the field has the {@link JsonString} annotation. */
+    private final boolean isJsonString;
+
+    /** Value writer. */
+    private final int kind;
+
+    FieldWriter(FieldInfo fieldInfo) {
+      this.fieldInfo = fieldInfo;
+      name = fieldInfo.getName();
+      isJsonString = fieldInfo.getField().getAnnotation(JsonString.class) != null;
+      Class<?> type = fieldInfo.getType();
+      if (type == String.class) {
+        kind = STRING;
+      } else if (type == Boolean.class) {
+        kind = BOOLEAN;
+      } else if (type == short.class || type == byte.class) {
+        kind = SHORT;
+      } else if (type == boolean.class) {
+        kind = PRIMITIVE_BOOLEAN;
+      } else if (type == int.class) {
+        kind = PRIMITIVE_INT;
+      } else if (type == long.class) {
+        kind = PRIMITIVE_LONG;
+      } else if (type == double.class) {
+        kind = PRIMITIVE_DOUBLE;
+      } else if (type == float.class) {
+        kind = FLOAT;
+      } else {
+        kind = GENERIC;
+      }
+    }
+
+    void write(JsonGenerator generator, Object object) throws IOException {
+      // primitive fields are never null
+      switch (kind) {
+        case PRIMITIVE_BOOLEAN:
+          generator.writeFieldName(name);
+          generator.writeBoolean(fieldInfo.getBoolean(object));
+          return;
+        case PRIMITIVE_INT:
+          int intValue = fieldInfo.getInt(object);
+          generator.writeFieldName(name);
+          if (isJsonString) {
+            generator.writeString(Integer.toString(intValue));
+          } else {
+            generator.writeNumber(intValue);
+          }
+          return;
+        case PRIMITIVE_LONG:
+          long longValue = fieldInfo.getLong(object);
+          generator.writeFieldName(name);
+          if (isJsonString) {
+            generator.writeString(Long.toString(longValue));
+          } else {
+            generator.writeNumber(longValue);
+          }
+          return;
+        case PRIMITIVE_DOUBLE:
+          double doubleValue = fieldInfo.getDouble(object);
+          generator.writeFieldName(name);
+          if (isJsonString) {
+            generator.writeString(Double.toString(doubleValue));
+          } else {
+            Preconditions.checkArgument(
+                !Double.isInfinite(doubleValue) && !Double.isNaN(doubleValue));
+            generator.writeNumber(doubleValue);
+          }
+          return;
+        default:
+          writeObject(generator, fieldInfo.getValue(object));
+      }
+    }
+
+    /** Writes the value of a field that is not of one of the unboxed primitive types. */
+    private void writeObject(JsonGenerator generator, Object value) throws IOException {
+      if (value == null) {
+        return;
+      }
+      generator.writeFieldName(name);
+      switch (kind) {
+        case STRING:
+          if (value == Data.NULL_STRING) {
+            generator.writeNull();
+          } else {
+            generator.writeString((String) value);
+          }
+          return;
+        case BOOLEAN:
+          if (value == Data.NULL_BOOLEAN) {
+            generator.writeNull();
+          } else {
+            generator.writeBoolean((Boolean) value);
+          }
+          return;
+        case SHORT:
+          if (isJsonString) {
+            generator.writeString(value.toString());
+          } else {
+            generator.writeNumber(((Number) value).intValue());
+          }
+          return;
+        case FLOAT:
+          if (isJsonString) {
+            generator.writeString(value.toString());
+          } else {
+            float floatValue = (Float) value;
+            Preconditions.checkArgument(!Float.isInfinite(floatValue) && !Float.isNaN(floatValue));
+            generator.writeNumber(floatValue);
+          }
+          return;
+        default:
+          generator.serialize(isJsonString, value);
+      }
+    }
+  }
+}
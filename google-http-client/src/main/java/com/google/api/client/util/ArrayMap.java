@@ -27,9 +27,11 @@ import java.util.concurrent.ConcurrentMap;
  *
  * <p>Supports null keys and values. Conceptually, the keys and values are stored in a simpler array
  * in order to minimize memory use and provide for fast access to a key/value at a certain index
- * (for example {@link #getKey(int)}). However, traditional mapping operations like {@link
- * #get(Object)} and {@link #put(Object, Object)} are slower because they need to look up all
- * key/value pairs in the worst case.
+ * (for example {@link #getKey(int)}). Traditional mapping operations like {@link #get(Object)} and
+ * {@link #put(Object, Object)} look up all key/value pairs for small maps. Once a lookup is done in
+ * a map of more than 16 pairs, the map builds an open-addressing hash index of the keys, which it
+ * maintains as pairs are appended. Removing pairs or replacing keys at an index discards the hash
+ * index until the next lookup.
  *
  * <p>Implementation is not thread-safe. For a thread-safe choice instead use an implementation of
  * {@link ConcurrentMap}.
@@ -40,9 +42,19 @@ import java.util.concurrent.ConcurrentMap;
  * @author Yaniv Inbar
  */
 public class ArrayMap<K, V> extends AbstractMap<K, V> implements Cloneable {
+
+  /** Number of key/value pairs above which lookups use a hash index of the keys. */
+  static final int HASH_INDEX_THRESHOLD = 16;
+
   int size;
   private Object[] data;
 
+  /**
+   * Open-addressing hash table of the indices of the keys plus one, with {@code 0} for empty slots,
+   * or {@code null} if not built. Its length is a power of two at least twice the number of keys.
+   */
+  private int[] hashIndex;
+
   /**
    * Returns a new instance of an array map with initial capacity of zero. Equivalent to calling the
    * default constructor, except without the need to specify the type parameters. For example:
@@ -127,8 +139,16 @@ public class ArrayMap<K, V> extends AbstractMap<K, V> implements Cloneable {
     ensureCapacity(minSize);
     int dataIndex = index << 1;
     V result = valueAtDataIndex(dataIndex + 1);
+    int size = this.size;
+    if (hashIndex != null) {
+      if (index == size) {
+        addToHashIndex(index, key);
+      } else if (index > size || !Objects.equal(key, this.data[dataIndex])) {
+        hashIndex = null;
+      }
+    }
     setData(dataIndex, key, value);
-    if (minSize > this.size) {
+    if (minSize > size) {
       this.size = minSize;
     }
     return result;
@@ -271,7 +291,14 @@ public class ArrayMap<K, V> extends AbstractMap<K, V> implements Cloneable {
 
   /** Returns the data index of the given key or {@code -2} if there is no such key. */
   private int getDataIndexOfKey(Object key) {
-    int dataSize = this.size << 1;
+    int size = this.size;
+    if (size > HASH_INDEX_THRESHOLD) {
+      if (hashIndex == null) {
+        buildHashIndex();
+      }
+      return findInHashIndex(key) << 1;
+    }
+    int dataSize = size << 1;
     Object[] data = this.data;
     for (int i = 0; i < dataSize; i += 2) {
       Object k = data[i];
@@ -282,6 +309,64 @@ public class ArrayMap<K, V> extends AbstractMap<K, V> implements Cloneable {
     return -2;
   }
 
+  /** Builds the hash index of all keys, keeping the first index of duplicate keys. */
+  private void buildHashIndex() {
+    int size = this.size;
+    hashIndex = new int[Integer.highestOneBit(size) << 2];
+    for (int i = 0; i < size; i++) {
+      addToHashIndex(i, this.data[i << 1]);
+    }
+  }
+
+  /** Adds the key at the given index to the hash index, unless the key is already in it. */
+  private void addToHashIndex(int index, Object key) {
+    int[] hashIndex = this.hashIndex;
+    if ((index + 1) << 1 > hashIndex.length) {
+      // keeps the table at most half full; rebuilt with the new key on the next lookup
+      this.hashIndex = null;
+      return;
+    }
+    int mask = hashIndex.length - 1;
+    Object[] data = this.data;
+    for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      int entry = hashIndex[slot];
+      if (entry == 0) {
+        hashIndex[slot] = index + 1;
+        return;
+      }
+      Object k = data[(entry - 1) << 1];
+      if (key == null ? k == null : key.equals(k)) {
+        return;
+      }
+    }
+  }
+
+  /** Returns the index of the given key in the hash index or {@code -1} if there is no such key. */
+  private int findInHashIndex(Object key) {
+    int[] hashIndex = this.hashIndex;
+    int mask = hashIndex.length - 1;
+    Object[] data = this.data;
+    for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      int entry = hashIndex[slot];
+      if (entry == 0) {
+        return -1;
+      }
+      Object k = data[(entry - 1) << 1];
+      if (key == null ? k == null : key.equals(k)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  /** Returns the hash code of the key with its high bits spread into the low bits. */
+  private static int hash(Object key) {
+    if (key == null) {
+      return 0;
+    }
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
   /**
    * Removes the key/value mapping at the given data index of key, or ignored if the index is out of
    * bounds.
@@ -299,6 +384,8 @@ public class ArrayMap<K, V> extends AbstractMap<K, V> implements Cloneable {
     }
     this.size--;
     setData(dataSize - 2, null, null);
+    // the indices of the following keys changed
+    hashIndex = null;
     return result;
   }
 
@@ -306,6 +393,7 @@ public class ArrayMap<K, V> extends AbstractMap<K, V> implements Cloneable {
   public void clear() {
     this.size = 0;
     this.data = null;
+    this.hashIndex = null;
   }
 
   @Override
@@ -337,6 +425,10 @@ public class ArrayMap<K, V> extends AbstractMap<K, V> implements Cloneable {
         Object[] resultData = result.data = new Object[length];
         System.arraycopy(data, 0, resultData, 0, length);
       }
+      int[] hashIndex = this.hashIndex;
+      if (hashIndex != null) {
+        result.hashIndex = hashIndex.clone();
+      }
       return result;
     } catch (CloneNotSupportedException e) {
       // won't happen
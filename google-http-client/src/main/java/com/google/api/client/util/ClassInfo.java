@@ -55,6 +55,9 @@ public final class ClassInfo {
   private final IdentityHashMap<String, FieldInfo> nameToFieldInfoMap =
       new IdentityHashMap<String, FieldInfo>();
 
+  /** Index of {@link #nameToFieldInfoMap} for lookups by name. */
+  private final FieldNameIndex fieldNameIndex;
+
   /**
    * Unmodifiable sorted (with any possible {@code null} member first) list (without duplicates) of
    * {@link FieldInfo#getName()}.
@@ -119,13 +122,7 @@ public final class ClassInfo {
    * @return field information or {@code null} for none
    */
   public FieldInfo getFieldInfo(String name) {
-    if (name != null) {
-      if (ignoreCase) {
-        name = name.toLowerCase(Locale.US);
-      }
-      name = name.intern();
-    }
-    return nameToFieldInfoMap.get(name);
+    return fieldNameIndex.get(name);
   }
 
   /**
@@ -204,6 +201,7 @@ public final class ClassInfo {
         }
       }
     }
+    fieldNameIndex = new FieldNameIndex(nameToFieldInfoMap, ignoreCase);
     names =
         nameSet.isEmpty()
             ? Collections.<String>emptyList()
@@ -15,15 +15,19 @@
 package com.google.api.client.util;
 
 import com.google.common.base.Ascii;
+import com.google.common.primitives.Primitives;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * Parses field information to determine data key name/value pair associated with the field.
@@ -35,8 +39,26 @@ import java.util.WeakHashMap;
  */
 public class FieldInfo {
 
-  /** Cached field information. */
-  private static final Map<Field, FieldInfo> CACHE = new WeakHashMap<Field, FieldInfo>();
+  /**
+   * Cached field information of the declared fields of a class, keyed by field name, without the
+   * fields that have no field information.
+   *
+   * <p>Lookups are lock-free, and the cache does not prevent classes from being unloaded.
+   */
+  private static final ClassValue<Map<String, FieldInfo>> CACHE =
+      new ClassValue<Map<String, FieldInfo>>() {
+        @Override
+        protected Map<String, FieldInfo> computeValue(Class<?> declaringClass) {
+          Map<String, FieldInfo> fieldInfos = new HashMap<String, FieldInfo>();
+          for (Field field : declaringClass.getDeclaredFields()) {
+            FieldInfo fieldInfo = newFieldInfo(field);
+            if (fieldInfo != null) {
+              fieldInfos.put(field.getName(), fieldInfo);
+            }
+          }
+          return fieldInfos;
+        }
+      };
 
   /**
    * Returns the field information for the given enum value.
@@ -69,44 +91,49 @@ public class FieldInfo {
     if (field == null) {
       return null;
     }
-    synchronized (CACHE) {
-      FieldInfo fieldInfo = CACHE.get(field);
-      boolean isEnumContant = field.isEnumConstant();
-      if (fieldInfo == null && (isEnumContant || !Modifier.isStatic(field.getModifiers()))) {
-        String fieldName;
-        if (isEnumContant) {
-          // check for @Value annotation
-          Value value = field.getAnnotation(Value.class);
-          if (value != null) {
-            fieldName = value.value();
-          } else {
-            // check for @NullValue annotation
-            NullValue nullValue = field.getAnnotation(NullValue.class);
-            if (nullValue != null) {
-              fieldName = null;
-            } else {
-              // else ignore
-              return null;
-            }
-          }
+    // field names are unique within their declaring class
+    return CACHE.get(field.getDeclaringClass()).get(field.getName());
+  }
+
+  /**
+   * Returns new field information for the given field or {@code null} if the field has no {@link
+   * #name}.
+   */
+  private static FieldInfo newFieldInfo(Field field) {
+    boolean isEnumContant = field.isEnumConstant();
+    if (!isEnumContant && Modifier.isStatic(field.getModifiers())) {
+      return null;
+    }
+    String fieldName;
+    if (isEnumContant) {
+      // check for @Value annotation
+      Value value = field.getAnnotation(Value.class);
+      if (value != null) {
+        fieldName = value.value();
+      } else {
+        // check for @NullValue annotation
+        NullValue nullValue = field.getAnnotation(NullValue.class);
+        if (nullValue != null) {
+          fieldName = null;
         } else {
-          // check for @Key annotation
-          Key key = field.getAnnotation(Key.class);
-          if (key == null) {
-            // else ignore
-            return null;
-          }
-          fieldName = key.value();
-          field.setAccessible(true);
+          // else ignore
+          return null;
         }
-        if ("##default".equals(fieldName)) {
-          fieldName = field.getName();
-        }
-        fieldInfo = new FieldInfo(field, fieldName);
-        CACHE.put(field, fieldInfo);
       }
-      return fieldInfo;
+    } else {
+      // check for @Key annotation
+      Key key = field.getAnnotation(Key.class);
+      if (key == null) {
+        // else ignore
+        return null;
+      }
+      fieldName = key.value();
+      field.setAccessible(true);
     }
+    if ("##default".equals(fieldName)) {
+      fieldName = field.getName();
+    }
+    return new FieldInfo(field, fieldName);
   }
 
   /** Whether the field class is "primitive" as defined by {@link Data#isPrimitive(Type)}. */
@@ -117,6 +144,39 @@ public class FieldInfo {
 
   private final Method[] setters;
 
+  /** Parameter types of {@link #setters}. */
+  private final Class<?>[] setterParameterTypes;
+
+  /**
+   * Setter methods of {@link #setters} bound as {@code (Object, Object)void}, or {@code null}
+   * elements for setters that are invoked using reflection.
+   */
+  private final MethodHandle[] setterHandles;
+
+  /** Field getter bound as {@code (Object)Object} or {@code null} to use reflection. */
+  private final MethodHandle getter;
+
+  /**
+   * Field setter bound as {@code (Object, Object)void} or {@code null} to use reflection, for
+   * example for final fields.
+   */
+  private final MethodHandle setter;
+
+  /**
+   * Getter of a primitive field bound as {@code (Object)T} for its primitive type {@code T}, or
+   * {@code null} for other fields or to use reflection.
+   */
+  private final MethodHandle primitiveGetter;
+
+  /**
+   * Setter of a non-final primitive field bound as {@code (Object, T)void} for its primitive type
+   * {@code T}, or {@code null} for other fields or to use reflection.
+   */
+  private final MethodHandle primitiveSetter;
+
+  /** Wrapper type of the primitive field type or the field type. */
+  private final Class<?> boxedType;
+
   /**
    * Data key name associated with the field for a non-enum-constant with a {@link Key} annotation,
    * or data key value associated with the enum constant with a {@link Value} annotation or {@code
@@ -131,6 +191,69 @@ public class FieldInfo {
     this.name = name == null ? null : name.intern();
     isPrimitive = Data.isPrimitive(getType());
     this.setters = settersMethodForField(field);
+    setterParameterTypes = new Class<?>[setters.length];
+    for (int i = 0; i < setters.length; i++) {
+      setterParameterTypes[i] = setters[i].getParameterTypes()[0];
+    }
+    Class<?> type = field.getType();
+    boxedType = Primitives.wrap(type);
+    boolean bind = !Modifier.isStatic(field.getModifiers());
+    getter = bind ? bindGetter(field, Object.class) : null;
+    setter = bind && !isFinal() ? bindSetter(field, Object.class) : null;
+    boolean bindPrimitive = bind && type.isPrimitive();
+    primitiveGetter = bindPrimitive ? bindGetter(field, type) : null;
+    primitiveSetter = bindPrimitive && !isFinal() ? bindSetter(field, type) : null;
+    setterHandles = new MethodHandle[setters.length];
+    for (int i = 0; i < setters.length; i++) {
+      setterHandles[i] = bind ? bindSetterMethod(setters[i]) : null;
+    }
+  }
+
+  /**
+   * Returns the getter of the accessible field bound as {@code (Object)valueType} or {@code null}
+   * if it cannot be bound.
+   */
+  private static MethodHandle bindGetter(Field field, Class<?> valueType) {
+    try {
+      return MethodHandles.lookup()
+          .unreflectGetter(field)
+          .asType(MethodType.methodType(valueType, Object.class));
+    } catch (IllegalAccessException | RuntimeException | LinkageError e) {
+      // environments that forbid method handles fall back to reflection
+      return null;
+    }
+  }
+
+  /**
+   * Returns the setter of the accessible field bound as {@code (Object, valueType)void} or {@code
+   * null} if it cannot be bound.
+   */
+  private static MethodHandle bindSetter(Field field, Class<?> valueType) {
+    try {
+      return MethodHandles.lookup()
+          .unreflectSetter(field)
+          .asType(MethodType.methodType(void.class, Object.class, valueType));
+    } catch (IllegalAccessException | RuntimeException | LinkageError e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the setter method bound as {@code (Object, Object)void} or {@code null} if it is not
+   * accessible.
+   */
+  private static MethodHandle bindSetterMethod(Method method) {
+    if (Modifier.isStatic(method.getModifiers())) {
+      return null;
+    }
+    try {
+      // like Method.invoke from this class, only public methods of public classes are accessible
+      return MethodHandles.publicLookup()
+          .unreflect(method)
+          .asType(MethodType.methodType(void.class, Object.class, Object.class));
+    } catch (IllegalAccessException | RuntimeException | LinkageError e) {
+      return null;
+    }
   }
 
   /** Creates list of setter methods for a field only in declaring class. */
@@ -212,31 +335,295 @@ public class FieldInfo {
     return isPrimitive;
   }
 
-  /** Returns the value of the field in the given object instance using reflection. */
+  /**
+   * Returns the value of the field in the given object instance, using a method handle bound once
+   * for the field or else reflection.
+   */
   public Object getValue(Object obj) {
+    if (getter != null && obj != null) {
+      try {
+        return (Object) getter.invokeExact(obj);
+      } catch (ClassCastException e) {
+        // not an instance of the declaring class, which reflection reports
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
     return getFieldValue(field, obj);
   }
 
   /**
-   * Sets this field in the given object to the given value using reflection.
+   * Sets this field in the given object to the given value, preferably using its setter method, with
+   * method handles bound once for the field or else reflection.
    *
    * <p>If the field is final, it checks that the value being set is identical to the existing
    * value.
    */
   public void setValue(Object obj, Object value) {
-    for (Method method : setters) {
-      if (value == null || method.getParameterTypes()[0].isAssignableFrom(value.getClass())) {
-        try {
-          method.invoke(obj, value);
-          return;
-        } catch (IllegalAccessException | InvocationTargetException e) {
-          // try to set field directly
+    for (int i = 0; i < setters.length; i++) {
+      Method method = setters[i];
+      Class<?> parameterType = setterParameterTypes[i];
+      if (value == null || parameterType.isAssignableFrom(value.getClass())) {
+        MethodHandle setterHandle = setterHandles[i];
+        if (setterHandle != null
+            && obj != null
+            && method.getDeclaringClass().isInstance(obj)
+            && (value != null || !parameterType.isPrimitive())) {
+          try {
+            setterHandle.invokeExact(obj, value);
+            return;
+          } catch (Error e) {
+            throw e;
+          } catch (Throwable e) {
+            // like a failed reflective invocation, try to set field directly
+          }
+        } else {
+          try {
+            method.invoke(obj, value);
+            return;
+          } catch (IllegalAccessException | InvocationTargetException e) {
+            // try to set field directly
+          }
         }
       }
     }
+    if (setter != null && field.getDeclaringClass().isInstance(obj) && isAssignable(value)) {
+      try {
+        setter.invokeExact(obj, value);
+        return;
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
     setFieldValue(field, obj, value);
   }
 
+  /**
+   * {@link Beta} <br>
+   * Returns the value of the {@code int} field in the given object instance without boxing it.
+   *
+   * @throws IllegalArgumentException if the field is not of type {@code int}
+   * @since 1.44
+   */
+  @Beta
+  public int getInt(Object obj) {
+    checkType(int.class);
+    if (primitiveGetter != null && obj != null) {
+      try {
+        return (int) primitiveGetter.invokeExact(obj);
+      } catch (ClassCastException e) {
+        // not an instance of the declaring class, which reflection reports
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    return (Integer) getFieldValue(field, obj);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Returns the value of the {@code long} field in the given object instance without boxing it.
+   *
+   * @throws IllegalArgumentException if the field is not of type {@code long}
+   * @since 1.44
+   */
+  @Beta
+  public long getLong(Object obj) {
+    checkType(long.class);
+    if (primitiveGetter != null && obj != null) {
+      try {
+        return (long) primitiveGetter.invokeExact(obj);
+      } catch (ClassCastException e) {
+        // not an instance of the declaring class, which reflection reports
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    return (Long) getFieldValue(field, obj);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Returns the value of the {@code boolean} field in the given object instance without boxing it.
+   *
+   * @throws IllegalArgumentException if the field is not of type {@code boolean}
+   * @since 1.44
+   */
+  @Beta
+  public boolean getBoolean(Object obj) {
+    checkType(boolean.class);
+    if (primitiveGetter != null && obj != null) {
+      try {
+        return (boolean) primitiveGetter.invokeExact(obj);
+      } catch (ClassCastException e) {
+        // not an instance of the declaring class, which reflection reports
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    return (Boolean) getFieldValue(field, obj);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Returns the value of the {@code double} field in the given object instance without boxing it.
+   *
+   * @throws IllegalArgumentException if the field is not of type {@code double}
+   * @since 1.44
+   */
+  @Beta
+  public double getDouble(Object obj) {
+    checkType(double.class);
+    if (primitiveGetter != null && obj != null) {
+      try {
+        return (double) primitiveGetter.invokeExact(obj);
+      } catch (ClassCastException e) {
+        // not an instance of the declaring class, which reflection reports
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    return (Double) getFieldValue(field, obj);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Sets the {@code int} field in the given object to the given value without boxing it. If
+   * the field has setter methods, the value is set like by {@link #setValue}.
+   *
+   * @throws IllegalArgumentException if the field is not of type {@code int}
+   * @since 1.44
+   */
+  @Beta
+  public void setInt(Object obj, int value) {
+    checkType(int.class);
+    if (canSetPrimitive(obj)) {
+      try {
+        primitiveSetter.invokeExact(obj, value);
+        return;
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    setValue(obj, value);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Sets the {@code long} field in the given object to the given value without boxing it. If
+   * the field has setter methods, the value is set like by {@link #setValue}.
+   *
+   * @throws IllegalArgumentException if the field is not of type {@code long}
+   * @since 1.44
+   */
+  @Beta
+  public void setLong(Object obj, long value) {
+    checkType(long.class);
+    if (canSetPrimitive(obj)) {
+      try {
+        primitiveSetter.invokeExact(obj, value);
+        return;
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    setValue(obj, value);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Sets the {@code boolean} field in the given object to the given value without boxing it.
+   * If the field has setter methods, the value is set like by {@link #setValue}.
+   *
+   * @throws IllegalArgumentException if the field is not of type {@code boolean}
+   * @since 1.44
+   */
+  @Beta
+  public void setBoolean(Object obj, boolean value) {
+    checkType(boolean.class);
+    if (canSetPrimitive(obj)) {
+      try {
+        primitiveSetter.invokeExact(obj, value);
+        return;
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    setValue(obj, value);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Sets the {@code double} field in the given object to the given value without boxing it. If
+   * the field has setter methods, the value is set like by {@link #setValue}.
+   *
+   * @throws IllegalArgumentException if the field is not of type {@code double}
+   * @since 1.44
+   */
+  @Beta
+  public void setDouble(Object obj, double value) {
+    checkType(double.class);
+    if (canSetPrimitive(obj)) {
+      try {
+        primitiveSetter.invokeExact(obj, value);
+        return;
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    setValue(obj, value);
+  }
+
+  /** Throws an {@link IllegalArgumentException} if the field is not of the given type. */
+  private void checkType(Class<?> type) {
+    if (field.getType() != type) {
+      throw new IllegalArgumentException("not a " + type + " field: " + field);
+    }
+  }
+
+  /**
+   * Returns whether the primitive field can be set in the given object with {@link
+   * #primitiveSetter}, which setter methods take precedence over.
+   */
+  private boolean canSetPrimitive(Object obj) {
+    return primitiveSetter != null
+        && setters.length == 0
+        && field.getDeclaringClass().isInstance(obj);
+  }
+
+  /**
+   * Returns whether the value can be set without conversion. Primitive fields only accept their
+   * exact wrapper type, which leaves widening conversions and errors to reflection.
+   */
+  private boolean isAssignable(Object value) {
+    if (value == null) {
+      return !field.getType().isPrimitive();
+    }
+    return field.getType().isPrimitive()
+        ? boxedType == value.getClass()
+        : field.getType().isInstance(value);
+  }
+
   /** Returns the class information of the field's declaring class. */
   public ClassInfo getClassInfo() {
     return ClassInfo.of(field.getDeclaringClass());
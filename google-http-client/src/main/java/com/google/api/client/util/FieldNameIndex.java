@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.util;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable open-addressing hash table from field names to field information, probed with a name
+ * without interning it or converting ASCII names to lower case.
+ *
+ * <p>For case-insensitive names, the keys are lower case as by {@link String#toLowerCase(Locale)}
+ * with {@link Locale#US}, and ASCII letters are folded to lower case while probing. Only names with
+ * non-ASCII characters are converted to lower case before probing.
+ *
+ * <p>Implementation is thread-safe.
+ */
+final class FieldNameIndex {
+
+  /** Whether names are case-insensitive. */
+  private final boolean ignoreCase;
+
+  /** Keys, at the slot of their hash or after it, or {@code null} for empty slots. */
+  private final String[] keys;
+
+  /** Field information at the slot of its key. */
+  private final FieldInfo[] values;
+
+  /** Mask of the slot index bits of a hash. */
+  private final int mask;
+
+  /** Field information for the {@code null} name or {@code null} for none. */
+  private final FieldInfo nullNameValue;
+
+  /**
+   * @param fieldInfos map from name to field information, with lower case names if case-insensitive
+   * @param ignoreCase whether names are case-insensitive
+   */
+  FieldNameIndex(Map<String, FieldInfo> fieldInfos, boolean ignoreCase) {
+    this.ignoreCase = ignoreCase;
+    // at most half full, so that probe sequences stay short
+    int capacity = Integer.highestOneBit(Math.max(1, fieldInfos.size()) * 2 - 1) << 1;
+    keys = new String[capacity];
+    values = new FieldInfo[capacity];
+    mask = capacity - 1;
+    FieldInfo nullNameValue = null;
+    for (Map.Entry<String, FieldInfo> entry : fieldInfos.entrySet()) {
+      String key = entry.getKey();
+      if (key == null) {
+        nullNameValue = entry.getValue();
+        continue;
+      }
+      int slot = key.hashCode() & mask;
+      while (keys[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = entry.getValue();
+    }
+    this.nullNameValue = nullNameValue;
+  }
+
+  /**
+   * Returns the field information for the given name.
+   *
+   * @param name name or {@code null}
+   * @return field information or {@code null} for none
+   */
+  FieldInfo get(String name) {
+    if (name == null) {
+      return nullNameValue;
+    }
+    if (!ignoreCase) {
+      // uses the hash code cached by the string
+      int slot = name.hashCode() & mask;
+      for (String key; (key = keys[slot]) != null; slot = (slot + 1) & mask) {
+        if (key.equals(name)) {
+          return values[slot];
+        }
+      }
+      return null;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      if (name.charAt(i) >= 0x80) {
+        // the lower case of non-ASCII characters may depend on the surrounding characters
+        return probe(name.toLowerCase(Locale.US));
+      }
+    }
+    return probe(name);
+  }
+
+  /** Probes the table with the given name, folding ASCII case if case-insensitive. */
+  private FieldInfo probe(String name) {
+    int hash = 0;
+    for (int i = 0; i < name.length(); i++) {
+      hash = 31 * hash + fold(name.charAt(i));
+    }
+    for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+      String key = keys[slot];
+      if (key.length() == name.length() && matches(key, name)) {
+        return values[slot];
+      }
+    }
+    return null;
+  }
+
+  /** Returns whether the key matches the name of the same length. */
+  private boolean matches(String key, String name) {
+    for (int i = 0; i < key.length(); i++) {
+      if (key.charAt(i) != fold(name.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the ASCII lower case of the character if case-insensitive. */
+  private char fold(char c) {
+    return ignoreCase && c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Beta} <br>
+ * Byte array output stream that stores its content in fixed-size segments taken from a shared
+ * bounded pool, so that it never copies its content to grow and recycles its memory once it is
+ * {@link #release() released}.
+ *
+ * <p>Sample usage:
+ *
+ * <pre>{@code
+ * PooledByteArrayOutputStream buffer = new PooledByteArrayOutputStream();
+ * try {
+ *   write(buffer);
+ *   long length = buffer.size();
+ *   buffer.writeTo(out);
+ * } finally {
+ *   buffer.release();
+ * }
+ * }</pre>
+ *
+ * <p>The content must not be used after {@link #release()}, which also resets the stream so that it
+ * may be written again. A stream that is not released is garbage-collected normally, but its
+ * segments are not recycled.
+ *
+ * <p>Implementation is not thread-safe, but the pool is.
+ *
+ * @since 1.44
+ */
+@Beta
+public final class PooledByteArrayOutputStream extends OutputStream {
+
+  /** Size of each segment in bytes. */
+  static final int SEGMENT_SIZE = 8192;
+
+  /** Maximum number of segments kept in the pool, which retains at most 256 KiB. */
+  static final int MAX_POOLED_SEGMENTS = 32;
+
+  /** Released segments. */
+  private static final ConcurrentLinkedQueue<byte[]> POOL = new ConcurrentLinkedQueue<byte[]>();
+
+  /** Approximate number of segments in {@link #POOL}. */
+  private static final AtomicInteger POOL_SIZE = new AtomicInteger();
+
+  /** Full segments followed by the current segment. */
+  private final ArrayList<byte[]> segments = new ArrayList<byte[]>();
+
+  /** Current segment or {@code null} for none. */
+  private byte[] current;
+
+  /** Number of bytes written to the current segment. */
+  private int currentCount;
+
+  /** Number of bytes in the full segments. */
+  private long fullCount;
+
+  @Override
+  public void write(int b) {
+    if (current == null || currentCount == SEGMENT_SIZE) {
+      nextSegment();
+    }
+    current[currentCount++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) {
+    Preconditions.checkArgument(off >= 0 && len >= 0 && off + len <= b.length);
+    while (len > 0) {
+      if (current == null || currentCount == SEGMENT_SIZE) {
+        nextSegment();
+      }
+      int n = Math.min(len, SEGMENT_SIZE - currentCount);
+      System.arraycopy(b, off, current, currentCount, n);
+      currentCount += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  /** Returns the number of bytes written. */
+  public long size() {
+    return fullCount + currentCount;
+  }
+
+  /** Writes the content to the given output stream. */
+  public void writeTo(OutputStream out) throws IOException {
+    int fullSegments = segments.size() - 1;
+    for (int i = 0; i < fullSegments; i++) {
+      out.write(segments.get(i), 0, SEGMENT_SIZE);
+    }
+    if (current != null) {
+      out.write(current, 0, currentCount);
+    }
+  }
+
+  /** Returns a new byte array of the content. */
+  public byte[] toByteArray() {
+    long size = size();
+    Preconditions.checkState(size <= Integer.MAX_VALUE, "content too large for an array");
+    byte[] result = new byte[(int) size];
+    int fullSegments = segments.size() - 1;
+    int offset = 0;
+    for (int i = 0; i < fullSegments; i++) {
+      System.arraycopy(segments.get(i), 0, result, offset, SEGMENT_SIZE);
+      offset += SEGMENT_SIZE;
+    }
+    if (current != null) {
+      System.arraycopy(current, 0, result, offset, currentCount);
+    }
+    return result;
+  }
+
+  /** Returns the content decoded with the given charset. */
+  public String toString(Charset charset) {
+    if (segments.size() <= 1) {
+      return current == null ? "" : new String(current, 0, currentCount, charset);
+    }
+    return new String(toByteArray(), charset);
+  }
+
+  /** Returns the content decoded as UTF-8. */
+  @Override
+  public String toString() {
+    return toString(Charsets.UTF_8);
+  }
+
+  /** Returns the segments to the pool and empties the stream. */
+  public void release() {
+    for (byte[] segment : segments) {
+      if (POOL_SIZE.incrementAndGet() <= MAX_POOLED_SEGMENTS) {
+        POOL.offer(segment);
+      } else {
+        POOL_SIZE.decrementAndGet();
+      }
+    }
+    segments.clear();
+    current = null;
+    currentCount = 0;
+    fullCount = 0;
+  }
+
+  /** Starts a new segment, taken from the pool if possible. */
+  private void nextSegment() {
+    if (current != null) {
+      fullCount += SEGMENT_SIZE;
+    }
+    byte[] segment = POOL.poll();
+    if (segment == null) {
+      segment = new byte[SEGMENT_SIZE];
+    } else {
+      POOL_SIZE.decrementAndGet();
+    }
+    segments.add(segment);
+    current = segment;
+    currentCount = 0;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+
+/** Tests {@link ContentInputStream}. */
+public class ContentInputStreamTest extends TestCase {
+
+  /** Stream of the given content that records the lengths of the reads. */
+  static class RecordingInputStream extends ByteArrayInputStream {
+    final List<Integer> readLengths = new ArrayList<Integer>();
+
+    RecordingInputStream(byte[] content) {
+      super(content);
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) {
+      readLengths.add(len);
+      return super.read(b, off, len);
+    }
+  }
+
+  private static byte[] content(int length) {
+    byte[] content = new byte[length];
+    for (int i = 0; i < length; i++) {
+      content[i] = (byte) i;
+    }
+    return content;
+  }
+
+  public void testRead_blockReadsBypassBuffer() throws IOException {
+    byte[] content = content(20000);
+    RecordingInputStream in = new RecordingInputStream(content);
+    ContentInputStream stream = new ContentInputStream(in);
+    byte[] result = new byte[content.length];
+    int offset = 0;
+    int n;
+    while ((n = stream.read(result, offset, Math.min(8000, result.length - offset))) > 0) {
+      offset += n;
+    }
+    assertEquals(content.length, offset);
+    assertTrue(Arrays.equals(content, result));
+    assertEquals(Arrays.asList(8000, 8000, 4000), in.readLengths);
+  }
+
+  public void testRead_smallReadsAreBuffered() throws IOException {
+    byte[] content = content(100);
+    RecordingInputStream in = new RecordingInputStream(content);
+    ContentInputStream stream = new ContentInputStream(in);
+    assertEquals(0, stream.read());
+    byte[] result = new byte[10];
+    assertEquals(10, stream.read(result, 0, 10));
+    assertEquals(1, result[0]);
+    assertEquals(1, in.readLengths.size());
+  }
+
+  public void testRead_markAndReset() throws IOException {
+    byte[] content = content(10000);
+    ContentInputStream stream = new ContentInputStream(new RecordingInputStream(content));
+    stream.mark(5000);
+    byte[] first = new byte[4000];
+    assertEquals(4000, readFully(stream, first));
+    stream.reset();
+    byte[] result = new byte[content.length];
+    assertEquals(content.length, readFully(stream, result));
+    assertTrue(Arrays.equals(content, result));
+  }
+
+  private static int readFully(ContentInputStream stream, byte[] b) throws IOException {
+    int offset = 0;
+    int n;
+    while (offset < b.length && (n = stream.read(b, offset, b.length - offset)) > 0) {
+      offset += n;
+    }
+    return offset;
+  }
+}
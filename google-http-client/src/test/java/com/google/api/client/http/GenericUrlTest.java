@@ -567,6 +567,98 @@ public class GenericUrlTest extends TestCase {
     assertEquals("http://www.google.com", clone.build());
   }
 
+  public void testFreeze() {
+    TestUrl url = new TestUrl(FULL);
+    GenericUrl frozen = url.freeze();
+    assertTrue(frozen.isFrozen());
+    assertFalse(url.isFrozen());
+    assertSame(frozen, frozen.freeze());
+    assertEquals(FULL, frozen.build());
+    assertEquals(url.getRawPath(), frozen.getRawPath());
+    assertEquals(url.buildRelativeUrl(), frozen.buildRelativeUrl());
+    assertEquals("bar", frozen.get("foo"));
+    assertEquals(FULL_PARTS, frozen.getPathParts());
+    assertEquals(url.hashCode(), frozen.hashCode());
+    // the frozen URL is a copy
+    url.foo = "baz";
+    url.setPort(224);
+    assertEquals(FULL, frozen.build());
+  }
+
+  public void testFreeze_unmodifiable() {
+    GenericUrl url = new GenericUrl("http://www.google.com/a?q=1&q=2").freeze();
+    try {
+      url.setHost("example.com");
+      fail("expected " + IllegalStateException.class);
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    try {
+      url.appendRawPath("/b");
+      fail("expected " + IllegalStateException.class);
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    try {
+      url.set("q", "3");
+      fail("expected " + UnsupportedOperationException.class);
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+    try {
+      url.getPathParts().add("c");
+      fail("expected " + UnsupportedOperationException.class);
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+    try {
+      url.getAll("q").clear();
+      fail("expected " + UnsupportedOperationException.class);
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+    assertEquals("http://www.google.com/a?q=1&q=2", url.build());
+  }
+
+  public void testFreeze_clone() {
+    GenericUrl url = new GenericUrl("http://www.google.com/a?q=1&q=2#f").freeze();
+    GenericUrl clone = url.clone();
+    assertFalse(clone.isFrozen());
+    clone.appendRawPath("/b");
+    clone.set("r", "3");
+    assertEquals("http://www.google.com/a/b?q=1&q=2&r=3#f", clone.build());
+    assertEquals("http://www.google.com/a?q=1&q=2#f", url.build());
+  }
+
+  public void testWithQueryParameter() {
+    GenericUrl base = new GenericUrl("http://www.google.com/a%20b#frag").freeze();
+    GenericUrl first = base.withQueryParameter("q", "x y");
+    assertTrue(first.isFrozen());
+    assertEquals("http://www.google.com/a%20b?q=x%20y#frag", first.build());
+    GenericUrl second = first.withQueryParameter("n", Arrays.asList(1, 2));
+    assertEquals("http://www.google.com/a%20b?q=x%20y&n=1&n=2#frag", second.build());
+    assertEquals("/a%20b", second.getRawPath());
+    assertEquals(Arrays.asList(1, 2), second.get("n"));
+    // a repeated name adds the value to the values of the existing parameter
+    GenericUrl third = second.withQueryParameter("q", "z");
+    assertEquals("http://www.google.com/a%20b?q=x%20y&q=z&n=1&n=2#frag", third.build());
+    assertEquals(
+        third.build(), new GenericUrl(third.build()).withQueryParameter("e", null).build());
+    // the results match a URL built from scratch
+    GenericUrl url = new GenericUrl("http://www.google.com/a%20b#frag");
+    url.set("q", Arrays.asList("x y", "z")).set("n", Arrays.asList(1, 2));
+    assertEquals(url.build(), third.build());
+    assertEquals("http://www.google.com/a%20b#frag", base.build());
+  }
+
+  public void testWithQueryParameter_modifiable() {
+    GenericUrl url = new GenericUrl("http://www.google.com/?a=1");
+    GenericUrl derived = url.withQueryParameter("b", 2);
+    assertEquals("http://www.google.com/?a=1&b=2", derived.build());
+    assertEquals("http://www.google.com/?a=1", url.build());
+    assertFalse(url.isFrozen());
+  }
+
   public void testToUrl_relative() {
     // relative redirect
     testRedirectUtility("http://www.google.com/test", "http://www.google.com", "/test");
@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableList;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Arrays;
 import java.util.List;
@@ -130,6 +131,24 @@ public class HttpHeadersTest extends TestCase {
     assertEquals(expectedOutput.toString(), outputStream.toString());
   }
 
+  public void testSerializeHeaders_unknownKeyOfField() throws Exception {
+    HttpHeaders headers = new HttpHeaders();
+    headers.getUnknownKeys().put("user-agent", "unknown");
+    MockLowLevelHttpRequest lowLevelRequest = new MockLowLevelHttpRequest();
+    HttpHeaders.serializeHeaders(headers, null, null, null, lowLevelRequest, null);
+    assertEquals(ImmutableList.of("unknown"), lowLevelRequest.getHeaderValues("user-agent"));
+    StringWriter writer = new StringWriter();
+    HttpHeaders.serializeHeadersForMultipartRequests(headers, null, null, writer);
+    assertEquals("Accept-Encoding: gzip\r\nUser-Agent: unknown\r\n", writer.toString());
+    headers.setUserAgent("field");
+    try {
+      HttpHeaders.serializeHeaders(headers, null, null, null, new MockLowLevelHttpRequest(), null);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
   @SuppressWarnings("unchecked")
   public void testFromHttpHeaders() {
     HttpHeaders rawHeaders = new HttpHeaders();
@@ -97,6 +97,47 @@ public class HttpMediaTypeTest extends TestCase {
     assertEquals(2, m.getParameters().size());
   }
 
+  public void testFromString_malformedParameters() {
+    HttpMediaType m =
+        new HttpMediaType(" text/plain ;junk; b ; =c; d=e f; g=\"\"; h=; a=\"unterminated");
+    assertEquals("text", m.getType());
+    assertEquals("plain", m.getSubType());
+    assertEquals("", m.getParameter("a"));
+    assertEquals("e", m.getParameter("d"));
+    assertEquals("", m.getParameter("g"));
+    assertEquals("", m.getParameter("h"));
+    assertEquals(4, m.getParameters().size());
+  }
+
+  public void testFromString_invalid() {
+    assertInvalid("text", "Type must be in the 'maintype/subtype; parameter=value' format");
+    assertInvalid("text/", "Type must be in the 'maintype/subtype; parameter=value' format");
+    assertInvalid("text/plain foo", "Type must be in the 'maintype/subtype; parameter=value' format");
+    assertInvalid("te@xt/plain", "Type contains reserved characters");
+    assertInvalid("text/pl@in", "Subtype contains reserved characters");
+    assertInvalid("text/plain; a@b=c", "Name contains reserved characters");
+  }
+
+  private static void assertInvalid(String mediaType, String message) {
+    try {
+      new HttpMediaType(mediaType);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      assertEquals(message, e.getMessage());
+    }
+  }
+
+  public void testFromString_cached() {
+    String value = "application/json; charset=UTF-8";
+    assertSame(ParsedMediaType.of(value), ParsedMediaType.of(value));
+    HttpMediaType m = new HttpMediaType(value);
+    m.setParameter("charset", "ISO-8859-1");
+    m.setSubType("xml");
+    HttpMediaType other = new HttpMediaType(value);
+    assertEquals("json", other.getSubType());
+    assertEquals("UTF-8", other.getParameter("charset"));
+  }
+
   public void testFromString_case() {
     HttpMediaType m = new HttpMediaType("text/plain; Foo=Bar");
     assertEquals("Bar", m.getParameter("fOO"));
@@ -25,16 +25,20 @@ import com.google.api.client.testing.util.MockSleeper;
 import com.google.api.client.util.BackOff;
 import com.google.api.client.util.Key;
 import com.google.api.client.util.LoggingStreamingContent;
+import com.google.api.client.util.Sleeper;
 import com.google.api.client.util.StringUtils;
 import com.google.api.client.util.Value;
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
@@ -1164,6 +1168,137 @@ public class HttpRequestTest extends TestCase {
     assertNotNull(futureResponse.get(10, TimeUnit.MILLISECONDS));
   }
 
+  public void testSendAsync() throws Exception {
+    HttpTransport transport = new MockHttpTransport();
+    HttpRequest request =
+        transport.createRequestFactory().buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+    MockExecutor mockExecutor = new MockExecutor();
+    CompletableFuture<HttpResponse> futureResponse = request.sendAsync(mockExecutor);
+
+    assertFalse(futureResponse.isDone());
+    // builds and starts the attempt
+    mockExecutor.actuallyRun();
+    assertFalse(futureResponse.isDone());
+    // processes the response
+    mockExecutor.actuallyRun();
+    assertTrue(futureResponse.isDone());
+    assertEquals(200, futureResponse.get().getStatusCode());
+  }
+
+  public void testSendAsync_lowLevelResponsePending() throws Exception {
+    final CompletableFuture<LowLevelHttpResponse> lowLevelResponse =
+        new CompletableFuture<LowLevelHttpResponse>();
+    HttpTransport transport =
+        new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) {
+            return new MockLowLevelHttpRequest() {
+              @Override
+              public CompletionStage<LowLevelHttpResponse> executeAsync() {
+                return lowLevelResponse;
+              }
+            };
+          }
+        };
+    HttpRequest request =
+        transport.createRequestFactory().buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+    CompletableFuture<HttpResponse> futureResponse =
+        request.sendAsync(MoreExecutors.directExecutor());
+
+    // no thread waits for the response
+    assertFalse(futureResponse.isDone());
+    lowLevelResponse.complete(new MockLowLevelHttpResponse().setStatusCode(204));
+    assertEquals(204, futureResponse.get().getStatusCode());
+  }
+
+  public void testSendAsync_ioExceptionRetried() throws Exception {
+    FailThenSuccessConnectionErrorTransport fakeTransport =
+        new FailThenSuccessConnectionErrorTransport(3);
+    HttpRequest req =
+        fakeTransport.createRequestFactory().buildGetRequest(new GenericUrl("http://not/used"));
+    req.setIOExceptionHandler(new HttpBackOffIOExceptionHandler(BackOff.ZERO_BACKOFF));
+    req.setNumberOfRetries(4);
+    HttpResponse resp = req.sendAsync(MoreExecutors.directExecutor()).get();
+
+    assertEquals(200, resp.getStatusCode());
+    assertEquals(4, fakeTransport.lowLevelExecCalls);
+  }
+
+  public void testSendAsync_ioExceptionNotRetried() throws Exception {
+    FailThenSuccessConnectionErrorTransport fakeTransport =
+        new FailThenSuccessConnectionErrorTransport(1);
+    HttpRequest req =
+        fakeTransport.createRequestFactory().buildGetRequest(new GenericUrl("http://not/used"));
+    try {
+      req.sendAsync(MoreExecutors.directExecutor()).get();
+      fail("expected " + ExecutionException.class);
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+    assertEquals(1, fakeTransport.lowLevelExecCalls);
+  }
+
+  public void testSendAsync_redirect() throws Exception {
+    RedirectTransport fakeTransport = new RedirectTransport();
+    HttpRequest request =
+        fakeTransport.createRequestFactory().buildGetRequest(new GenericUrl("http://gmail.com"));
+    HttpResponse resp = request.sendAsync(MoreExecutors.directExecutor()).get();
+
+    assertEquals(200, resp.getStatusCode());
+    assertEquals(2, fakeTransport.lowLevelExecCalls);
+  }
+
+  @Deprecated
+  public void testSendAsync_backOff() throws Exception {
+    FailThenSuccessBackoffTransport fakeTransport =
+        new FailThenSuccessBackoffTransport(HttpStatusCodes.STATUS_CODE_SERVER_ERROR, 2);
+    BackOffPolicy backOffPolicy =
+        new MockBackOffPolicy() {
+          @Override
+          public long getNextBackOffMillis() {
+            super.getNextBackOffMillis();
+            return 20;
+          }
+        };
+    HttpRequest req =
+        fakeTransport.createRequestFactory().buildGetRequest(new GenericUrl("http://not/used"));
+    req.setBackOffPolicy(backOffPolicy);
+    req.setSleeper(
+        new Sleeper() {
+          @Override
+          public void sleep(long millis) {
+            fail("back off must not block a thread");
+          }
+        });
+    long start = System.nanoTime();
+    HttpResponse resp = req.sendAsync(MoreExecutors.directExecutor()).get(10, TimeUnit.SECONDS);
+
+    assertEquals(200, resp.getStatusCode());
+    assertEquals(3, fakeTransport.lowLevelExecCalls);
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+  }
+
+  public void testSendAsync_errorResponse() throws Exception {
+    StatusCodesTransport transport = new StatusCodesTransport();
+    transport.statusCode = HttpStatusCodes.STATUS_CODE_NOT_FOUND;
+    HttpRequest req =
+        transport.createRequestFactory().buildGetRequest(new GenericUrl("http://not/used"));
+    try {
+      req.sendAsync(MoreExecutors.directExecutor()).get();
+      fail("expected " + ExecutionException.class);
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof HttpResponseException);
+      assertEquals(
+          HttpStatusCodes.STATUS_CODE_NOT_FOUND,
+          ((HttpResponseException) e.getCause()).getStatusCode());
+    }
+
+    req.setThrowExceptionOnExecuteError(false);
+    assertEquals(
+        HttpStatusCodes.STATUS_CODE_NOT_FOUND,
+        req.sendAsync(MoreExecutors.directExecutor()).get().getStatusCode());
+  }
+
   public void testExecute_redirects() throws Exception {
     class MyTransport extends MockHttpTransport {
       int count = 1;
@@ -221,6 +221,32 @@ public class HttpResponseTest extends TestCase {
     assertEquals("UTF-8", response.getContentCharset().name());
   }
 
+  public void testGetContentCharset_modifiedMediaType() throws Exception {
+    HttpTransport transport =
+        new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) throws IOException {
+            return new MockLowLevelHttpRequest() {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                MockLowLevelHttpResponse result = new MockLowLevelHttpResponse();
+                result.setContentType(VALID_CONTENT_TYPE_WITH_PARAMS);
+                return result;
+              }
+            };
+          }
+        };
+    HttpRequest request =
+        transport.createRequestFactory().buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+    HttpResponse response = request.execute();
+    assertEquals(StandardCharsets.UTF_8, response.getContentCharset());
+    response.getMediaType().setCharsetParameter(StandardCharsets.UTF_16);
+    assertEquals(StandardCharsets.UTF_16, response.getContentCharset());
+    assertSame(response.getMediaType(), response.getMediaType());
+    // the shared parsed media type is not modified
+    assertEquals(StandardCharsets.UTF_8, request.execute().getContentCharset());
+  }
+
   public void testParseAsString_jsonContentType() throws IOException {
     HttpTransport transport =
         new MockHttpTransport() {
@@ -325,6 +351,92 @@ public class HttpResponseTest extends TestCase {
     assertEquals(ETAG_VALUE, response.getHeaders().getETag());
   }
 
+  public void testHeaderParsing_deferred() throws Exception {
+    HttpTransport transport =
+        new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) throws IOException {
+            return new MockLowLevelHttpRequest() {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                MockLowLevelHttpResponse result = new MockLowLevelHttpResponse();
+                result.addHeader("content-type", "text/plain; charset=ISO-8859-1");
+                result.addHeader("goo", "car");
+                result.addHeader("ETAG", ETAG_VALUE);
+                result.setContent("abc");
+                return result;
+              }
+            };
+          }
+        };
+    HttpRequest request =
+        transport.createRequestFactory().buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+    HttpResponse response = request.execute();
+    assertEquals("text/plain; charset=ISO-8859-1", response.getContentType());
+    assertEquals("ISO-8859-1", response.getContentCharset().name());
+    assertEquals(ETAG_VALUE, response.getHeaders().getETag());
+    assertEquals(Arrays.asList("car"), response.getHeaders().get("goo"));
+    assertSame(response.getHeaders(), request.getResponseHeaders());
+  }
+
+  public void testHeaderParsing_redirectKeepsDeferral() throws Exception {
+    HttpTransport transport =
+        new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, final String url)
+              throws IOException {
+            return new MockLowLevelHttpRequest() {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                MockLowLevelHttpResponse result = new MockLowLevelHttpResponse();
+                if (url.endsWith("/moved")) {
+                  result.addHeader("ETag", ETAG_VALUE);
+                } else {
+                  result.setStatusCode(HttpStatusCodes.STATUS_CODE_FOUND);
+                  result.addHeader("Location", HttpTesting.SIMPLE_URL + "/moved");
+                }
+                return result;
+              }
+            };
+          }
+        };
+    HttpRequest request =
+        transport.createRequestFactory().buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+    request.execute();
+    assertEquals(HttpTesting.SIMPLE_URL + "/moved", request.getUrl().build());
+    // following the redirect did not hand the headers to the caller
+    assertNotNull(request.readResponseHeaders(new MockLowLevelHttpResponse(), null));
+  }
+
+  public void testHeaderParsing_sharedHeaders() throws Exception {
+    HttpTransport transport =
+        new MockHttpTransport() {
+          int count;
+
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) throws IOException {
+            return new MockLowLevelHttpRequest() {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                MockLowLevelHttpResponse result = new MockLowLevelHttpResponse();
+                result.addHeader("ETag", "\"" + count++ + "\"");
+                return result;
+              }
+            };
+          }
+        };
+    HttpRequest request =
+        transport.createRequestFactory().buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+    // headers obtained before execute() are populated when the response is received
+    HttpHeaders headers = request.getResponseHeaders();
+    request.execute();
+    assertEquals("\"0\"", headers.getETag());
+    request.execute();
+    assertEquals("\"1\"", headers.getETag());
+    assertSame(headers, request.execute().getHeaders());
+    assertEquals("\"2\"", headers.getETag());
+  }
+
   public void testParseAs_noParser() throws Exception {
     try {
       new MockHttpTransport()
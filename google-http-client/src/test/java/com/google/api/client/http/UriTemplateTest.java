@@ -14,10 +14,15 @@
 
 package com.google.api.client.http;
 
+import com.google.api.client.util.Data;
+import com.google.api.client.util.GenericData;
+import com.google.api.client.util.Key;
 import com.google.api.client.util.Value;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -348,4 +353,113 @@ public class UriTemplateTest extends TestCase {
         unReservedSet,
         UriTemplate.expand("{+var}", requestMap, false));
   }
+
+  /** Parameters of a request with {@link Key} fields. */
+  public static class KeyParameters {
+
+    @Key String bucket = "my bucket";
+
+    @Key List<String> path = Arrays.asList("a", "b c");
+
+    @Key Map<String, Object> map = new LinkedHashMap<String, Object>();
+
+    @Key testEnum e = testEnum.ONE;
+
+    @Key Long maxResults = 100L;
+
+    @Key String empty;
+
+    @Key int[] numbers = {1, 2};
+
+    KeyParameters() {
+      map.put("semi", ";");
+      map.put("dot", ".");
+    }
+  }
+
+  /** Parameters of a request as generic data. */
+  public static class DataParameters extends GenericData {
+
+    @Key String bucket = "my bucket";
+
+    @Key Integer maxResults;
+
+    DataParameters() {
+      set("unknown", "x&y");
+      set("path", Arrays.asList("c", "d"));
+    }
+  }
+
+  private static final String[] COMPILED_TEMPLATES = {
+    "",
+    "foo",
+    "b/{bucket}/o{/path*}{?maxResults}",
+    "{+bucket}{#path}{.map*}{;e}{&numbers*}",
+    "{bucket}/{bucket}{?bucket,path,unknown}",
+    "{?map}{;path}{&empty,maxResults}",
+    "{/missing}/x{.missing,bucket}"
+  };
+
+  public void testCompile_matchesExpand() {
+    for (String template : COMPILED_TEMPLATES) {
+      for (boolean addUnusedParams : new boolean[] {false, true}) {
+        for (Object parameters :
+            new Object[] {
+              null, new KeyParameters(), new DataParameters(), Data.mapOf(new KeyParameters())
+            }) {
+          assertEquals(
+              template,
+              UriTemplate.expand(template, parameters, addUnusedParams),
+              UriTemplate.compile(template).expand(parameters, addUnusedParams));
+        }
+      }
+    }
+  }
+
+  public void testCompile_severalParameterClasses() {
+    UriTemplate.Compiled compiled = UriTemplate.compile("b/{bucket}{?maxResults,numbers}");
+    for (int i = 0; i < 2; i++) {
+      assertEquals(
+          "b/my%20bucket?maxResults=100&numbers=1,2?e=ONE&map=%7Bsemi%3D;,%20dot%3D.%7D&path=a"
+              + "&path=b%20c",
+          compiled.expand(new KeyParameters(), true));
+      DataParameters parameters = new DataParameters();
+      parameters.maxResults = 5;
+      assertEquals("b/my%20bucket?maxResults=5", compiled.expand(parameters, false));
+    }
+  }
+
+  public void testCompile_caseInsensitiveGenericData() {
+    GenericData parameters = new GenericData(EnumSet.of(GenericData.Flags.IGNORE_CASE));
+    parameters.set("Bucket", "b");
+    parameters.set("other", "o");
+    UriTemplate.Compiled compiled = UriTemplate.compile("{bucket}");
+    assertEquals(UriTemplate.expand("{bucket}", parameters, true), compiled.expand(parameters, true));
+  }
+
+  public void testCompile_expandIntoBuffer() {
+    StringBuilder buf = new StringBuilder("prefix:");
+    UriTemplate.compile("{/path*}").expand(buf, new DataParameters(), false);
+    assertEquals("prefix:/c/d", buf.toString());
+  }
+
+  public void testCompile_withBaseUrl() {
+    SortedMap<String, Object> requestMap = Maps.newTreeMap();
+    requestMap.put("abc", "xyz");
+    assertEquals(
+        "https://test/xyz/bar/",
+        UriTemplate.compile("https://test/base/path/", "/{abc}/bar/").expand(requestMap, true));
+    assertEquals(
+        "https://test/base/path/xyz",
+        UriTemplate.compile("https://test/base/path/", "{abc}").toString().replace("{abc}", "xyz"));
+  }
+
+  public void testCompile_notClosed() {
+    try {
+      UriTemplate.compile("foo/{bar");
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
 }
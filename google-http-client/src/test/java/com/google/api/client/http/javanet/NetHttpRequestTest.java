@@ -13,9 +13,14 @@ import com.google.api.client.util.StreamingContent;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Test;
 
 public class NetHttpRequestTest {
@@ -37,6 +42,51 @@ public class NetHttpRequestTest {
     }
   }
 
+  /** Connection whose {@link #disconnect()} closes the socket that a write is blocked on. */
+  static class DisconnectableConnection extends MockHttpURLConnection {
+    final CountDownLatch disconnected = new CountDownLatch(1);
+
+    DisconnectableConnection() throws IOException {
+      super(new URL(HttpTesting.SIMPLE_URL));
+    }
+
+    @Override
+    public void disconnect() {
+      disconnected.countDown();
+    }
+  }
+
+  /** Blocks until the connection is disconnected and then fails like a closed socket. */
+  static class BlockingOutputWriter implements OutputWriter {
+    private final DisconnectableConnection connection;
+
+    BlockingOutputWriter(DisconnectableConnection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public void write(OutputStream outputStream, StreamingContent content) throws IOException {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            if (!connection.disconnected.await(5, TimeUnit.SECONDS)) {
+              return;
+            }
+            break;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      throw new SocketException("Socket closed");
+    }
+  }
+
   @Test
   public void testHangingWrite() throws InterruptedException {
     Thread thread =
@@ -74,15 +124,150 @@ public class NetHttpRequestTest {
     }
   }
 
-  private static void postWithTimeout(int timeout) throws Exception {
+  @Test(timeout = 1000)
+  public void testOutputStreamWriteTimeout_doesNotInterrupt() throws Exception {
+    try {
+      postWithTimeout(100);
+      fail("should have timed out");
+    } catch (SocketTimeoutException e) {
+      assertFalse(Thread.currentThread().isInterrupted());
+      // the failure of the write is kept
+      assertEquals(1, e.getSuppressed().length);
+      assertEquals(SocketException.class, e.getSuppressed()[0].getClass());
+    }
+  }
+
+  @Test(timeout = 1000)
+  public void testOutputStreamWriteTimeout_keepsInterrupt() throws Exception {
+    final DisconnectableConnection connection = new DisconnectableConnection();
+    try {
+      postWithTimeout(
+          connection,
+          100,
+          new OutputWriter() {
+            @Override
+            public void write(OutputStream outputStream, StreamingContent content)
+                throws IOException {
+              // for example a cancelled task
+              Thread.currentThread().interrupt();
+              new BlockingOutputWriter(connection).write(outputStream, content);
+            }
+          });
+      fail("should have timed out");
+    } catch (SocketTimeoutException e) {
+      assertTrue(Thread.interrupted());
+    }
+  }
+
+  @Test(timeout = 1000)
+  public void testOutputStreamWriteTimeout_runtimeException() throws Exception {
+    final DisconnectableConnection connection = new DisconnectableConnection();
+    final IllegalStateException failure = new IllegalStateException();
+    try {
+      postWithTimeout(
+          connection,
+          100,
+          new OutputWriter() {
+            @Override
+            public void write(OutputStream outputStream, StreamingContent content)
+                throws IOException {
+              try {
+                new BlockingOutputWriter(connection).write(outputStream, content);
+              } catch (SocketException e) {
+                throw failure;
+              }
+            }
+          });
+      fail("should have timed out");
+    } catch (SocketTimeoutException e) {
+      assertEquals(TimeoutException.class, e.getCause().getClass());
+      assertSame(failure, e.getSuppressed()[0]);
+    }
+  }
+
+  @Test
+  public void testWriteTimeout_otherTimeoutWithResponse() throws Exception {
     MockHttpURLConnection connection = new MockHttpURLConnection(new URL(HttpTesting.SIMPLE_URL));
+    connection.setResponseCode(401);
+    connection.setRequestMethod("POST");
+    NetHttpRequest request = new NetHttpRequest(connection);
+    request.setStreamingContent(new ByteArrayContent("text/plain", new byte[] {1}));
+    request.setWriteTimeout(5000);
+    LowLevelHttpResponse response =
+        request.execute(
+            new OutputWriter() {
+              @Override
+              public void write(OutputStream outputStream, StreamingContent content)
+                  throws IOException {
+                throw new SocketTimeoutException("not caused by the write timeout");
+              }
+            });
+    // only a timeout of the write deadline skips the response
+    assertEquals(401, response.getStatusCode());
+  }
+
+  @Test
+  public void testWriteTimeout_writesOnCallingThread() throws Exception {
+    final Thread caller = Thread.currentThread();
+    final AtomicReference<Thread> writer = new AtomicReference<>();
+    MockHttpURLConnection connection = new MockHttpURLConnection(new URL(HttpTesting.SIMPLE_URL));
+    connection.setRequestMethod("POST");
+    NetHttpRequest request = new NetHttpRequest(connection);
+    request.setStreamingContent(new ByteArrayContent("text/plain", new byte[] {1}));
+    request.setWriteTimeout(5000);
+    request.execute(
+        new OutputWriter() {
+          @Override
+          public void write(OutputStream outputStream, StreamingContent content) {
+            writer.set(Thread.currentThread());
+          }
+        });
+    assertSame(caller, writer.get());
+    assertFalse(caller.isInterrupted());
+  }
+
+  @Test
+  public void testWriteTimeout_writeError() throws Exception {
+    MockHttpURLConnection connection = new MockHttpURLConnection(new URL(HttpTesting.SIMPLE_URL));
+    connection.setResponseCode(401);
+    connection.setRequestMethod("POST");
+    NetHttpRequest request = new NetHttpRequest(connection);
+    request.setStreamingContent(new ByteArrayContent("text/plain", new byte[] {1}));
+    request.setWriteTimeout(5000);
+    LowLevelHttpResponse response =
+        request.execute(
+            new OutputWriter() {
+              @Override
+              public void write(OutputStream outputStream, StreamingContent content)
+                  throws IOException {
+                throw new IOException("Error writing request body to server");
+              }
+            });
+    // the write error is handled like without a write timeout
+    assertEquals(401, response.getStatusCode());
+  }
+
+  private static void postWithTimeout(int timeout) throws Exception {
+    if (timeout == 0) {
+      MockHttpURLConnection connection =
+          new MockHttpURLConnection(new URL(HttpTesting.SIMPLE_URL));
+      postWithTimeout(connection, timeout, new SleepingOutputWriter(5000L));
+    } else {
+      // the write timeout disconnects the connection to abort the write
+      DisconnectableConnection connection = new DisconnectableConnection();
+      postWithTimeout(connection, timeout, new BlockingOutputWriter(connection));
+    }
+  }
+
+  private static void postWithTimeout(
+      MockHttpURLConnection connection, int timeout, OutputWriter outputWriter) throws Exception {
     connection.setRequestMethod("POST");
     NetHttpRequest request = new NetHttpRequest(connection);
     InputStream is = NetHttpRequestTest.class.getClassLoader().getResourceAsStream("file.txt");
     HttpContent content = new InputStreamContent("text/plain", is);
     request.setStreamingContent(content);
     request.setWriteTimeout(timeout);
-    request.execute(new SleepingOutputWriter(5000L));
+    request.execute(outputWriter);
   }
 
   @Test
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.json;
+
+import junit.framework.TestCase;
+
+/** Tests {@link JsonProjection}. */
+public class JsonProjectionTest extends TestCase {
+
+  public void testForKey() {
+    JsonProjection projection = JsonProjection.of("/id", "/items/name");
+    assertNull(projection.forKey(null, "etag"));
+    CustomizeJsonParser id = projection.forKey(null, "id");
+    assertNotNull(id);
+    // everything under a kept path is kept
+    assertSame(id, id.forKey(null, "any"));
+    CustomizeJsonParser items = projection.forKey(null, "items");
+    assertNotNull(items.forKey(null, "name"));
+    assertNull(items.forKey(null, "size"));
+  }
+
+  public void testForKey_prefixWins() {
+    JsonProjection projection = JsonProjection.of("/a/b", "/a");
+    CustomizeJsonParser a = projection.forKey(null, "a");
+    assertNotNull(a.forKey(null, "c"));
+  }
+
+  public void testForKey_emptyPath() {
+    JsonProjection projection = JsonProjection.of("");
+    assertSame(projection, projection.forKey(null, "any"));
+  }
+
+  public void testForKey_escapes() {
+    JsonProjection projection = JsonProjection.of("/a~1b/c~0d", "/");
+    assertNotNull(projection.forKey(null, "a/b").forKey(null, "c~d"));
+    assertNotNull(projection.forKey(null, ""));
+    assertNull(projection.forKey(null, "a~1b"));
+  }
+
+  public void testOf_invalid() {
+    try {
+      JsonProjection.of("id");
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
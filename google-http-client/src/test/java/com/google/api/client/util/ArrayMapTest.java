@@ -14,8 +14,12 @@
 
 package com.google.api.client.util;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import junit.framework.TestCase;
 
 /**
@@ -158,4 +162,79 @@ public class ArrayMapTest extends TestCase {
     assertEquals(1, map.size());
     assertEquals("b", map.get("b"));
   }
+
+  public void testLarge_putGet() {
+    ArrayMap<String, Integer> map = ArrayMap.create();
+    for (int i = 0; i < 1000; i++) {
+      assertNull(map.put("k" + i, i));
+    }
+    assertEquals(Integer.valueOf(5), map.put("k5", 50));
+    assertEquals(1000, map.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("k" + i, map.getKey(i));
+      assertEquals(i, map.getIndexOfKey("k" + i));
+      assertTrue(map.containsKey("k" + i));
+    }
+    assertEquals(Integer.valueOf(50), map.get("k5"));
+    assertFalse(map.containsKey("k1000"));
+    assertNull(map.get(null));
+    map.put(null, -1);
+    assertEquals(Integer.valueOf(-1), map.get(null));
+    assertEquals(1000, map.getIndexOfKey(null));
+  }
+
+  public void testLarge_removeAndSet() {
+    ArrayMap<String, Integer> map = ArrayMap.create();
+    for (int i = 0; i < 100; i++) {
+      map.add("k" + i, i);
+    }
+    assertEquals(Integer.valueOf(10), map.remove("k10"));
+    assertFalse(map.containsKey("k10"));
+    assertEquals(10, map.getIndexOfKey("k11"));
+    map.set(0, "x", 0);
+    assertFalse(map.containsKey("k0"));
+    assertEquals(0, map.getIndexOfKey("x"));
+    ArrayMap<String, Integer> clone = map.clone();
+    clone.put("y", 1);
+    assertTrue(clone.containsKey("y"));
+    assertFalse(map.containsKey("y"));
+  }
+
+  public void testLarge_duplicateKeys() {
+    ArrayMap<String, Integer> map = ArrayMap.create();
+    for (int i = 0; i < 20; i++) {
+      map.add("k" + i, i);
+    }
+    // add does not check for existing keys, so the first mapping wins
+    map.add("k3", 33);
+    assertEquals(Integer.valueOf(3), map.get("k3"));
+    assertEquals(3, map.getIndexOfKey("k3"));
+  }
+
+  public void testLarge_randomOperations() {
+    Random random = new Random(42);
+    ArrayMap<Integer, Integer> map = ArrayMap.create();
+    Map<Integer, Integer> expected = new LinkedHashMap<Integer, Integer>();
+    for (int i = 0; i < 20000; i++) {
+      Integer key = random.nextInt(200);
+      switch (random.nextInt(4)) {
+        case 0:
+        case 1:
+          assertEquals(expected.put(key, i), map.put(key, i));
+          break;
+        case 2:
+          assertEquals(expected.remove(key), map.remove(key));
+          break;
+        default:
+          assertEquals(expected.get(key), map.get(key));
+          assertEquals(expected.containsKey(key), map.containsKey(key));
+      }
+    }
+    List<Integer> keys = new ArrayList<Integer>();
+    for (int i = 0; i < map.size(); i++) {
+      keys.add(map.getKey(i));
+    }
+    assertEquals(new ArrayList<Integer>(expected.keySet()), keys);
+    assertEquals(expected, map);
+  }
 }
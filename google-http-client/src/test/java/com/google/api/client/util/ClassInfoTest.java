@@ -16,6 +16,7 @@ package com.google.api.client.util;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import java.lang.reflect.Field;
 import java.util.Arrays;
 import junit.framework.TestCase;
 
@@ -69,6 +70,27 @@ public class ClassInfoTest extends TestCase {
     String abc2;
   }
 
+  public class K {
+    @Key String key;
+
+    @Key("Content-Type")
+    String contentType;
+  }
+
+  public class Many {
+    @Key String f0;
+    @Key String f1;
+    @Key String f2;
+    @Key String f3;
+    @Key String f4;
+    @Key String f5;
+    @Key String f6;
+    @Key String f7;
+    @Key String aa;
+    @Key String bB;
+    @Key String c;
+  }
+
   public class A1 {
     @Key String foo;
 
@@ -76,6 +98,43 @@ public class ClassInfoTest extends TestCase {
     String foo2;
   }
 
+  public void testGetFieldInfo() throws Exception {
+    ClassInfo classInfo = ClassInfo.of(B.class);
+    // names that are not interned
+    assertEquals(A.class.getDeclaredField("c"), classInfo.getField(new String("oc")));
+    assertEquals(A.class.getDeclaredField("abc"), classInfo.getField(new String("AbC")));
+    assertEquals(B.class.getDeclaredField("e"), classInfo.getField("e"));
+    assertNull(classInfo.getFieldInfo("abc"));
+    assertNull(classInfo.getFieldInfo("d"));
+    assertNull(classInfo.getFieldInfo(""));
+    assertNull(classInfo.getFieldInfo(null));
+  }
+
+  public void testGetFieldInfo_ignoreCase() throws Exception {
+    ClassInfo classInfo = ClassInfo.of(B.class, true);
+    assertEquals(A.class.getDeclaredField("abc"), classInfo.getField("ABC"));
+    assertEquals(A.class.getDeclaredField("abc"), classInfo.getField("abc"));
+    assertEquals(A.class.getDeclaredField("c"), classInfo.getField("Oc"));
+    // the Kelvin sign is "k" in lower case
+    assertEquals(
+        K.class.getDeclaredField("key"), ClassInfo.of(K.class, true).getField("\u212Aey"));
+    assertEquals(
+        K.class.getDeclaredField("contentType"),
+        ClassInfo.of(K.class, true).getField("CONTENT-type"));
+    assertNull(classInfo.getFieldInfo("abcd"));
+    assertNull(classInfo.getFieldInfo("\u00c4bc"));
+  }
+
+  public void testGetFieldInfo_manyFields() throws Exception {
+    ClassInfo classInfo = ClassInfo.of(Many.class);
+    for (Field field : Many.class.getDeclaredFields()) {
+      if (!field.isSynthetic()) {
+        assertEquals(field, classInfo.getField(field.getName()));
+      }
+    }
+    assertNull(classInfo.getFieldInfo("f9"));
+  }
+
   public void testNames() {
     assertEquals(ImmutableList.of("AbC", "b", "oc"), ClassInfo.of(A.class).names);
     assertEquals(ImmutableList.of("AbC", "b", "e", "oc"), ClassInfo.of(B.class).names);
@@ -15,6 +15,7 @@
 package com.google.api.client.util;
 
 import com.google.api.client.json.GenericJson;
+import java.lang.reflect.Field;
 import junit.framework.TestCase;
 
 /**
@@ -51,7 +52,21 @@ public class FieldInfoTest extends TestCase {
     assertEquals(E.NULL, FieldInfo.of(E.NULL).<E>enumValue());
   }
 
+  public void testOf_field() throws Exception {
+    FieldInfo fieldInfo = FieldInfo.of(Data.class.getDeclaredField("passcode"));
+    assertEquals("passcode", fieldInfo.getName());
+    // cached for equal fields
+    assertSame(fieldInfo, FieldInfo.of(Data.class.getDeclaredField("passcode")));
+    assertNotSame(fieldInfo, FieldInfo.of(Data.class.getDeclaredField("passCode")));
+    assertNull(FieldInfo.of(Data.class.getDeclaredField("unannotated")));
+    assertNull(FieldInfo.of(Data.class.getDeclaredField("STATIC")));
+    assertNull(FieldInfo.of((Field) null));
+  }
+
   public static final class Data extends GenericJson {
+    @Key static String STATIC;
+    String unannotated;
+
     @Key String passcode;
     @Key String passCode;
 
@@ -82,4 +97,139 @@ public class FieldInfoTest extends TestCase {
     assertEquals(data.passcode, "passX");
     assertEquals(data.passCode, "pass2");
   }
+
+  public static class Values {
+    @Key int count;
+    @Key Long total;
+    @Key final String constant = "c";
+    @Key Object any;
+    @Key String withSetter;
+    @Key long size;
+    @Key boolean active;
+    @Key double score;
+    @Key int withIntSetter;
+    @Key String failing;
+    int setterCalls;
+
+    public void setWithSetter(String withSetter) {
+      setterCalls++;
+      this.withSetter = withSetter;
+    }
+
+    public void setWithIntSetter(Object withIntSetter) {
+      setterCalls++;
+      this.withIntSetter = (Integer) withIntSetter;
+    }
+
+    public void setFailing(String failing) {
+      throw new StackOverflowError();
+    }
+  }
+
+  public void testGetValue() throws Exception {
+    Values values = new Values();
+    values.count = 3;
+    values.total = 5L;
+    assertEquals(3, FieldInfo.of(Values.class.getDeclaredField("count")).getValue(values));
+    assertEquals(5L, FieldInfo.of(Values.class.getDeclaredField("total")).getValue(values));
+    assertEquals("c", FieldInfo.of(Values.class.getDeclaredField("constant")).getValue(values));
+    try {
+      FieldInfo.of(Values.class.getDeclaredField("count")).getValue(new Object());
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testSetValue() throws Exception {
+    Values values = new Values();
+    FieldInfo count = FieldInfo.of(Values.class.getDeclaredField("count"));
+    count.setValue(values, 7);
+    assertEquals(7, values.count);
+    // widening conversion of reflection
+    count.setValue(values, (short) 8);
+    assertEquals(8, values.count);
+    try {
+      count.setValue(values, null);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      count.setValue(values, "9");
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    FieldInfo any = FieldInfo.of(Values.class.getDeclaredField("any"));
+    any.setValue(values, 1.5);
+    assertEquals(1.5, values.any);
+    any.setValue(values, null);
+    assertNull(values.any);
+    FieldInfo constant = FieldInfo.of(Values.class.getDeclaredField("constant"));
+    constant.setValue(values, "c");
+    try {
+      constant.setValue(values, "d");
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testSetValue_setter() throws Exception {
+    Values values = new Values();
+    FieldInfo.of(Values.class.getDeclaredField("withSetter")).setValue(values, "a");
+    assertEquals("a", values.withSetter);
+    assertEquals(1, values.setterCalls);
+  }
+
+  public void testSetValue_setterError() throws Exception {
+    Values values = new Values();
+    try {
+      FieldInfo.of(Values.class.getDeclaredField("failing")).setValue(values, "a");
+      fail("expected " + StackOverflowError.class);
+    } catch (StackOverflowError e) {
+      // not hidden by setting the field directly
+    }
+    assertNull(values.failing);
+  }
+
+  public void testPrimitiveAccessors() throws Exception {
+    Values values = new Values();
+    FieldInfo count = FieldInfo.of(Values.class.getDeclaredField("count"));
+    FieldInfo size = FieldInfo.of(Values.class.getDeclaredField("size"));
+    FieldInfo active = FieldInfo.of(Values.class.getDeclaredField("active"));
+    FieldInfo score = FieldInfo.of(Values.class.getDeclaredField("score"));
+    count.setInt(values, 3);
+    size.setLong(values, 4000000000L);
+    active.setBoolean(values, true);
+    score.setDouble(values, 1.5);
+    assertEquals(3, values.count);
+    assertEquals(4000000000L, values.size);
+    assertTrue(values.active);
+    assertEquals(1.5, values.score);
+    assertEquals(3, count.getInt(values));
+    assertEquals(4000000000L, size.getLong(values));
+    assertTrue(active.getBoolean(values));
+    assertEquals(1.5, score.getDouble(values));
+    try {
+      count.getLong(values);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      count.getInt(new Object());
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testSetInt_setter() throws Exception {
+    Values values = new Values();
+    FieldInfo.of(Values.class.getDeclaredField("withIntSetter")).setInt(values, 5);
+    assertEquals(5, values.withIntSetter);
+    assertEquals(1, values.setterCalls);
+  }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import junit.framework.TestCase;
+
+/** Tests {@link PooledByteArrayOutputStream}. */
+public class PooledByteArrayOutputStreamTest extends TestCase {
+
+  public void testEmpty() throws IOException {
+    PooledByteArrayOutputStream stream = new PooledByteArrayOutputStream();
+    assertEquals(0, stream.size());
+    assertEquals(0, stream.toByteArray().length);
+    assertEquals("", stream.toString());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    stream.writeTo(out);
+    assertEquals(0, out.size());
+  }
+
+  public void testWrite_segments() throws IOException {
+    byte[] expected = new byte[PooledByteArrayOutputStream.SEGMENT_SIZE * 3 + 17];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = (byte) i;
+    }
+    PooledByteArrayOutputStream stream = new PooledByteArrayOutputStream();
+    stream.write(expected[0]);
+    stream.write(expected, 1, 100);
+    stream.write(expected, 101, expected.length - 101);
+    assertEquals(expected.length, stream.size());
+    assertTrue(Arrays.equals(expected, stream.toByteArray()));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    stream.writeTo(out);
+    assertTrue(Arrays.equals(expected, out.toByteArray()));
+    stream.release();
+    assertEquals(0, stream.size());
+  }
+
+  public void testRelease_reuse() throws IOException {
+    PooledByteArrayOutputStream stream = new PooledByteArrayOutputStream();
+    stream.write(new byte[PooledByteArrayOutputStream.SEGMENT_SIZE * 2]);
+    stream.release();
+    // recycled segments are overwritten
+    PooledByteArrayOutputStream other = new PooledByteArrayOutputStream();
+    other.write("été".getBytes(Charsets.UTF_8));
+    assertEquals("été", other.toString(Charsets.UTF_8));
+    stream.write('a');
+    assertEquals("a", stream.toString());
+    other.release();
+    stream.release();
+  }
+}